@@ -70,6 +70,7 @@ import org.cytoscape.work.TaskManager;
 import org.cytoscape.work.TunableSetter;
 import org.cytoscape.work.undo.UndoSupport;
 import org.osgi.framework.BundleContext;
+import org.cytoscape.dyn.internal.graphMetrics.DynamicCompactTasks;
 import org.cytoscape.dyn.internal.graphMetrics.GraphMetricsTasks;
 
 /**
@@ -196,6 +197,16 @@ public class CyActivator<T, C> extends AbstractCyActivator {
 		cprops.setProperty("title", "Dynamic Graph Metrics");
 		registerService(context, c, NetworkViewTaskFactory.class, cprops);
 
+		DynamicCompactTasks<T> compact = new DynamicCompactTasks<T>(
+				dynNetViewManager);
+
+		Properties compactProps = new Properties();
+		compactProps.setProperty("preferredMenu", "Apps");
+		compactProps.setProperty("menuGravity", "12.0");
+		compactProps.setProperty("title", "Compact Dynamic Attributes");
+		registerService(context, compact, NetworkViewTaskFactory.class,
+				compactProps);
+
 		cyServiceRegistrarRef = getService(context, CyServiceRegistrar.class);
 
 		
@@ -0,0 +1,331 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>BetweennessStressMetric</code> computes Betweenness and Stress using
+ * Brandes' algorithm which takes O(VE) time for unweighed graphs. In directed
+ * networks only the outgoing edges are followed.
+ * <p>
+ * The source nodes are partitioned across worker threads. Each worker keeps
+ * its own int and double buffers, which are reused for all sources and time
+ * windows, and accumulates into its own betweenness and stress arrays. The
+ * arrays of the workers are summed at the end of each time window. Idle worker
+ * threads are stopped after a few seconds.
+ * <p>
+ * Optionally the metric is approximated from a sample of k source nodes
+ * (pivots), chosen uniformly without replacement, as proposed by Brandes and
+ * Pich. The sums are scaled by n/k. The sample size is either given, or
+ * derived from a target error epsilon with probability 1-delta: with
+ * k = ln(2n/delta)/(2 epsilon^2) pivots, all betweenness values normalized by
+ * n(n-2) are within epsilon of the exact values. The pivots are drawn from a
+ * random generator with a fixed seed, so that the results are reproducible.
+ *
+ * @author Jimmy
+ *
+ */
+public class BetweennessStressMetric implements DynamicMetric {
+
+	// below this number of nodes the sources are processed on the calling
+	// thread
+	private static final int PARALLEL_THRESHOLD = 64;
+
+	private final boolean directed;
+	private final Worker[] workers;
+
+	private int sampleSize;
+	private double epsilon;
+	private double delta;
+	private long seed;
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Uses one worker per available processor.
+	 *
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 */
+	public BetweennessStressMetric(boolean directed) {
+		this(directed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 * @param threads
+	 *            number of worker threads
+	 */
+	public BetweennessStressMetric(boolean directed, int threads) {
+		this.directed = directed;
+		this.workers = new Worker[Math.max(1, threads)];
+		for (int w = 0; w < workers.length; w++)
+			workers[w] = new Worker(w);
+	}
+
+	/**
+	 * Approximates the metric from the given number of pivots in each time
+	 * window.
+	 *
+	 * @param sampleSize
+	 *            number of pivots, or 0 for exact computation
+	 * @param seed
+	 *            seed of the random generator that draws the pivots
+	 */
+	public void setApproximation(int sampleSize, long seed) {
+		this.sampleSize = Math.max(0, sampleSize);
+		this.epsilon = 0.0;
+		this.seed = seed;
+	}
+
+	/**
+	 * Approximates the metric from as many pivots as needed to reach the given
+	 * error with the given probability.
+	 *
+	 * @param epsilon
+	 *            maximal error of the normalized betweenness
+	 * @param delta
+	 *            probability that the error is exceeded
+	 * @param seed
+	 *            seed of the random generator that draws the pivots
+	 */
+	public void setApproximation(double epsilon, double delta, long seed) {
+		if (!(epsilon > 0) || !(delta > 0 && delta < 1))
+			throw new IllegalArgumentException(
+					"epsilon must be positive and delta between 0 and 1");
+		this.sampleSize = 0;
+		this.epsilon = epsilon;
+		this.delta = delta;
+		this.seed = seed;
+	}
+
+	/**
+	 * @param nodes
+	 *            number of nodes in the time window
+	 * @return number of pivots used for the given number of nodes
+	 */
+	public int getSampleSize(int nodes) {
+		if (sampleSize > 0)
+			return Math.min(sampleSize, nodes);
+		if (epsilon > 0) {
+			double k = Math.log(2.0 * nodes / delta) / (2 * epsilon * epsilon);
+			return (int) Math.min(nodes, Math.ceil(k));
+		}
+		return nodes;
+	}
+
+	@Override
+	public String getTitle() {
+		return "Calculating Betweenness and Stress";
+	}
+
+	@Override
+	public String[] getAttributeNames() {
+		return new String[] { "Betweenness", "Stress" };
+	}
+
+	@Override
+	public void compute(SnapshotGraph graph, double[][] values) {
+		int n = graph.getNodeCount();
+		int[] sources = getSources(n);
+		int k = sources.length;
+		int count = k < PARALLEL_THRESHOLD ? 1 : Math.min(workers.length, k);
+		for (int w = 0; w < count; w++)
+			workers[w].reset(graph, directed, sources, count);
+
+		if (count == 1)
+			workers[0].call();
+		else {
+			List<Worker> tasks = new ArrayList<Worker>(count);
+			for (int w = 0; w < count; w++)
+				tasks.add(workers[w]);
+			try {
+				for (Future<Void> future : getExecutor().invokeAll(tasks))
+					future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+
+		// reduce the accumulators of the workers, always in the same order
+		double[] betweenness = values[0];
+		double[] stress = values[1];
+		Arrays.fill(betweenness, 0, n, 0.0);
+		Arrays.fill(stress, 0, n, 0.0);
+		for (int w = 0; w < count; w++)
+			for (int i = 0; i < n; i++) {
+				betweenness[i] += workers[w].betweenness[i];
+				stress[i] += workers[w].stress[i];
+			}
+		if (k < n) {
+			double scale = (double) n / k;
+			for (int i = 0; i < n; i++) {
+				betweenness[i] *= scale;
+				stress[i] *= scale;
+			}
+		}
+	}
+
+	// all nodes, or a sample drawn by a partial Fisher-Yates shuffle
+	private int[] getSources(int n) {
+		int[] sources = new int[n];
+		for (int i = 0; i < n; i++)
+			sources[i] = i;
+		int k = getSampleSize(n);
+		if (k < n) {
+			Random random = new Random(seed);
+			for (int i = 0; i < k; i++) {
+				int j = i + random.nextInt(n - i);
+				int swap = sources[i];
+				sources[i] = sources[j];
+				sources[j] = swap;
+			}
+			sources = Arrays.copyOf(sources, k);
+		}
+		return sources;
+	}
+
+	private synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			executor = new ThreadPoolExecutor(workers.length, workers.length,
+					5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable,
+									"DynNetwork betweenness");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	/**
+	 * Runs Brandes' algorithm from the sources first, first+stride, ...
+	 */
+	private static final class Worker implements Callable<Void> {
+
+		private final int first;
+		private int stride;
+		private int[] sources;
+		private SnapshotGraph graph;
+		private boolean directed;
+
+		private double[] sigma = new double[0];
+		private double[] dependency = new double[0];
+		private double[] dependency1 = new double[0];
+		private int[] distance = new int[0];
+		private int[] order = new int[0];
+		private double[] betweenness = new double[0];
+		private double[] stress = new double[0];
+
+		private Worker(int first) {
+			this.first = first;
+		}
+
+		private void reset(SnapshotGraph graph, boolean directed,
+				int[] sources, int stride) {
+			this.graph = graph;
+			this.sources = sources;
+			this.directed = directed;
+			this.stride = stride;
+			int n = graph.getNodeCount();
+			if (distance.length < n) {
+				sigma = new double[n];
+				dependency = new double[n];
+				dependency1 = new double[n];
+				distance = new int[n];
+				order = new int[n];
+				betweenness = new double[n];
+				stress = new double[n];
+				Arrays.fill(distance, -1);
+			}
+			Arrays.fill(betweenness, 0, n, 0.0);
+			Arrays.fill(stress, 0, n, 0.0);
+		}
+
+		@Override
+		public Void call() {
+			int[] offset = directed ? graph.getSuccessorOffsets() : graph
+					.getNeighborOffsets();
+			int[] adjacency = directed ? graph.getSuccessors() : graph
+					.getNeighbors();
+			// predecessors are found on the reverse edges
+			int[] reverseOffset = graph.getNeighborOffsets();
+			int[] reverse = graph.getNeighbors();
+
+			for (int s = first; s < sources.length; s += stride) {
+				int source = sources[s];
+				// breadth first search, the queue is kept as visiting order
+				int head = 0, tail = 0;
+				order[tail++] = source;
+				distance[source] = 0;
+				sigma[source] = 1.0;
+				while (head < tail) {
+					int v = order[head++];
+					for (int k = offset[v]; k < offset[v + 1]; k++) {
+						int w = adjacency[k];
+						if (distance[w] < 0) {
+							order[tail++] = w;
+							distance[w] = distance[v] + 1;
+						}
+						if (distance[w] == distance[v] + 1)
+							sigma[w] += sigma[v];
+					}
+				}
+
+				// accumulate dependencies in reverse visiting order
+				for (int i = tail - 1; i >= 0; i--) {
+					int w = order[i];
+					// the neighbors of a node list the sources of its incoming
+					// edges first
+					int end = directed ? reverseOffset[w] + graph.getInDegree(w)
+							: reverseOffset[w + 1];
+					for (int k = reverseOffset[w]; k < end; k++) {
+						int v = reverse[k];
+						if (distance[v] == distance[w] - 1) {
+							dependency[v] += (sigma[v] / sigma[w])
+									* (1 + dependency[w]);
+							dependency1[v] += sigma[v] * (1 + dependency1[w]);
+						}
+					}
+					if (w != source) {
+						betweenness[w] += dependency[w];
+						stress[w] += dependency1[w];
+					}
+				}
+
+				// only the visited nodes need to be cleared for the next source
+				for (int i = 0; i < tail; i++) {
+					int v = order[i];
+					sigma[v] = 0.0;
+					dependency[v] = 0.0;
+					dependency1[v] = 0.0;
+					distance[v] = -1;
+				}
+			}
+			graph = null;
+			sources = null;
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+/**
+ * <code>DistanceAccumulator</code> receives the shortest path distances from
+ * each source node found by {@link DistanceEngine}. The distances of different
+ * sources may be passed concurrently from different threads.
+ *
+ * @author Jimmy
+ *
+ */
+public interface DistanceAccumulator {
+
+	/**
+	 * @return true if the distance of every node from the source is needed,
+	 *         false if the number of nodes at each distance is enough
+	 */
+	public boolean needsDistances();
+
+	/**
+	 * Accumulates the distances from one source node. The arrays are reused
+	 * for the next source once this method returns.
+	 *
+	 * @param source
+	 *            source node index
+	 * @param count
+	 *            count[d] is the number of nodes at distance d from the
+	 *            source, for d smaller than levels
+	 * @param levels
+	 *            largest distance of a node reached from the source plus one
+	 * @param distance
+	 *            distance[i] is the distance from the source to node i, or
+	 *            {@link DistanceEngine#UNREACHABLE}, or null if the distances
+	 *            are not needed
+	 */
+	public void accumulate(int source, int[] count, int levels, int[] distance);
+
+}
@@ -0,0 +1,305 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <code>DistanceEngine</code> computes the shortest path distances from every
+ * node of an unweighted graph by breadth first search, and streams the
+ * distances from each source to {@link DistanceAccumulator}s, so that the
+ * engine never stores the matrix of all distances. An accumulator may still
+ * keep pairwise state of its own, as the centroid of {@link DistanceMetric}
+ * does. In directed networks only the outgoing edges are followed.
+ * <p>
+ * The source nodes are partitioned across worker threads as in
+ * {@link BetweennessStressMetric}. Each worker keeps its own arrays, which are
+ * reused for all sources and time windows. Idle worker threads are stopped
+ * after a few seconds.
+ * <p>
+ * In multi-source mode (MS-BFS, Then et al.) each worker runs the searches of
+ * 64 sources at once: every node keeps a long bitset of the sources that have
+ * reached it and of the sources in whose frontier it is, so that the edges of
+ * a node are scanned once for all sources whose frontiers contain the node, 
+ * instead of once for each source. On networks with a small diameter the 
+ * frontiers of the sources overlap after a few levels and most edge scans are
+ * shared. The distances of all nodes from the 64 sources are kept only if an
+ * accumulator needs them.
+ *
+ * @author Jimmy
+ *
+ */
+public class DistanceEngine {
+
+	/**
+	 * Distance of the nodes that are not reached from the source.
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	// below this number of nodes the sources are processed on the calling
+	// thread
+	private static final int PARALLEL_THRESHOLD = 64;
+
+	// number of sources searched at once in multi-source mode
+	private static final int BATCH = Long.SIZE;
+
+	private final Worker[] workers;
+	private final boolean multiSource;
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Uses one worker per available processor, in multi-source mode.
+	 */
+	public DistanceEngine() {
+		this(Runtime.getRuntime().availableProcessors(), true);
+	}
+
+	/**
+	 * @param threads
+	 *            number of worker threads
+	 * @param multiSource
+	 *            true to search 64 sources at once
+	 */
+	public DistanceEngine(int threads, boolean multiSource) {
+		this.multiSource = multiSource;
+		this.workers = new Worker[Math.max(1, threads)];
+		for (int w = 0; w < workers.length; w++)
+			workers[w] = new Worker(w);
+	}
+
+	/**
+	 * Runs a breadth first search from every node of the graph, and returns
+	 * once the distances from all sources were accumulated.
+	 *
+	 * @param graph
+	 *            graph of the current time window
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 * @param accumulators
+	 *            accumulators of the distances from each source
+	 */
+	public void run(SnapshotGraph graph, boolean directed,
+			DistanceAccumulator... accumulators) {
+		int n = graph.getNodeCount();
+		int units = multiSource ? (n + BATCH - 1) / BATCH : n;
+		int count = n < PARALLEL_THRESHOLD ? 1 : Math.min(workers.length,
+				units);
+		boolean distances = false;
+		for (DistanceAccumulator accumulator : accumulators)
+			distances |= accumulator.needsDistances();
+		for (int w = 0; w < count; w++)
+			workers[w].reset(graph, directed, accumulators, distances, count);
+
+		if (count == 1) {
+			workers[0].call();
+			return;
+		}
+		List<Worker> tasks = new ArrayList<Worker>(count);
+		for (int w = 0; w < count; w++)
+			tasks.add(workers[w]);
+		try {
+			for (Future<Void> future : getExecutor().invokeAll(tasks))
+				future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			executor = new ThreadPoolExecutor(workers.length, workers.length,
+					5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable,
+									"DynNetwork distance");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	/**
+	 * Runs the breadth first search from the sources, or the batches of
+	 * sources, first, first+stride, ...
+	 */
+	private final class Worker implements Callable<Void> {
+
+		private final int first;
+		private int stride;
+		private SnapshotGraph graph;
+		private boolean directed;
+		private DistanceAccumulator[] accumulators;
+		private boolean distances;
+
+		// single source
+		private int[] distance = new int[0];
+		private int[] order = new int[0];
+		private int[] count = new int[0];
+
+		// multi-source
+		private long[] seen = new long[0];
+		private long[] visit = new long[0];
+		private long[] next = new long[0];
+		private int[][] counts = new int[BATCH][0];
+		private int[] levels = new int[BATCH];
+		private int[][] rows = new int[BATCH][0];
+
+		private Worker(int first) {
+			this.first = first;
+		}
+
+		private void reset(SnapshotGraph graph, boolean directed,
+				DistanceAccumulator[] accumulators, boolean distances,
+				int stride) {
+			this.graph = graph;
+			this.directed = directed;
+			this.accumulators = accumulators;
+			this.distances = distances;
+			this.stride = stride;
+			int n = graph.getNodeCount();
+			if (!multiSource && distance.length < n) {
+				distance = new int[n];
+				order = new int[n];
+				count = new int[n];
+				Arrays.fill(distance, UNREACHABLE);
+			}
+			if (multiSource && seen.length < n) {
+				seen = new long[n];
+				visit = new long[n];
+				next = new long[n];
+			}
+			if (multiSource && distances && rows[0].length < n)
+				for (int b = 0; b < BATCH; b++)
+					rows[b] = new int[n];
+		}
+
+		@Override
+		public Void call() {
+			int n = graph.getNodeCount();
+			int[] offset = directed ? graph.getSuccessorOffsets() : graph
+					.getNeighborOffsets();
+			int[] adjacency = directed ? graph.getSuccessors() : graph
+					.getNeighbors();
+
+			if (multiSource)
+				for (int s = first * BATCH; s < n; s += stride * BATCH)
+					search(s, Math.min(BATCH, n - s), n, offset, adjacency);
+			else
+				for (int source = first; source < n; source += stride)
+					search(source, offset, adjacency);
+
+			graph = null;
+			accumulators = null;
+			return null;
+		}
+
+		private void search(int source, int[] offset, int[] adjacency) {
+			int head = 0, tail = 0;
+			order[tail++] = source;
+			distance[source] = 0;
+			count[0] = 1;
+			while (head < tail) {
+				int v = order[head++];
+				for (int k = offset[v]; k < offset[v + 1]; k++) {
+					int w = adjacency[k];
+					if (distance[w] == UNREACHABLE) {
+						distance[w] = distance[v] + 1;
+						count[distance[w]]++;
+						order[tail++] = w;
+					}
+				}
+			}
+
+			// the nodes are visited by increasing distance
+			int levels = distance[order[tail - 1]] + 1;
+			for (DistanceAccumulator accumulator : accumulators)
+				accumulator.accumulate(source, count, levels,
+						distances ? distance : null);
+
+			// only the visited nodes need to be cleared for the next source
+			for (int i = 0; i < tail; i++)
+				distance[order[i]] = UNREACHABLE;
+			Arrays.fill(count, 0, levels, 0);
+		}
+
+		// searches from the sources start..start+size-1, source start+b is
+		// bit b of the bitsets
+		private void search(int start, int size, int n, int[] offset,
+				int[] adjacency) {
+			Arrays.fill(seen, 0, n, 0L);
+			Arrays.fill(visit, 0, n, 0L);
+			if (distances)
+				for (int b = 0; b < size; b++)
+					Arrays.fill(rows[b], 0, n, UNREACHABLE);
+			for (int b = 0; b < size; b++) {
+				seen[start + b] = 1L << b;
+				visit[start + b] = 1L << b;
+				if (distances)
+					rows[b][start + b] = 0;
+				count(b, 0);
+			}
+
+			boolean frontier = true;
+			for (int level = 1; frontier; level++) {
+				// expand the frontiers of all sources at once
+				for (int v = 0; v < n; v++) {
+					long sources = visit[v];
+					if (sources != 0)
+						for (int k = offset[v]; k < offset[v + 1]; k++)
+							next[adjacency[k]] |= sources;
+				}
+
+				// keep only the sources that reach a node for the first time
+				frontier = false;
+				for (int w = 0; w < n; w++) {
+					long sources = next[w] & ~seen[w];
+					next[w] = 0L;
+					visit[w] = sources;
+					if (sources != 0) {
+						frontier = true;
+						seen[w] |= sources;
+						for (; sources != 0; sources &= sources - 1) {
+							int b = Long.numberOfTrailingZeros(sources);
+							count(b, level);
+							if (distances)
+								rows[b][w] = level;
+						}
+					}
+				}
+			}
+
+			for (int b = 0; b < size; b++) {
+				for (DistanceAccumulator accumulator : accumulators)
+					accumulator.accumulate(start + b, counts[b], levels[b],
+							distances ? rows[b] : null);
+				Arrays.fill(counts[b], 0, levels[b], 0);
+				levels[b] = 0;
+			}
+		}
+
+		private void count(int b, int level) {
+			if (level == counts[b].length)
+				counts[b] = Arrays.copyOf(counts[b], Math.max(16, 2 * level));
+			counts[b][level]++;
+			levels[b] = level + 1;
+		}
+	}
+
+}
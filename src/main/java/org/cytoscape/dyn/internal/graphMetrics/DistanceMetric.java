@@ -0,0 +1,281 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.Arrays;
+
+/**
+ * <code>DistanceMetric</code> computes Eccentricity, Closenness, Radiality and
+ * Centroid of nodes in undirected networks, and Eccentricity, Closeness and
+ * Radiality of nodes in directed networks, from the shortest path distances
+ * found by breadth first search.
+ * <p>
+ * The searches are run in parallel by a {@link DistanceEngine}, 64 sources at
+ * once by default, and the distances from each source are reduced to the
+ * values of that source as they are found: eccentricity and closeness only
+ * need the number of nodes at each distance. The centroid compares the
+ * distances from every pair of nodes, and keeps only the difference of the
+ * counts for each pair instead of all distances. That is still a triangular
+ * array of n^2/2 ints and O(n^3) time, so the centroid can be turned off with
+ * {@link #setCentroid(boolean)}; its buffer is reused across time windows.
+ * <p>
+ * The diameter of the graph, the largest distance between two connected nodes,
+ * is also computed in each time window.
+ *
+ * @author Jimmy
+ *
+ */
+public class DistanceMetric implements DynamicGraphMetric {
+
+	private final boolean directed;
+	private final DistanceEngine engine;
+	private double diameter;
+	private boolean centroid = true;
+	private Centroid centroidAccumulator;
+
+	/**
+	 * Uses one worker per available processor.
+	 *
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 */
+	public DistanceMetric(boolean directed) {
+		this(directed, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 * @param threads
+	 *            number of worker threads
+	 */
+	public DistanceMetric(boolean directed, int threads) {
+		this(directed, threads, true);
+	}
+
+	/**
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 * @param threads
+	 *            number of worker threads
+	 * @param multiSource
+	 *            true to search 64 sources at once
+	 */
+	public DistanceMetric(boolean directed, int threads, boolean multiSource) {
+		this.directed = directed;
+		this.engine = new DistanceEngine(threads, multiSource);
+	}
+
+	/**
+	 * Enables or disables the centroid of undirected networks, which needs
+	 * memory quadratic in the number of nodes of a time window. It is enabled
+	 * by default.
+	 *
+	 * @param centroid
+	 *            true to compute the centroid
+	 */
+	public void setCentroid(boolean centroid) {
+		this.centroid = centroid;
+		if (!centroid)
+			centroidAccumulator = null;
+	}
+
+	@Override
+	public String getTitle() {
+		return "Calculating Centrality parameters";
+	}
+
+	@Override
+	public String[] getAttributeNames() {
+		if (directed || !centroid)
+			return new String[] { "Eccentricity", "Closeness", "Radiality" };
+		else
+			return new String[] { "Eccentricity", "Closeness", "Radiality",
+					"Centroid" };
+	}
+
+	@Override
+	public String[] getGraphAttributeNames() {
+		return new String[] { "Diameter" };
+	}
+
+	@Override
+	public double[] getGraphValues() {
+		return new double[] { diameter };
+	}
+
+	@Override
+	public void compute(SnapshotGraph graph, double[][] values) {
+		int n = graph.getNodeCount();
+		diameter = 0.0;
+		if (n == 0)
+			return;
+
+		Closeness closeness = new Closeness(n, directed, values[0], values[1]);
+		if (directed)
+			engine.run(graph, true, closeness);
+		else if (!centroid)
+			engine.run(graph, false, closeness);
+		else {
+			if (centroidAccumulator == null)
+				centroidAccumulator = new Centroid();
+			centroidAccumulator.reset(n);
+			engine.run(graph, false, closeness, centroidAccumulator);
+			centroidAccumulator.getCentroid(values[3]);
+		}
+
+		double graphDistance = 0.0;
+		for (int i = 0; i < n; i++) {
+			if (closeness.max[i] > graphDistance)
+				graphDistance = closeness.max[i];
+			if (closeness.depth[i] > diameter)
+				diameter = closeness.depth[i];
+		}
+
+		double[] radiality = values[2];
+		for (int i = 0; i < n; i++)
+			if (directed)
+				radiality[i] = 1 / ((n - 1) * graphDistance - values[1][i]);
+			else
+				radiality[i] = ((n - 1) * (graphDistance + 1) - (1 / values[1][i]))
+						/ (n - 1);
+	}
+
+	/**
+	 * Eccentricity and closeness of each source, only the values of the source
+	 * are written.
+	 */
+	private static final class Closeness implements DistanceAccumulator {
+
+		private final int n;
+		private final boolean directed;
+		private final double[] eccentricity;
+		private final double[] closeness;
+		private final double[] max;
+		private final int[] depth;
+
+		private Closeness(int n, boolean directed, double[] eccentricity,
+				double[] closeness) {
+			this.n = n;
+			this.directed = directed;
+			this.eccentricity = eccentricity;
+			this.closeness = closeness;
+			this.max = new double[n];
+			this.depth = new int[n];
+		}
+
+		@Override
+		public boolean needsDistances() {
+			return false;
+		}
+
+		@Override
+		public void accumulate(int source, int[] count, int levels,
+				int[] distance) {
+			// the nodes that are not reached are at infinite distance
+			int reached = 0;
+			double sum = 0.0;
+			for (int d = 1; d < levels; d++) {
+				reached += count[d];
+				sum += directed ? count[d] / (double) d : (double) count[d] * d;
+			}
+			double max = levels - 1;
+			if (!directed && reached < n - 1) {
+				sum = Double.POSITIVE_INFINITY;
+				max = Double.POSITIVE_INFINITY;
+			}
+
+			if (directed) {
+				closeness[source] = sum;
+				eccentricity[source] = max != 0 ? 1 / max : max;
+			} else {
+				closeness[source] = 1 / sum;
+				eccentricity[source] = 1 / max;
+			}
+			this.max[source] = max;
+			this.depth[source] = levels - 1;
+		}
+	}
+
+	/**
+	 * For each pair of nodes a and b, the number of other nodes closer to a
+	 * than to b minus the number of nodes closer to b than to a. In undirected
+	 * networks the distance from a node c to a is the distance from a to c, so
+	 * the counts are updated from the distances of each source c. The rows are
+	 * kept for the largest time window seen, and cleared for each window.
+	 */
+	private static final class Centroid implements DistanceAccumulator {
+
+		private static final int STRIPES = 64;
+
+		private int n;
+		// difference[a][b-a-1] for a<b
+		private int[][] difference = new int[0][];
+		private final Object[] locks;
+
+		private Centroid() {
+			this.locks = new Object[STRIPES];
+			for (int i = 0; i < STRIPES; i++)
+				locks[i] = new Object();
+		}
+
+		private void reset(int n) {
+			this.n = n;
+			if (n > difference.length) {
+				difference = new int[n][];
+				for (int a = 0; a < n; a++)
+					difference[a] = new int[n - a - 1];
+			} else
+				for (int a = 0; a < n; a++)
+					Arrays.fill(difference[a], 0, n - a - 1, 0);
+		}
+
+		@Override
+		public boolean needsDistances() {
+			return true;
+		}
+
+		@Override
+		public void accumulate(int source, int[] count, int levels,
+				int[] distance) {
+			// each source starts at a different row, so that the workers
+			// rarely wait for the same rows
+			for (int r = 0; r < n; r++) {
+				int a = (source + r) % n;
+				if (a == source)
+					continue;
+				int[] row = difference[a];
+				int da = distance[a];
+				synchronized (locks[a % STRIPES]) {
+					for (int b = a + 1; b < n; b++) {
+						if (b == source)
+							continue;
+						int db = distance[b];
+						if (da < db)
+							row[b - a - 1]++;
+						else if (da > db)
+							row[b - a - 1]--;
+					}
+				}
+			}
+		}
+
+		private void getCentroid(double[] centroid) {
+			int[] min = new int[n];
+			for (int a = 0; a < n; a++) {
+				int[] row = difference[a];
+				for (int b = a + 1; b < n; b++) {
+					int d = row[b - a - 1];
+					if (d < min[a])
+						min[a] = d;
+					if (-d < min[b])
+						min[b] = -d;
+				}
+			}
+			for (int i = 0; i < n; i++)
+				centroid[i] = min[i];
+		}
+	}
+
+}
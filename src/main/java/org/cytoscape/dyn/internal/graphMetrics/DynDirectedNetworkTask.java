@@ -16,14 +16,78 @@ public class DynDirectedNetworkTask extends AbstractTask{
 	@Tunable(description="The network loaded is directed. Would you like to treat it as directed in the computation of centralities?")
 	public boolean treatDirected = false;
 	
+	@Tunable(description="Number of sampled source nodes for approximate betweenness and stress (0 computes them exactly)")
+	public int betweennessSamples = 0;
+	
+	@Tunable(description="Maximal error of approximate betweenness, normalized by the number of node pairs (0 uses the number of samples)")
+	public double betweennessEpsilon = 0.0;
+	
+	@Tunable(description="Probability that approximate betweenness exceeds the maximal error")
+	public double betweennessDelta = 0.1;
+	
+	@Tunable(description="Random seed for sampling source nodes")
+	public long randomSeed = 0;
+	
+	@Tunable(description="Compute the centroid of undirected networks (turn off for large networks: memory and time grow with the square and cube of the number of nodes)")
+	public boolean computeCentroid = true;
+	
+	@Tunable(description="Approximate eccentricity, closeness, radiality and the effective diameter with HyperBall (no centroid)")
+	public boolean approximateDistances = false;
+	
+	@Tunable(description="Precision of the HyperBall counters, 2^precision bytes per node (4 to 16)")
+	public int hyperBallPrecision = HyperBallMetric.DEFAULT_PRECISION;
+	
 	@Override
-	public void run(TaskMonitor arg0) throws Exception {
-		// TODO Auto-generated method stub
-		
+	public void run(TaskMonitor monitor) throws Exception {
+		monitor.setTitle("Checking the Graph Metrics Parameters");
+		String error = validate();
+		if (error != null) {
+			monitor.setStatusMessage(error);
+			throw new IllegalArgumentException(error);
+		}
+	}
+	
+	/**
+	 * Checks the tunables, so that no metric is created from invalid values.
+	 * 
+	 * @return error message, or null if the tunables are valid
+	 */
+	public String validate(){
+		if (betweennessEpsilon>0 && !(betweennessDelta>0 && betweennessDelta<1))
+			return "The probability of approximate betweenness must be between 0 and 1, was " + betweennessDelta;
+		if (approximateDistances && (hyperBallPrecision<HyperLogLogCounters.MIN_PRECISION || hyperBallPrecision>HyperLogLogCounters.MAX_PRECISION))
+			return "The precision of the HyperBall counters must be between " + HyperLogLogCounters.MIN_PRECISION 
+					+ " and " + HyperLogLogCounters.MAX_PRECISION + ", was " + hyperBallPrecision;
+		return null;
 	}
 	
 	public boolean wantsDirected(){
 		return this.treatDirected;
 	}
+	
+	/**
+	 * @param directed
+	 * @return betweenness and stress metric, approximated if requested
+	 */
+	public BetweennessStressMetric createBetweennessStressMetric(boolean directed){
+		BetweennessStressMetric metric = new BetweennessStressMetric(directed);
+		if (betweennessEpsilon>0)
+			metric.setApproximation(betweennessEpsilon, betweennessDelta, randomSeed);
+		else
+			metric.setApproximation(betweennessSamples, randomSeed);
+		return metric;
+	}
+	
+	/**
+	 * @param directed
+	 * @return distance metric, approximated if requested
+	 */
+	public DynamicMetric createDistanceMetric(boolean directed){
+		if (approximateDistances)
+			return new HyperBallMetric(directed, hyperBallPrecision);
+		DistanceMetric metric = new DistanceMetric(directed);
+		metric.setCentroid(computeCentroid);
+		return metric;
+	}
 
 }
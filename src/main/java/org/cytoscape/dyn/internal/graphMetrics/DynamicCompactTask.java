@@ -0,0 +1,47 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import org.cytoscape.dyn.internal.model.DynNetwork;
+import org.cytoscape.dyn.internal.view.model.DynNetworkViewManagerImpl;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.TaskMonitor;
+
+/**
+ * <code>DynamicCompactTask</code> merges the touching intervals with equal
+ * values of the dynamic attributes of a view, for instance the metrics written
+ * by {@link DynamicMetricsTask} before their values were coalesced, and
+ * rebuilds the attribute index once afterwards.
+ *
+ * @author Jimmy
+ *
+ * @param <T>
+ */
+public class DynamicCompactTask<T> extends AbstractTask {
+
+	private DynNetworkViewManagerImpl<T> dynNetViewManager;
+	private CyNetworkView cyNetworkView;
+
+	/**
+	 * @param dynNetViewManager
+	 * @param cyNetworkView
+	 */
+	public DynamicCompactTask(DynNetworkViewManagerImpl<T> dynNetViewManager,
+			CyNetworkView cyNetworkView) {
+		this.dynNetViewManager = dynNetViewManager;
+		this.cyNetworkView = cyNetworkView;
+	}
+
+	@Override
+	public void run(TaskMonitor monitor) {
+		monitor.setTitle("Compacting Dynamic Attributes");
+		DynNetwork<T> dynamicnetwork = dynNetViewManager.getDynNetworkView(
+				cyNetworkView).getNetwork();
+		int removed = dynamicnetwork.compactAttributes();
+		monitor.setStatusMessage(removed + " intervals merged");
+		monitor.setProgress(1.0);
+	}
+
+}
@@ -0,0 +1,33 @@
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import org.cytoscape.dyn.internal.view.model.DynNetworkViewManagerImpl;
+import org.cytoscape.task.AbstractNetworkViewTaskFactory;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.TaskIterator;
+
+/**
+ * <code>DynamicCompactTasks</code> creates the {@link DynamicCompactTask} of a
+ * dynamic network view.
+ *
+ * @author Jimmy
+ *
+ * @param <T>
+ */
+public class DynamicCompactTasks<T> extends AbstractNetworkViewTaskFactory {
+
+	private DynNetworkViewManagerImpl<T> dynNetViewManager;
+
+	/**
+	 * @param dynNetViewManager
+	 */
+	public DynamicCompactTasks(DynNetworkViewManagerImpl<T> dynNetViewManager) {
+		this.dynNetViewManager = dynNetViewManager;
+	}
+
+	@Override
+	public TaskIterator createTaskIterator(CyNetworkView arg0) {
+		return new TaskIterator(new DynamicCompactTask<T>(dynNetViewManager,
+				arg0));
+	}
+
+}
@@ -0,0 +1,27 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+/**
+ * <code>DynamicGraphMetric</code> is a {@link DynamicMetric} that also
+ * computes values of the whole graph in each time window, which are stored as
+ * dynamic graph attributes.
+ *
+ * @author Jimmy
+ *
+ */
+public interface DynamicGraphMetric extends DynamicMetric {
+
+	/**
+	 * @return names of the graph attributes computed by this metric
+	 */
+	public String[] getGraphAttributeNames();
+
+	/**
+	 * @return values of the graph attributes, in the order of their names, of
+	 *         the time window last computed
+	 */
+	public double[] getGraphValues();
+
+}
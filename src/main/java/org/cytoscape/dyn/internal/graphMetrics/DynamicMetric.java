@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+/**
+ * <code>DynamicMetric</code> is the interface of the node metrics computed by
+ * {@link DynamicMetricsEngine} in each time window of a dynamic network.
+ *
+ * @author Jimmy
+ *
+ */
+public interface DynamicMetric {
+
+	/**
+	 * @return title shown while the metric is computed
+	 */
+	public String getTitle();
+
+	/**
+	 * @return names of the node attributes computed by this metric
+	 */
+	public String[] getAttributeNames();
+
+	/**
+	 * Computes the metric for all nodes of the graph.
+	 *
+	 * @param graph
+	 *            graph of the current time window
+	 * @param values
+	 *            values[a][i] is set to the value of attribute a for node i
+	 */
+	public void compute(SnapshotGraph graph, double[][] values);
+
+}
@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cytoscape.dyn.internal.model.DynNetwork;
+import org.cytoscape.dyn.internal.model.snapshot.DynNetworkSnapshotImpl;
+import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalDouble;
+
+/**
+ * <code>DynamicMetricsEngine</code> computes a set of node metrics for each
+ * time window of a dynamic network in a single sweep. One network snapshot is
+ * moved through the consecutive event times, and for each time window the
+ * snapshot is copied once into a {@link SnapshotGraph} that all metrics share.
+ * Degrees are not computed on the copy, but updated by an
+ * {@link IncrementalDegree} from the edges that changed.
+ * The engine needs no network view and no Swing components, so that it can be
+ * run headless.
+ *
+ * @author Jimmy
+ *
+ * @param <T>
+ */
+public class DynamicMetricsEngine<T> {
+
+	private final DynNetwork<T> dynamicNetwork;
+	private final List<DynamicMetric> metrics;
+	private Boolean degreeDirected;
+
+	private volatile boolean cancelled;
+	private volatile double progress;
+
+	/**
+	 * @param dynamicNetwork
+	 *            dynamic network
+	 */
+	public DynamicMetricsEngine(DynNetwork<T> dynamicNetwork) {
+		this.dynamicNetwork = dynamicNetwork;
+		this.metrics = new ArrayList<DynamicMetric>();
+	}
+
+	/**
+	 * Adds a metric to compute in each time window.
+	 *
+	 * @param metric
+	 */
+	public void addMetric(DynamicMetric metric) {
+		metrics.add(metric);
+	}
+
+	/**
+	 * Adds the degree, or in-degree and out-degree, to the metrics computed.
+	 *
+	 * @param directed
+	 *            true to compute in-degree and out-degree
+	 */
+	public void addDegree(boolean directed) {
+		degreeDirected = directed;
+	}
+
+	/**
+	 * @return metrics computed in each time window
+	 */
+	public List<DynamicMetric> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Computes all metrics for each time window between consecutive event
+	 * times, and passes the results to the listener.
+	 *
+	 * @param listener
+	 */
+	@SuppressWarnings("unchecked")
+	public void run(DynamicMetricsListener listener) {
+		cancelled = false;
+		progress = 0.0;
+
+		double[] eventTimes = dynamicNetwork.getEventTimes();
+		if (eventTimes.length == 0)
+			return;
+
+		DynNetworkSnapshotImpl<T> networkSnapshot = new DynNetworkSnapshotImpl<T>(
+				dynamicNetwork);
+		Double startTime = Double.valueOf(eventTimes[0]);
+		DynIntervalDouble snapshotInterval = new DynIntervalDouble(startTime,
+				startTime);
+		networkSnapshot.setInterval((DynInterval<T>) snapshotInterval, 0.0,
+				0.0, 0.0);
+
+		IncrementalDegree<T> degree = null;
+		if (degreeDirected != null)
+			degree = new IncrementalDegree<T>(dynamicNetwork, degreeDirected);
+
+		double[][][] values = new double[metrics.size()][][];
+		for (int m = 0; m < metrics.size(); m++)
+			values[m] = new double[metrics.get(m).getAttributeNames().length][];
+
+		for (int t = 1; t < eventTimes.length && !cancelled; t++) {
+			Double endTime = Double.valueOf(eventTimes[t]);
+			snapshotInterval.setStart(startTime);
+			snapshotInterval.setEnd(endTime);
+
+			if (degree != null)
+				degree.advance((DynInterval<T>) snapshotInterval, listener);
+
+			if (!metrics.isEmpty()) {
+				networkSnapshot.setInterval(
+						(DynInterval<T>) snapshotInterval, 0.0, 0.0, 0.0);
+				SnapshotGraph graph = new SnapshotGraph(networkSnapshot);
+				int n = graph.getNodeCount();
+				for (int m = 0; m < metrics.size() && !cancelled; m++) {
+					DynamicMetric metric = metrics.get(m);
+					String[] attNames = metric.getAttributeNames();
+					for (int a = 0; a < attNames.length; a++)
+						if (values[m][a] == null || values[m][a].length < n)
+							values[m][a] = new double[n];
+					metric.compute(graph, values[m]);
+					for (int a = 0; a < attNames.length; a++)
+						listener.handleResult(attNames[a], graph.getNodes(),
+								values[m][a], startTime, endTime);
+					if (metric instanceof DynamicGraphMetric) {
+						DynamicGraphMetric graphMetric = (DynamicGraphMetric) metric;
+						String[] graphAttNames = graphMetric
+								.getGraphAttributeNames();
+						double[] graphValues = graphMetric.getGraphValues();
+						for (int a = 0; a < graphAttNames.length; a++)
+							listener.handleGraphResult(graphAttNames[a],
+									graphValues[a], startTime, endTime);
+					}
+				}
+			}
+
+			progress = (double) t / (eventTimes.length - 1);
+			startTime = endTime;
+		}
+
+		if (degree != null)
+			degree.finish(listener);
+	}
+
+	/**
+	 * Stops the computation after the current metric.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * @return fraction of the time windows computed so far
+	 */
+	public double getProgress() {
+		return progress;
+	}
+
+}
@@ -0,0 +1,63 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>DynamicMetricsListener</code> receives the node metrics computed by
+ * {@link DynamicMetricsEngine}, either one attribute of one time window at a
+ * time, or one value of one node for the time span in which it did not change.
+ * The values of the whole graph computed by a {@link DynamicGraphMetric} are
+ * received once for each time window.
+ *
+ * @author Jimmy
+ *
+ */
+public interface DynamicMetricsListener {
+
+	/**
+	 * @param attName
+	 *            attribute name
+	 * @param nodes
+	 *            nodes of the time window
+	 * @param values
+	 *            values[i] is the attribute value of nodes[i]
+	 * @param start
+	 *            start of the time window
+	 * @param end
+	 *            end of the time window
+	 */
+	public void handleResult(String attName, CyNode[] nodes, double[] values,
+			Double start, Double end);
+
+	/**
+	 * @param attName
+	 *            attribute name
+	 * @param node
+	 *            node
+	 * @param value
+	 *            attribute value of the node from start to end
+	 * @param start
+	 *            start of the time span
+	 * @param end
+	 *            end of the time span
+	 */
+	public void handleInterval(String attName, CyNode node, double value,
+			Double start, Double end);
+
+	/**
+	 * @param attName
+	 *            graph attribute name
+	 * @param value
+	 *            attribute value of the graph in the time window
+	 * @param start
+	 *            start of the time window
+	 * @param end
+	 *            end of the time window
+	 */
+	public void handleGraphResult(String attName, double value, Double start,
+			Double end);
+
+}
@@ -0,0 +1,129 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import org.cytoscape.dyn.internal.model.DynNetwork;
+import org.cytoscape.dyn.internal.model.DynNetworkFactory;
+import org.cytoscape.dyn.internal.model.DynNetworkFactoryImpl;
+import org.cytoscape.dyn.internal.model.DynNetworkManagerImpl;
+import org.cytoscape.dyn.internal.view.model.DynNetworkViewManagerImpl;
+import org.cytoscape.model.CyNetworkFactory;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.subnetwork.CyRootNetworkManager;
+import org.cytoscape.session.CyNetworkNaming;
+import org.cytoscape.view.model.CyNetworkView;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.TaskMonitor;
+
+/**
+ * <code>DynamicMetricsTask</code> runs a {@link DynamicMetricsEngine} with the
+ * given metrics on the dynamic network of a view, and stores the results as
+ * dynamic node attributes.
+ *
+ * @author Jimmy
+ *
+ * @param <T>
+ */
+public class DynamicMetricsTask<T> extends AbstractTask {
+
+	private DynNetworkViewManagerImpl<T> dynNetViewManager;
+	private CyNetworkView cyNetworkView;
+	private CyNetworkFactory networkFactory;
+	private CyRootNetworkManager rootNetworkManager;
+	private CyNetworkNaming nameUtil;
+	private DynNetworkManagerImpl<T> dynNetManager;
+	private DynamicMetric[] metrics;
+	private Boolean degreeDirected;
+	private DynamicMetricsEngine<T> engine;
+
+	/**
+	 * @param dynNetViewManager
+	 * @param cyNetworkView
+	 * @param networkFactory
+	 * @param rootNetworkManager
+	 * @param nameUtil
+	 * @param dynNetManager
+	 * @param metrics
+	 *            metrics to compute in each time window
+	 */
+	public DynamicMetricsTask(DynNetworkViewManagerImpl<T> dynNetViewManager,
+			CyNetworkView cyNetworkView, CyNetworkFactory networkFactory,
+			CyRootNetworkManager rootNetworkManager, CyNetworkNaming nameUtil,
+			DynNetworkManagerImpl<T> dynNetManager, DynamicMetric... metrics) {
+		this.dynNetViewManager = dynNetViewManager;
+		this.cyNetworkView = cyNetworkView;
+		this.networkFactory = networkFactory;
+		this.rootNetworkManager = rootNetworkManager;
+		this.nameUtil = nameUtil;
+		this.dynNetManager = dynNetManager;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Adds the degree, or in-degree and out-degree, to the metrics computed.
+	 *
+	 * @param directed
+	 *            true to compute in-degree and out-degree
+	 */
+	public void addDegree(boolean directed) {
+		this.degreeDirected = directed;
+	}
+
+	@Override
+	public void run(final TaskMonitor monitor) {
+		if (metrics.length == 1 && degreeDirected == null)
+			monitor.setTitle(metrics[0].getTitle());
+		else if (metrics.length == 0)
+			monitor.setTitle("Calculating Degree");
+		else
+			monitor.setTitle("Calculating Graph Metrics");
+
+		DynNetworkFactory<T> dynNetFactory = new DynNetworkFactoryImpl<T>(
+				networkFactory, rootNetworkManager, dynNetManager, nameUtil);
+		DynNetwork<T> dynamicnetwork = dynNetViewManager.getDynNetworkView(
+				cyNetworkView).getNetwork();
+
+		engine = new DynamicMetricsEngine<T>(dynamicnetwork);
+		for (DynamicMetric metric : metrics)
+			engine.addMetric(metric);
+		if (degreeDirected != null)
+			engine.addDegree(degreeDirected);
+
+		final DynamicMetricsWriter<T> writer = new DynamicMetricsWriter<T>(
+				dynNetFactory, dynamicnetwork);
+		try {
+			engine.run(new DynamicMetricsListener() {
+				@Override
+				public void handleResult(String attName, CyNode[] nodes,
+						double[] values, Double start, Double end) {
+					writer.handleResult(attName, nodes, values, start, end);
+					monitor.setProgress(engine.getProgress());
+				}
+
+				@Override
+				public void handleInterval(String attName, CyNode node,
+						double value, Double start, Double end) {
+					writer.handleInterval(attName, node, value, start, end);
+					monitor.setProgress(engine.getProgress());
+				}
+
+				@Override
+				public void handleGraphResult(String attName, double value,
+						Double start, Double end) {
+					writer.handleGraphResult(attName, value, start, end);
+				}
+			});
+		} finally {
+			writer.flush();
+		}
+	}
+
+	@Override
+	public void cancel() {
+		super.cancel();
+		if (engine != null)
+			engine.cancel();
+	}
+
+}
@@ -0,0 +1,186 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.cytoscape.dyn.internal.model.DynNetwork;
+import org.cytoscape.dyn.internal.model.DynNetworkFactory;
+import org.cytoscape.dyn.internal.model.snapshot.LongIntHashMap;
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>DynamicMetricsWriter</code> stores the results of
+ * {@link DynamicMetricsEngine} as real valued dynamic node and graph
+ * attributes, valid in the time window they were computed for. Consecutive
+ * windows in which a node or the graph keeps the same value are merged into one
+ * interval, so that a value that does not change is stored once and not once
+ * per window. The values of each
+ * attribute are buffered in primitive arrays and written in batches, so that
+ * the attribute index of the network is updated once per batch and not once
+ * per value. {@link #flush()} must be called after the last result.
+ *
+ * @author Jimmy
+ *
+ * @param <T>
+ */
+public class DynamicMetricsWriter<T> implements DynamicMetricsListener {
+
+	private static final int BATCH_SIZE = 1 << 16;
+
+	private final DynNetworkFactory<T> dynNetFactory;
+	private final DynNetwork<T> dynamicNetwork;
+	private final Map<String, Batch> batches;
+	private final Map<String, Batch> graphBatches;
+
+	/**
+	 * @param dynNetFactory
+	 * @param dynamicNetwork
+	 */
+	public DynamicMetricsWriter(DynNetworkFactory<T> dynNetFactory,
+			DynNetwork<T> dynamicNetwork) {
+		this.dynNetFactory = dynNetFactory;
+		this.dynamicNetwork = dynamicNetwork;
+		this.batches = new LinkedHashMap<String, Batch>();
+		this.graphBatches = new LinkedHashMap<String, Batch>();
+	}
+
+	@Override
+	public void handleResult(String attName, CyNode[] nodes, double[] values,
+			Double start, Double end) {
+		Batch batch = getBatch(batches, attName);
+		for (int i = 0; i < nodes.length; i++)
+			batch.extend(nodes[i].getSUID(), start, end, values[i]);
+		if (batch.size >= BATCH_SIZE)
+			write(attName, batch);
+	}
+
+	@Override
+	public void handleInterval(String attName, CyNode node, double value,
+			Double start, Double end) {
+		Batch batch = getBatch(batches, attName);
+		batch.extend(node.getSUID(), start, end, value);
+		if (batch.size >= BATCH_SIZE)
+			write(attName, batch);
+	}
+
+	@Override
+	public void handleGraphResult(String attName, double value, Double start,
+			Double end) {
+		// one value per time window, buffered like the node values of the
+		// network row
+		Batch batch = getBatch(graphBatches, attName);
+		batch.extend(dynamicNetwork.getNetwork().getSUID(), start, end, value);
+		if (batch.size >= BATCH_SIZE)
+			writeGraph(attName, batch);
+	}
+
+	/**
+	 * Writes all buffered values to the network.
+	 */
+	public void flush() {
+		for (Map.Entry<String, Batch> entry : batches.entrySet()) {
+			entry.getValue().close();
+			write(entry.getKey(), entry.getValue());
+		}
+		for (Map.Entry<String, Batch> entry : graphBatches.entrySet()) {
+			entry.getValue().close();
+			writeGraph(entry.getKey(), entry.getValue());
+		}
+	}
+
+	private Batch getBatch(Map<String, Batch> batches, String attName) {
+		Batch batch = batches.get(attName);
+		if (batch == null) {
+			batch = new Batch();
+			batches.put(attName, batch);
+		}
+		return batch;
+	}
+
+	private void write(String attName, Batch batch) {
+		if (batch.size > 0)
+			dynNetFactory.setAttributesUpdate(dynamicNetwork, attName,
+					batch.rows, batch.starts, batch.ends, batch.values,
+					batch.size);
+		batch.size = 0;
+	}
+
+	private void writeGraph(String attName, Batch batch) {
+		if (batch.size > 0)
+			dynNetFactory.setGraphAttributesUpdate(dynamicNetwork, attName,
+					batch.starts, batch.ends, batch.values, batch.size);
+		batch.size = 0;
+	}
+
+	/**
+	 * Buffered values of one attribute. The last interval of each node is kept
+	 * open, and added to the batch only when the next value of the node differs
+	 * from it or does not start where it ends.
+	 */
+	private static class Batch {
+		private long[] rows = new long[16];
+		private double[] starts = new double[16];
+		private double[] ends = new double[16];
+		private double[] values = new double[16];
+		private int size;
+
+		private final LongIntHashMap runs = new LongIntHashMap();
+		private long[] runRows = new long[16];
+		private double[] runStarts = new double[16];
+		private double[] runEnds = new double[16];
+		private double[] runValues = new double[16];
+		private int runSize;
+
+		private void extend(long row, double start, double end, double value) {
+			int run = runs.get(row);
+			if (run == LongIntHashMap.NONE) {
+				if (runSize == runRows.length) {
+					int capacity = 2 * runRows.length;
+					runRows = Arrays.copyOf(runRows, capacity);
+					runStarts = Arrays.copyOf(runStarts, capacity);
+					runEnds = Arrays.copyOf(runEnds, capacity);
+					runValues = Arrays.copyOf(runValues, capacity);
+				}
+				run = runSize++;
+				runs.put(row, run);
+				runRows[run] = row;
+			} else if (runEnds[run] == start
+					&& Double.compare(runValues[run], value) == 0) {
+				runEnds[run] = end;
+				return;
+			} else
+				add(row, runStarts[run], runEnds[run], runValues[run]);
+			runStarts[run] = start;
+			runEnds[run] = end;
+			runValues[run] = value;
+		}
+
+		private void close() {
+			for (int run = 0; run < runSize; run++)
+				add(runRows[run], runStarts[run], runEnds[run],
+						runValues[run]);
+			runs.clear();
+			runSize = 0;
+		}
+
+		private void add(long row, double start, double end, double value) {
+			if (size == rows.length) {
+				int capacity = 2 * rows.length;
+				rows = Arrays.copyOf(rows, capacity);
+				starts = Arrays.copyOf(starts, capacity);
+				ends = Arrays.copyOf(ends, capacity);
+				values = Arrays.copyOf(values, capacity);
+			}
+			rows[size] = row;
+			starts[size] = start;
+			ends[size] = end;
+			values[size] = value;
+			size++;
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.Arrays;
+
+import org.cytoscape.dyn.internal.model.snapshot.LongIntHashMap;
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>EigenVectorMetric</code> computes the eigenvector centrality of nodes,
+ * i.e. the eigenvector of the largest eigenvalue of the adjacency matrix,
+ * normalized to unit length. The vector is found by power iteration over the
+ * neighbor lists of the graph, so that the adjacency matrix is never built.
+ * The iteration multiplies by A+I instead of A, which has the same
+ * eigenvectors but converges also on bipartite graphs. Consecutive time
+ * windows differ by a few edges only, so each window starts from the vector
+ * of the previous one, and stops once no value changes by more than the
+ * tolerance or after the maximum number of iterations.
+ *
+ * @author Jimmy
+ *
+ */
+public class EigenVectorMetric implements DynamicMetric {
+
+	private static final double DEFAULT_TOLERANCE = 1e-8;
+	private static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+	// weight added to the warm start, so that components that had no weight
+	// in the previous window can still grow
+	private static final double SEED = 1e-3;
+
+	private final double tolerance;
+	private final int maxIterations;
+
+	// vector of the previous time window, by node SUID
+	private final LongIntHashMap previousIndex;
+	private double[] previous;
+
+	public EigenVectorMetric() {
+		this(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+	}
+
+	/**
+	 * @param tolerance
+	 *            largest change of a value at which the iteration stops
+	 * @param maxIterations
+	 *            maximum number of iterations for each time window
+	 */
+	public EigenVectorMetric(double tolerance, int maxIterations) {
+		this.tolerance = tolerance;
+		this.maxIterations = maxIterations;
+		this.previousIndex = new LongIntHashMap();
+	}
+
+	@Override
+	public String getTitle() {
+		return "Calculating EigenVectorCentrality";
+	}
+
+	@Override
+	public String[] getAttributeNames() {
+		return new String[] { "Eigenvector" };
+	}
+
+	@Override
+	public void compute(SnapshotGraph graph, double[][] values) {
+		int n = graph.getNodeCount();
+		if (n == 0)
+			return;
+
+		// adjacency lists without repeated neighbors, as in the adjacency
+		// matrix a pair of nodes is adjacent only once
+		int[] offset = graph.getNeighborOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int[] rowOffset = new int[n + 1];
+		int[] row = new int[neighbors.length];
+		int[] stamp = new int[n];
+		Arrays.fill(stamp, -1);
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			for (int k = offset[i]; k < offset[i + 1]; k++) {
+				int j = neighbors[k];
+				if (stamp[j] != i) {
+					stamp[j] = i;
+					row[m++] = j;
+				}
+			}
+			rowOffset[i + 1] = m;
+		}
+
+		// warm start from the previous time window
+		CyNode[] nodes = graph.getNodes();
+		double uniform = 1.0 / Math.sqrt(n);
+		double[] x = new double[n];
+		for (int i = 0; i < n; i++) {
+			int p = previous == null ? LongIntHashMap.NONE : previousIndex
+					.get(nodes[i].getSUID());
+			x[i] = p == LongIntHashMap.NONE ? uniform : previous[p] + SEED
+					* uniform;
+		}
+		if (m == 0)
+			Arrays.fill(x, uniform);
+		normalize(x);
+
+		double[] y = new double[n];
+		for (int iteration = 0; iteration < maxIterations && m > 0; iteration++) {
+			for (int i = 0; i < n; i++) {
+				double sum = x[i];
+				for (int k = rowOffset[i]; k < rowOffset[i + 1]; k++)
+					sum += x[row[k]];
+				y[i] = sum;
+			}
+			normalize(y);
+
+			double change = 0.0;
+			for (int i = 0; i < n; i++)
+				change = Math.max(change, Math.abs(y[i] - x[i]));
+			double[] swap = x;
+			x = y;
+			y = swap;
+			if (change < tolerance)
+				break;
+		}
+
+		previousIndex.clear();
+		for (int i = 0; i < n; i++) {
+			previousIndex.put(nodes[i].getSUID(), i);
+			values[0][i] = x[i];
+		}
+		previous = x;
+	}
+
+	private static void normalize(double[] x) {
+		double norm = 0.0;
+		for (int i = 0; i < x.length; i++)
+			norm += x[i] * x[i];
+		norm = Math.sqrt(norm);
+		if (norm > 0.0)
+			for (int i = 0; i < x.length; i++)
+				x[i] /= norm;
+	}
+
+}
@@ -7,7 +7,7 @@ import java.awt.Color;
 import java.util.List;
 
 import org.cytoscape.dyn.internal.model.DynNetwork;
-import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.attribute.DynNumericSeries;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
 import org.jfree.chart.ChartFactory;
@@ -84,13 +84,12 @@ public class GenerateChart<T> {
 				// System.out.println(dynamicNetwork.getDynAttribute(node,
 				// checkedAttributes.get(i)).getKey().getColumn());
 
-				for (DynInterval<T> interval : dynamicNetwork.getDynAttribute(
-						node, checkedAttributes.get(i)).getIntervalList()) {
-					// System.out.println(interval.getOnValue());
-					double value = (Double) interval.getOnValue();
-					// System.out.println(value);
-					attributeSeries[j].add(interval.getStart(), value);
-					attributeSeries[j].add(interval.getEnd(), value);
+				DynNumericSeries series = dynamicNetwork.getDynAttribute(
+						node, checkedAttributes.get(i)).getSeries();
+				for (int k = 0; series != null && k < series.size(); k++) {
+					// System.out.println(series.getValue(k));
+					attributeSeries[j].add(series.getStart(k), series.getValue(k));
+					attributeSeries[j].add(series.getEnd(k), series.getValue(k));
 				}
 				dataset.addSeries(attributeSeries[j++]);
 			}
@@ -106,13 +105,12 @@ public class GenerateChart<T> {
 				// System.out.println(dynamicNetwork.getDynAttribute(node,
 				// checkedAttributes.get(i)).getKey().getColumn());
 
-				for (DynInterval<T> interval : dynamicNetwork.getDynAttribute(
-						edge, edgeCheckedAttributes.get(i)).getIntervalList()) {
-					// System.out.println(interval.getOnValue());
-					double value = (Double) interval.getOnValue();
-					// System.out.println(value);
-					attributeSeries[j].add(interval.getStart(), value);
-					attributeSeries[j].add(interval.getEnd(), value);
+				DynNumericSeries series = dynamicNetwork.getDynAttribute(
+						edge, edgeCheckedAttributes.get(i)).getSeries();
+				for (int k = 0; series != null && k < series.size(); k++) {
+					// System.out.println(series.getValue(k));
+					attributeSeries[j].add(series.getStart(k), series.getValue(k));
+					attributeSeries[j].add(series.getEnd(k), series.getValue(k));
 				}
 				dataset.addSeries(attributeSeries[j++]);
 			}
@@ -64,30 +64,26 @@ public class GraphMetricsTasks<T, C> extends AbstractNetworkViewTaskFactory {
 		DynDirectedNetworkTask treatNetworkDirected = new DynDirectedNetworkTask();
 		TaskIterator iterator = new TaskIterator(treatNetworkDirected);
 		taskManager.execute(iterator);
+		// the error of invalid tunables is reported by the task itself
+		if (treatNetworkDirected.validate() != null)
+			return new TaskIterator();
+		// all metrics are computed in one sweep over the time windows
+		DynamicMetricsTask<T> metricsTask;
 		if (treatNetworkDirected.wantsDirected())
-			return new TaskIterator(new DynamicDirectedBetweennessStress<T>(
-					dynNetViewManager, arg0, networkFactory,
-					rootNetworkManager, nameUtil, dynNetworkManager),
-					new DynamicDirectedEccCloseRadCentro<T>(dynNetViewManager,
-							arg0, networkFactory, rootNetworkManager, nameUtil,
-							dynNetworkManager), new DynamicInOutDegree<T>(
-							dynNetViewManager, arg0, networkFactory,
-							rootNetworkManager, nameUtil, dynNetworkManager),
-					new GraphMetricsPanelTask<T, C>(cyActivator,
-							dynNetViewManager, arg0));
+			metricsTask = new DynamicMetricsTask<T>(dynNetViewManager, arg0,
+					networkFactory, rootNetworkManager, nameUtil,
+					dynNetworkManager,
+					treatNetworkDirected.createBetweennessStressMetric(true),
+					treatNetworkDirected.createDistanceMetric(true));
 		else
-			return new TaskIterator(new EigenVector<T>(dynNetViewManager, arg0,
+			metricsTask = new DynamicMetricsTask<T>(dynNetViewManager, arg0,
 					networkFactory, rootNetworkManager, nameUtil,
-					dynNetworkManager), new DynamicDistEccCloseRad<T>(
-					dynNetViewManager, arg0, networkFactory,
-					rootNetworkManager, nameUtil, dynNetworkManager),
-					new DynamicBetweennessStress<T>(dynNetViewManager, arg0,
-							networkFactory, rootNetworkManager, nameUtil,
-							dynNetworkManager), new DynamicDegree<T>(
-							dynNetViewManager, arg0, networkFactory,
-							rootNetworkManager, nameUtil, dynNetworkManager),
-					new GraphMetricsPanelTask<T, C>(cyActivator,
-							dynNetViewManager, arg0));
+					dynNetworkManager, new EigenVectorMetric(),
+					treatNetworkDirected.createDistanceMetric(false),
+					treatNetworkDirected.createBetweennessStressMetric(false));
+		metricsTask.addDegree(treatNetworkDirected.wantsDirected());
+		return new TaskIterator(metricsTask, new GraphMetricsPanelTask<T, C>(
+				cyActivator, dynNetViewManager, arg0));
 	}
 
 }
\ No newline at end of file
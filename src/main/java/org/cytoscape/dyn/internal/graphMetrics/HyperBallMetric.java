@@ -0,0 +1,226 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.Arrays;
+
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>HyperBallMetric</code> approximates the Eccentricity, Closeness and
+ * Radiality of {@link DistanceMetric}, and the effective diameter of the
+ * graph, with HyperBall (Boldi and Vigna): every node keeps a
+ * {@link HyperLogLogCounters} counter of the ball of nodes within distance t,
+ * and the ball of radius t of a node is the union of its own ball and of the
+ * balls of radius t-1 of its neighbors (successors in directed networks). The
+ * growth of the estimated ball size at step t is the number of nodes at
+ * distance t, from which the sum of distances and of inverse distances are
+ * accumulated. The iteration stops once no counter changes, i.e. after about
+ * diameter steps of O(E) counter unions, with 2^precision bytes per node for
+ * each of the two generations of counters.
+ * <p>
+ * The eccentricity of a node is the last step at which its counter changed,
+ * and may be underestimated. The centroid compares all pairs of nodes and is
+ * not approximated. As in {@link DistanceMetric}, in undirected networks the
+ * nodes of a disconnected graph have infinite distance sums, which is found
+ * exactly from the connected components. The effective diameter is the
+ * interpolated distance within which 90% of the connected pairs of nodes lie.
+ *
+ * @author Jimmy
+ *
+ */
+public class HyperBallMetric implements DynamicGraphMetric {
+
+	/**
+	 * Default precision of the counters, 256 registers per node.
+	 */
+	public static final int DEFAULT_PRECISION = 8;
+
+	private static final double EFFECTIVE_FRACTION = 0.9;
+
+	private final boolean directed;
+	private final int precision;
+	private double effectiveDiameter;
+
+	/**
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 */
+	public HyperBallMetric(boolean directed) {
+		this(directed, DEFAULT_PRECISION);
+	}
+
+	/**
+	 * @param directed
+	 *            true to follow outgoing edges only
+	 * @param precision
+	 *            base 2 logarithm of the number of registers of each counter
+	 */
+	public HyperBallMetric(boolean directed, int precision) {
+		if (precision < HyperLogLogCounters.MIN_PRECISION
+				|| precision > HyperLogLogCounters.MAX_PRECISION)
+			throw new IllegalArgumentException("precision must be between "
+					+ HyperLogLogCounters.MIN_PRECISION + " and "
+					+ HyperLogLogCounters.MAX_PRECISION);
+		this.directed = directed;
+		this.precision = precision;
+	}
+
+	@Override
+	public String getTitle() {
+		return "Approximating Centrality parameters";
+	}
+
+	@Override
+	public String[] getAttributeNames() {
+		return new String[] { "Eccentricity", "Closeness", "Radiality" };
+	}
+
+	@Override
+	public String[] getGraphAttributeNames() {
+		return new String[] { "EffectiveDiameter" };
+	}
+
+	@Override
+	public double[] getGraphValues() {
+		return new double[] { effectiveDiameter };
+	}
+
+	@Override
+	public void compute(SnapshotGraph graph, double[][] values) {
+		int n = graph.getNodeCount();
+		effectiveDiameter = 0.0;
+		if (n == 0)
+			return;
+
+		int[] offset = directed ? graph.getSuccessorOffsets() : graph
+				.getNeighborOffsets();
+		int[] adjacency = directed ? graph.getSuccessors() : graph
+				.getNeighbors();
+
+		CyNode[] nodes = graph.getNodes();
+		HyperLogLogCounters current = new HyperLogLogCounters(n, precision);
+		HyperLogLogCounters next = new HyperLogLogCounters(n, precision);
+		for (int v = 0; v < n; v++)
+			current.add(v, nodes[v].getSUID());
+
+		double[] size = new double[n];
+		double[] sum = new double[n];
+		double[] inverse = new double[n];
+		int[] last = new int[n];
+		double[] neighbourhood = new double[16];
+		for (int v = 0; v < n; v++) {
+			size[v] = current.count(v);
+			neighbourhood[0] += size[v];
+		}
+
+		int steps = 0;
+		boolean changed = true;
+		for (int t = 1; changed; t++) {
+			changed = false;
+			double total = 0.0;
+			for (int v = 0; v < n; v++) {
+				next.copy(v, current, v);
+				boolean grown = false;
+				for (int k = offset[v]; k < offset[v + 1]; k++)
+					grown |= next.union(v, current, adjacency[k]);
+				if (grown) {
+					changed = true;
+					last[v] = t;
+					// the estimate is not always monotone, a smaller one is
+					// taken as no growth
+					double estimate = next.count(v);
+					if (estimate > size[v]) {
+						double delta = estimate - size[v];
+						sum[v] += t * delta;
+						inverse[v] += delta / t;
+						size[v] = estimate;
+					}
+				}
+				total += size[v];
+			}
+			if (changed) {
+				steps = t;
+				if (t == neighbourhood.length)
+					neighbourhood = Arrays.copyOf(neighbourhood, 2 * t);
+				neighbourhood[t] = total;
+			}
+			HyperLogLogCounters swap = current;
+			current = next;
+			next = swap;
+		}
+
+		double[] eccentricity = values[0];
+		double[] closeness = values[1];
+		double[] radiality = values[2];
+		int[] component = directed ? null : getComponentSizes(n, offset,
+				adjacency);
+		double graphDistance = 0.0;
+		for (int v = 0; v < n; v++) {
+			double max = last[v];
+			if (directed) {
+				closeness[v] = inverse[v];
+				eccentricity[v] = max != 0 ? 1 / max : max;
+			} else {
+				if (component[v] < n)
+					max = Double.POSITIVE_INFINITY;
+				closeness[v] = component[v] < n ? 0.0 : 1 / sum[v];
+				eccentricity[v] = 1 / max;
+			}
+			if (max > graphDistance)
+				graphDistance = max;
+		}
+		for (int v = 0; v < n; v++)
+			if (directed)
+				radiality[v] = 1 / ((n - 1) * graphDistance - closeness[v]);
+			else
+				radiality[v] = ((n - 1) * (graphDistance + 1) - (1 / closeness[v]))
+						/ (n - 1);
+
+		effectiveDiameter = getEffectiveDiameter(neighbourhood, steps);
+	}
+
+	// neighbourhood[t] is the estimated number of pairs within distance t
+	private static double getEffectiveDiameter(double[] neighbourhood,
+			int steps) {
+		double target = EFFECTIVE_FRACTION * neighbourhood[steps];
+		for (int t = 1; t <= steps; t++)
+			if (neighbourhood[t] >= target) {
+				double growth = neighbourhood[t] - neighbourhood[t - 1];
+				return growth > 0 ? t - 1 + (target - neighbourhood[t - 1])
+						/ growth : t;
+			}
+		return 0.0;
+	}
+
+	// size of the connected component of each node, by union find
+	private static int[] getComponentSizes(int n, int[] offset, int[] adjacency) {
+		int[] parent = new int[n];
+		for (int v = 0; v < n; v++)
+			parent[v] = v;
+		for (int v = 0; v < n; v++)
+			for (int k = offset[v]; k < offset[v + 1]; k++) {
+				int a = find(parent, v);
+				int b = find(parent, adjacency[k]);
+				if (a != b)
+					parent[a] = b;
+			}
+		int[] size = new int[n];
+		for (int v = 0; v < n; v++)
+			size[find(parent, v)]++;
+		int[] component = new int[n];
+		for (int v = 0; v < n; v++)
+			component[v] = size[find(parent, v)];
+		return component;
+	}
+
+	private static int find(int[] parent, int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+}
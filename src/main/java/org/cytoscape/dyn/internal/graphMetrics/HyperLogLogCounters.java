@@ -0,0 +1,154 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.Arrays;
+
+/**
+ * <code>HyperLogLogCounters</code> is an array of HyperLogLog counters, which
+ * estimate the number of distinct elements added to them with 2^precision
+ * registers of one byte each, and a relative standard error of about
+ * 1.04/sqrt(2^precision). The union of two counters is the maximum of their
+ * registers. The registers of all counters are kept in one byte array.
+ *
+ * @author Jimmy
+ *
+ */
+public class HyperLogLogCounters {
+
+	/**
+	 * Smallest precision.
+	 */
+	public static final int MIN_PRECISION = 4;
+
+	/**
+	 * Largest precision.
+	 */
+	public static final int MAX_PRECISION = 16;
+
+	private final int precision;
+	private final int registers;
+	private final double alpha;
+	private final byte[] counters;
+
+	/**
+	 * @param size
+	 *            number of counters
+	 * @param precision
+	 *            base 2 logarithm of the number of registers of each counter
+	 */
+	public HyperLogLogCounters(int size, int precision) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION)
+			throw new IllegalArgumentException("precision must be between "
+					+ MIN_PRECISION + " and " + MAX_PRECISION);
+		if (((long) size << precision) > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("too many counters of precision "
+					+ precision + ", use a lower precision");
+		this.precision = precision;
+		this.registers = 1 << precision;
+		this.counters = new byte[size << precision];
+		if (registers == 16)
+			alpha = 0.673;
+		else if (registers == 32)
+			alpha = 0.697;
+		else if (registers == 64)
+			alpha = 0.709;
+		else
+			alpha = 0.7213 / (1 + 1.079 / registers);
+	}
+
+	/**
+	 * @return number of registers of each counter
+	 */
+	public int getRegisters() {
+		return registers;
+	}
+
+	/**
+	 * Adds an element to a counter.
+	 *
+	 * @param counter
+	 * @param element
+	 */
+	public void add(int counter, long element) {
+		long hash = hash(element);
+		int register = (int) (hash >>> (Long.SIZE - precision));
+		// position of the first 1 bit after the register bits
+		int rank = Long.numberOfLeadingZeros((hash << precision)
+				| (1L << (precision - 1))) + 1;
+		int k = (counter << precision) + register;
+		if (rank > counters[k])
+			counters[k] = (byte) rank;
+	}
+
+	/**
+	 * Merges a counter of another array into a counter of this array.
+	 *
+	 * @param counter
+	 * @param other
+	 * @param otherCounter
+	 * @return true if the counter changed
+	 */
+	public boolean union(int counter, HyperLogLogCounters other,
+			int otherCounter) {
+		byte[] source = other.counters;
+		int k = counter << precision;
+		int j = otherCounter << precision;
+		boolean changed = false;
+		for (int r = 0; r < registers; r++, k++, j++)
+			if (source[j] > counters[k]) {
+				counters[k] = source[j];
+				changed = true;
+			}
+		return changed;
+	}
+
+	/**
+	 * Copies a counter of another array into a counter of this array.
+	 *
+	 * @param counter
+	 * @param other
+	 * @param otherCounter
+	 */
+	public void copy(int counter, HyperLogLogCounters other, int otherCounter) {
+		System.arraycopy(other.counters, otherCounter << precision, counters,
+				counter << precision, registers);
+	}
+
+	/**
+	 * @param counter
+	 * @return estimated number of distinct elements added to the counter
+	 */
+	public double count(int counter) {
+		int k = counter << precision;
+		double sum = 0.0;
+		int zeros = 0;
+		for (int r = 0; r < registers; r++, k++) {
+			sum += 1.0 / (1L << counters[k]);
+			if (counters[k] == 0)
+				zeros++;
+		}
+		double estimate = alpha * registers * registers / sum;
+		// linear counting for small cardinalities
+		if (estimate <= 2.5 * registers && zeros > 0)
+			estimate = registers * Math.log((double) registers / zeros);
+		return estimate;
+	}
+
+	/**
+	 * Resets all counters.
+	 */
+	public void clear() {
+		Arrays.fill(counters, (byte) 0);
+	}
+
+	// 64 bit finalizer of SplitMix64
+	private static long hash(long x) {
+		long z = x + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+}
@@ -0,0 +1,221 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.Arrays;
+
+import org.cytoscape.dyn.internal.model.DynNetwork;
+import org.cytoscape.dyn.internal.model.snapshot.LongIntHashMap;
+import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCursor;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>IncrementalDegree</code> computes the degree of nodes, or the in-degree
+ * and out-degree of nodes in directed networks, while moving through the time
+ * windows of a dynamic network. The degrees are kept in int arrays and only
+ * the endpoints of edges that appear or disappear are updated. A value is
+ * reported only when the degree of a node changes or the node disappears, for
+ * the whole time span in which it stayed the same, instead of once for each
+ * time window.
+ *
+ * @author Jimmy
+ *
+ * @param <T>
+ */
+public class IncrementalDegree<T> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final DynNetwork<T> dynamicNetwork;
+	private final boolean directed;
+	private final String[] attNames;
+
+	private final DynIntervalCursor<T> nodeCursor;
+	private final DynIntervalCursor<T> edgeCursor;
+
+	// edge SUID to number of intervals that are on
+	private final LongIntHashMap edgeCount;
+
+	// node slots, indexed by node SUID
+	private final LongIntHashMap nodeIndex;
+	private CyNode[] slotNode;
+	private int[] nodeCount;
+	private int[] inDegree;
+	private int[] outDegree;
+	private int slots;
+
+	// value reported for each attribute and node since runStart, if runOpen
+	private int[][] runValue;
+	private double[] runStart;
+	private boolean[] runOpen;
+
+	// nodes touched in the current time window
+	private int[] touched;
+	private int[] touchedStamp;
+	private int touchedCount;
+	private int stamp;
+
+	private Double lastEnd;
+
+	/**
+	 * @param dynamicNetwork
+	 *            dynamic network
+	 * @param directed
+	 *            true to compute in-degree and out-degree
+	 */
+	public IncrementalDegree(DynNetwork<T> dynamicNetwork, boolean directed) {
+		this.dynamicNetwork = dynamicNetwork;
+		this.directed = directed;
+		this.attNames = directed ? new String[] { "InDegree", "OutDegree" }
+				: new String[] { "Degree" };
+		this.nodeCursor = dynamicNetwork.getNodeCursor();
+		this.edgeCursor = dynamicNetwork.getEdgeCursor();
+		this.edgeCount = new LongIntHashMap();
+		this.nodeIndex = new LongIntHashMap();
+		this.slotNode = new CyNode[INITIAL_CAPACITY];
+		this.nodeCount = new int[INITIAL_CAPACITY];
+		this.inDegree = new int[INITIAL_CAPACITY];
+		this.outDegree = new int[INITIAL_CAPACITY];
+		this.runValue = new int[attNames.length][INITIAL_CAPACITY];
+		this.runStart = new double[INITIAL_CAPACITY];
+		this.runOpen = new boolean[INITIAL_CAPACITY];
+		this.touched = new int[INITIAL_CAPACITY];
+		this.touchedStamp = new int[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * @return names of the node attributes computed
+	 */
+	public String[] getAttributeNames() {
+		return attNames;
+	}
+
+	/**
+	 * Moves to the given time window. The degrees of nodes that changed are
+	 * reported for the time span that ended with the previous time window.
+	 *
+	 * @param interval
+	 *            time window
+	 * @param listener
+	 */
+	public void advance(DynInterval<T> interval, DynamicMetricsListener listener) {
+		stamp++;
+		touchedCount = 0;
+
+		for (DynInterval<T> i : nodeCursor.advance(interval)) {
+			CyNode node = dynamicNetwork.getNode(i);
+			if (node != null) {
+				int slot = touch(node);
+				nodeCount[slot] += i.isOn() ? 1 : -1;
+			}
+		}
+
+		for (DynInterval<T> i : edgeCursor.advance(interval)) {
+			CyEdge edge = dynamicNetwork.getEdge(i);
+			if (edge == null)
+				continue;
+			long suid = edge.getSUID();
+			int count = Math.max(0, edgeCount.get(suid));
+			// an edge with several overlapping intervals is counted once
+			int change = 0;
+			if (i.isOn() && count++ == 0)
+				change = 1;
+			else if (!i.isOn() && count > 0 && --count == 0)
+				change = -1;
+			if (count > 0)
+				edgeCount.put(suid, count);
+			else
+				edgeCount.remove(suid);
+			if (change != 0) {
+				outDegree[touch(edge.getSource())] += change;
+				inDegree[touch(edge.getTarget())] += change;
+			}
+		}
+
+		Double start = Double.valueOf(interval.getStart());
+		for (int k = 0; k < touchedCount; k++)
+			update(touched[k], start, listener);
+		lastEnd = Double.valueOf(interval.getEnd());
+	}
+
+	/**
+	 * Reports the degrees of all nodes that are still present, up to the end
+	 * of the last time window.
+	 *
+	 * @param listener
+	 */
+	public void finish(DynamicMetricsListener listener) {
+		for (int slot = 0; slot < slots; slot++)
+			if (runOpen[slot])
+				close(slot, listener);
+	}
+
+	private void update(int slot, Double start,
+			DynamicMetricsListener listener) {
+		boolean isPresent = nodeCount[slot] > 0;
+		if (runOpen[slot] && isPresent) {
+			boolean isChanged = false;
+			for (int a = 0; a < attNames.length; a++)
+				isChanged |= runValue[a][slot] != getValue(a, slot);
+			if (!isChanged)
+				return;
+		}
+		if (runOpen[slot])
+			close(slot, listener);
+		if (isPresent) {
+			runOpen[slot] = true;
+			runStart[slot] = start;
+			for (int a = 0; a < attNames.length; a++)
+				runValue[a][slot] = getValue(a, slot);
+		}
+	}
+
+	private void close(int slot, DynamicMetricsListener listener) {
+		runOpen[slot] = false;
+		Double start = Double.valueOf(runStart[slot]);
+		for (int a = 0; a < attNames.length; a++)
+			listener.handleInterval(attNames[a], slotNode[slot],
+					runValue[a][slot], start, lastEnd);
+	}
+
+	private int getValue(int attribute, int slot) {
+		if (directed)
+			return attribute == 0 ? inDegree[slot] : outDegree[slot];
+		else
+			return inDegree[slot] + outDegree[slot];
+	}
+
+	private int touch(CyNode node) {
+		int slot = nodeIndex.get(node.getSUID());
+		if (slot == LongIntHashMap.NONE) {
+			if (slots == slotNode.length)
+				grow();
+			slot = slots++;
+			nodeIndex.put(node.getSUID(), slot);
+			slotNode[slot] = node;
+		}
+		if (touchedStamp[slot] != stamp) {
+			touchedStamp[slot] = stamp;
+			touched[touchedCount++] = slot;
+		}
+		return slot;
+	}
+
+	private void grow() {
+		int capacity = 2 * slotNode.length;
+		slotNode = Arrays.copyOf(slotNode, capacity);
+		nodeCount = Arrays.copyOf(nodeCount, capacity);
+		inDegree = Arrays.copyOf(inDegree, capacity);
+		outDegree = Arrays.copyOf(outDegree, capacity);
+		for (int a = 0; a < attNames.length; a++)
+			runValue[a] = Arrays.copyOf(runValue[a], capacity);
+		runStart = Arrays.copyOf(runStart, capacity);
+		runOpen = Arrays.copyOf(runOpen, capacity);
+		touched = Arrays.copyOf(touched, capacity);
+		touchedStamp = Arrays.copyOf(touchedStamp, capacity);
+	}
+
+}
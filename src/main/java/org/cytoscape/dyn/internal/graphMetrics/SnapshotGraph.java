@@ -0,0 +1,150 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cytoscape.dyn.internal.model.snapshot.DynNetworkSnapshot;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>SnapshotGraph</code> is a dense, int-indexed copy of the adjacency of a
+ * network snapshot, stored in compressed sparse row arrays. Node i is the i-th
+ * node of {@link DynNetworkSnapshot#getNodes()}. The neighbors of a node are its
+ * predecessors followed by its successors, with one entry per edge, as returned
+ * by {@link DynNetworkSnapshot#getNeighbors(CyNode)}. All metrics of a time
+ * window are computed on the same copy.
+ *
+ * @author Jimmy
+ *
+ */
+public class SnapshotGraph {
+
+	private final CyNode[] nodes;
+
+	private final int[] neighborOffset;
+	private final int[] neighbors;
+	private final int[] successorOffset;
+	private final int[] successors;
+	private final int[] inDegree;
+
+	/**
+	 * @param networkSnapshot
+	 *            network snapshot set to the current time window
+	 */
+	public SnapshotGraph(DynNetworkSnapshot<?> networkSnapshot) {
+		List<CyNode> nodeList = networkSnapshot.getNodes();
+		int n = nodeList.size();
+		this.nodes = nodeList.toArray(new CyNode[n]);
+
+		Map<CyNode, Integer> nodeIndex = new IdentityHashMap<CyNode, Integer>(
+				2 * n);
+		for (int i = 0; i < n; i++)
+			nodeIndex.put(nodes[i], i);
+
+		this.inDegree = new int[n];
+		this.neighborOffset = new int[n + 1];
+		this.successorOffset = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			inDegree[i] = networkSnapshot.inDegree(nodes[i]);
+			int outDegree = networkSnapshot.outDegree(nodes[i]);
+			neighborOffset[i + 1] = neighborOffset[i] + inDegree[i] + outDegree;
+			successorOffset[i + 1] = successorOffset[i] + outDegree;
+		}
+
+		this.neighbors = new int[neighborOffset[n]];
+		this.successors = new int[successorOffset[n]];
+		for (int i = 0; i < n; i++) {
+			int k = neighborOffset[i];
+			for (CyEdge edge : networkSnapshot.getInEdges(nodes[i]))
+				neighbors[k++] = nodeIndex.get(edge.getSource());
+			int j = successorOffset[i];
+			for (CyEdge edge : networkSnapshot.getOutEdges(nodes[i])) {
+				neighbors[k++] = nodeIndex.get(edge.getTarget());
+				successors[j++] = nodeIndex.get(edge.getTarget());
+			}
+		}
+	}
+
+	/**
+	 * @return number of nodes
+	 */
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * @param i
+	 *            node index
+	 * @return node
+	 */
+	public CyNode getNode(int i) {
+		return nodes[i];
+	}
+
+	/**
+	 * @return nodes, by index
+	 */
+	public CyNode[] getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * The neighbors of node i are
+	 * <code>getNeighbors()[getNeighborOffsets()[i]..getNeighborOffsets()[i+1]-1]</code>
+	 * .
+	 *
+	 * @return neighbor offsets, one more than the number of nodes
+	 */
+	public int[] getNeighborOffsets() {
+		return neighborOffset;
+	}
+
+	/**
+	 * @return neighbor indices of all nodes
+	 */
+	public int[] getNeighbors() {
+		return neighbors;
+	}
+
+	/**
+	 * The targets of the outgoing edges of node i are
+	 * <code>getSuccessors()[getSuccessorOffsets()[i]..getSuccessorOffsets()[i+1]-1]</code>
+	 * .
+	 *
+	 * @return successor offsets, one more than the number of nodes
+	 */
+	public int[] getSuccessorOffsets() {
+		return successorOffset;
+	}
+
+	/**
+	 * @return successor indices of all nodes
+	 */
+	public int[] getSuccessors() {
+		return successors;
+	}
+
+	/**
+	 * @param i
+	 *            node index
+	 * @return number of incoming edges
+	 */
+	public int getInDegree(int i) {
+		return inDegree[i];
+	}
+
+	/**
+	 * @param i
+	 *            node index
+	 * @return number of outgoing edges
+	 */
+	public int getOutDegree(int i) {
+		return successorOffset[i + 1] - successorOffset[i];
+	}
+
+}
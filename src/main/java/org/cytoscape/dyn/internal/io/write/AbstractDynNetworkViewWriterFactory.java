@@ -19,17 +19,53 @@
 
 package org.cytoscape.dyn.internal.io.write;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
 import org.cytoscape.dyn.internal.model.DynNetwork;
 
 /**
  * <code> AbstractDynNetworkViewWriterFactory </code> is an abstract class to generates 
- * images from a network view.
+ * images from a network view. Rendering the view has to be done by the calling thread,
+ * whereas encoding and writing of each frame can be submitted to a bounded pool of
+ * worker threads. Submitting blocks while too many frames are pending, so that memory
+ * stays bounded when encoding is slower than rendering. Shutting down does not wait 
+ * for the pending frames, which are written in the background, and frames submitted 
+ * afterwards are dropped.
  * 
  * @author Sabina Sara Pfister
  * 
  */
 public abstract class AbstractDynNetworkViewWriterFactory<T> implements DynNetworkViewWriterFactory<T> 
 {
+	private final ExecutorService executor;
+	private final Semaphore pending;
+	private final int maxPending;
+	private volatile boolean closed;
+
+	/**
+	 * <code> AbstractDynNetworkViewWriterFactory </code> constructor.
+	 * @param threads
+	 * @param maxPending
+	 */
+	protected AbstractDynNetworkViewWriterFactory(int threads, int maxPending)
+	{
+		this.maxPending = Math.max(1, maxPending);
+		this.pending = new Semaphore(this.maxPending);
+		this.executor = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory()
+		{
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "DynNetwork frame writer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
 
 	@Override
 	abstract public void updateView(DynNetwork<T> dynNetwork, double currentTime, int iteration);
@@ -37,4 +73,81 @@ public abstract class AbstractDynNetworkViewWriterFactory<T> implements DynNetwo
 	@Override
 	abstract public void dispose();
 
+	/**
+	 * Submit a frame to be written by the worker threads. Blocks while the maximum
+	 * number of frames is pending.
+	 * @param frame
+	 * @return false if the frame was dropped because the writer was shut down
+	 */
+	protected boolean submit(final Runnable frame)
+	{
+		if (closed)
+			return false;
+		pending.acquireUninterruptibly();
+		try {
+			executor.execute(new Runnable()
+			{
+				public void run()
+				{
+					try {
+						frame.run();
+					} finally {
+						pending.release();
+					}
+				}
+			});
+			return true;
+		} catch (RejectedExecutionException e) {
+			// shut down after the check above
+			pending.release();
+			return false;
+		}
+	}
+
+	/**
+	 * Stop accepting frames and return at once. The pending frames are written by the
+	 * worker threads, and a background thread waits for them to finish before running
+	 * <code> finished </code>.
+	 * @param finished run when all pending frames are written, can be null
+	 */
+	protected void shutdown(final Runnable finished)
+	{
+		closed = true;
+		executor.shutdown();
+		Thread thread = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				try {
+					executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (finished!=null)
+					finished.run();
+			}
+		}, "DynNetwork frame writer shutdown");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Get if the writer was shut down.
+	 * @return is closed
+	 */
+	protected boolean isClosed()
+	{
+		return closed;
+	}
+
+	/**
+	 * Get the maximum number of frames that can be pending.
+	 * @return max pending frames
+	 */
+	protected int getMaxPending()
+	{
+		return maxPending;
+	}
+
 }
@@ -21,23 +21,32 @@ package org.cytoscape.dyn.internal.io.write.graphics;
 
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-
-import javax.imageio.ImageIO;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.cytoscape.view.presentation.RenderingEngine;
 
 /**
- * <code> PNGWriter </code> is a PNG exporter class.
+ * <code> PNGWriter </code> is a PNG exporter class. Images are encoded as 8 bit RGB
+ * with a configurable deflate level, from {@link Deflater#NO_COMPRESSION} for the 
+ * fastest export to {@link Deflater#BEST_COMPRESSION} for the smallest files. 
+ * The compressed data is streamed in IDAT chunks, without buffering the whole image.
  * 
  * @author Sabina Sara Pfister
  *
  */
 public class PNGWriter
 {
+	private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+	private static final int CHUNK_SIZE = 1<<16;
+	
 	private final RenderingEngine<?> engine;
 	private final OutputStream stream;
+	private final int compressionLevel;
 
 	/**
 	 * <code> PNGWriter </code> constructor.
@@ -45,6 +54,17 @@ public class PNGWriter
 	 * @param stream
 	 */
 	public PNGWriter(final RenderingEngine<?> engine, final OutputStream stream)
+	{
+		this(engine, stream, Deflater.DEFAULT_COMPRESSION);
+	}
+	
+	/**
+	 * <code> PNGWriter </code> constructor.
+	 * @param engine
+	 * @param stream
+	 * @param compressionLevel
+	 */
+	public PNGWriter(final RenderingEngine<?> engine, final OutputStream stream, final int compressionLevel)
 	{
 		if (engine == null)
 			throw new NullPointerException("Rendering Engine is null.");
@@ -53,18 +73,130 @@ public class PNGWriter
 		
 		this.engine = engine;
 		this.stream = stream;
+		this.compressionLevel = compressionLevel;
 	}
 
 	public void export(Graphics2D g, BufferedImage image) throws IOException
 	{
 		engine.printCanvas(g);
-
+		write(image);
+	}
+	
+	/**
+	 * Encode an image that has already been rendered, and close the stream.
+	 * @param image
+	 * @throws IOException
+	 */
+	public void write(BufferedImage image) throws IOException
+	{
 		try {
-			ImageIO.write(image, "png", stream);
+			int width = image.getWidth();
+			int height = image.getHeight();
+			DataOutputStream out = new DataOutputStream(stream);
+			out.write(SIGNATURE);
+			
+			DataOutputStream header = new DataOutputStream(new ChunkOutputStream(out, "IHDR", 13));
+			header.writeInt(width);
+			header.writeInt(height);
+			header.writeByte(8); // bit depth
+			header.writeByte(2); // color type RGB
+			header.writeByte(0); // compression
+			header.writeByte(0); // filter
+			header.writeByte(0); // interlace
+			header.close();
+			
+			Deflater deflater = new Deflater(compressionLevel);
+			DeflaterOutputStream data = new DeflaterOutputStream(
+					new ChunkOutputStream(out, "IDAT", CHUNK_SIZE), deflater, CHUNK_SIZE);
+			int[] pixels = new int[width];
+			byte[] row = new byte[1+3*width];
+			for (int y=0; y<height; y++)
+			{
+				image.getRGB(0, y, width, 1, pixels, 0, width);
+				row[0] = 0; // filter type none
+				for (int x=0, i=1; x<width; x++)
+				{
+					row[i++] = (byte) (pixels[x]>>16);
+					row[i++] = (byte) (pixels[x]>>8);
+					row[i++] = (byte) pixels[x];
+				}
+				data.write(row);
+			}
+			data.close();
+			deflater.end();
+			
+			new ChunkOutputStream(out, "IEND", 0).close();
+			out.flush();
 		} finally {
 			stream.close();
 		}
-		
+	}
+	
+	/**
+	 * <code> ChunkOutputStream </code> buffers data and writes it as PNG chunks of the
+	 * given type, with length and CRC. Closing it writes the last chunk, but does not
+	 * close the underlying stream.
+	 */
+	private static final class ChunkOutputStream extends OutputStream
+	{
+		private final DataOutputStream out;
+		private final byte[] type;
+		private final byte[] buffer;
+		private final CRC32 crc;
+		private int size;
+		private boolean isEmpty;
+
+		private ChunkOutputStream(DataOutputStream out, String type, int capacity)
+		{
+			this.out = out;
+			this.type = type.getBytes();
+			this.buffer = new byte[capacity];
+			this.crc = new CRC32();
+			this.isEmpty = true;
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			if (size==buffer.length)
+				flushChunk();
+			buffer[size++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			while (len>0)
+			{
+				if (size==buffer.length)
+					flushChunk();
+				int n = Math.min(len, buffer.length-size);
+				System.arraycopy(b, off, buffer, size, n);
+				size += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			if (size>0 || isEmpty)
+				flushChunk();
+		}
+
+		private void flushChunk() throws IOException
+		{
+			crc.reset();
+			crc.update(type);
+			crc.update(buffer, 0, size);
+			out.writeInt(size);
+			out.write(type);
+			out.write(buffer, 0, size);
+			out.writeInt((int) crc.getValue());
+			size = 0;
+			isEmpty = false;
+		}
 	}
 
 }
@@ -22,11 +22,14 @@ package org.cytoscape.dyn.internal.io.write.graphics;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
 
 import org.cytoscape.dyn.internal.io.write.AbstractDynNetworkViewWriterFactory;
 import org.cytoscape.dyn.internal.model.DynNetwork;
@@ -35,15 +38,22 @@ import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 
 /**
  * <code> PNGWriterFactory </code> extends {@link AbstractDynNetworkViewWriterFactory}. 
- * Is used to create instance of the image writer {@link PNGWriter}.
+ * Is used to create instance of the image writer {@link PNGWriter}. Each frame is 
+ * rendered by the calling thread into an image taken from a small pool, and is encoded
+ * in parallel by the worker threads, which give the image back to the pool. Frame files
+ * are numbered in the order in which they are rendered. The number of pending frames
+ * is limited by the available memory.
  * 
  * @author Sabina Sara Pfister
  *
  */
 public class PNGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T> 
 {
+	private static final double ZOOM = 600;
+	
 	private final RenderingEngine<?> engine;
 	private final String fileName;
+	private final int compressionLevel;
 	
 	private final Double width;
 	private final Double height;
@@ -51,8 +61,8 @@ public class PNGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 	private final int widthInPixels;
 	private final double zoom;
 	
-	private final BufferedImage image;
-	private final Graphics2D g;
+	private final BlockingQueue<BufferedImage> images;
+	private int imageCount;
 	
 //	private DecimalFormat formatter = new DecimalFormat("#0.000");
 //	private DecimalFormat formatter2 = new DecimalFormat("#00");
@@ -61,29 +71,55 @@ public class PNGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 	private int counter;
 
 	/**
-	 * <code> PNGWriterFactory </code> constructor.
+	 * <code> PNGWriterFactory </code> constructor. Frames are compressed with
+	 * {@link Deflater#BEST_SPEED}.
+	 * @param file
+	 * @param engine
 	 */
 	public PNGWriterFactory(
 			final File file,
 			final RenderingEngine<?> engine) 
 	{
-		if (engine == null)
-			throw new NullPointerException("Rendering Engine is null.");
+		this(file, engine, Deflater.BEST_SPEED);
+	}
+	
+	/**
+	 * <code> PNGWriterFactory </code> constructor.
+	 * @param file
+	 * @param engine
+	 * @param compressionLevel deflate level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}
+	 */
+	public PNGWriterFactory(
+			final File file,
+			final RenderingEngine<?> engine,
+			final int compressionLevel) 
+	{
+		this(file, engine, compressionLevel, getImageSize(engine));
+	}
+	
+	private PNGWriterFactory(
+			final File file,
+			final RenderingEngine<?> engine,
+			final int compressionLevel,
+			final long imageSize) 
+	{
+		super(Runtime.getRuntime().availableProcessors(), 
+				(int) Math.min(2*Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().maxMemory()/(4*imageSize)));
 		
 		this.engine = engine;
 		this.fileName = trim(file.getAbsolutePath());
+		this.compressionLevel = compressionLevel;
 		
 		width = engine.getViewModel().getVisualProperty(BasicVisualLexicon.NETWORK_WIDTH);
 		height = engine.getViewModel().getVisualProperty(BasicVisualLexicon.NETWORK_HEIGHT);
-		zoom = 600;
+		zoom = ZOOM;
 		
-		final double scale = zoom / 100.0; 	
 		heightInPixels = (int) ((zoom/100) * height);
 		widthInPixels = (int) ((zoom/100) * width);
-		image = new BufferedImage(widthInPixels, heightInPixels, BufferedImage.TYPE_INT_RGB);
-		g = (Graphics2D) image.getGraphics();
-		g.setBackground(new Color(255, 255, 255, 0));
-		g.scale(scale, scale);
+		
+		// one more image than pending frames, so that rendering can go on while all are encoded
+		images = new ArrayBlockingQueue<BufferedImage>(getMaxPending()+1);
+		imageCount = 0;
 		
 		counter = 0;
 	}
@@ -91,6 +127,8 @@ public class PNGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 	@Override
 	public void updateView(DynNetwork<T> dynNetwork, double currentTime, int iteration) 
 	{
+		if (isClosed())
+			return;
 
 //		File outputFile = new File(trim(file.getAbsolutePath()) + 
 //				"_" + Calendar.getInstance().getTimeInMillis() +
@@ -100,25 +138,76 @@ public class PNGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 //				"_T" + formatter.format(currentTime) + 
 //				"_I" + formatter2.format(iteration) + ".png");
 		
-		File outputFile = new File(fileName +  "_" + formatter3.format(counter) + ".png");
+		final File outputFile = new File(fileName +  "_" + formatter3.format(counter) + ".png");
+		final BufferedImage image = getImage();
 
+		final double scale = zoom / 100.0;
+		Graphics2D g = (Graphics2D) image.getGraphics();
+		g.setBackground(new Color(255, 255, 255, 0));
 		g.clearRect(0, 0, widthInPixels, heightInPixels);
+		g.scale(scale, scale);
+		engine.printCanvas(g);
+		g.dispose();
 		
-		try {
-			(new PNGWriter(engine, new FileOutputStream(outputFile,false))).export(g,image);
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+		boolean submitted = submit(new Runnable()
+		{
+			public void run()
+			{
+				try {
+					(new PNGWriter(engine, new BufferedOutputStream(new FileOutputStream(outputFile,false)), compressionLevel)).write(image);
+				} catch (IOException e) {
+					e.printStackTrace();
+				} finally {
+					images.add(image);
+				}
+			}
+		});
 		
-		counter = counter + 1;
+		if (submitted)
+			counter = counter + 1;
+		else
+			images.offer(image);
 
 	}
 	
 	public void dispose()
 	{
-		g.dispose();
+		shutdown(new Runnable()
+		{
+			public void run()
+			{
+				images.clear();
+			}
+		});
+	}
+	
+	private BufferedImage getImage()
+	{
+		BufferedImage image = images.poll();
+		if (image==null && imageCount<getMaxPending()+1)
+		{
+			imageCount++;
+			return new BufferedImage(widthInPixels, heightInPixels, BufferedImage.TYPE_INT_RGB);
+		}
+		while (image==null)
+		{
+			try {
+				image = images.take();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+		return image;
+	}
+	
+	private static long getImageSize(RenderingEngine<?> engine)
+	{
+		if (engine == null)
+			throw new NullPointerException("Rendering Engine is null.");
+		
+		double width = engine.getViewModel().getVisualProperty(BasicVisualLexicon.NETWORK_WIDTH);
+		double height = engine.getViewModel().getVisualProperty(BasicVisualLexicon.NETWORK_HEIGHT);
+		return Math.max(1, 4L * (long) ((ZOOM/100) * width) * (long) ((ZOOM/100) * height));
 	}
 	
 	private String trim(String str)
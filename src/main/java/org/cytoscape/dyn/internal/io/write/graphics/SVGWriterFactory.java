@@ -19,9 +19,10 @@
 
 package org.cytoscape.dyn.internal.io.write.graphics;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.text.DecimalFormat;
 
 import org.cytoscape.dyn.internal.io.write.AbstractDynNetworkViewWriterFactory;
@@ -31,7 +32,9 @@ import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 
 /**
  * <code> SVGWriterFactory </code> extends {@link AbstractDynNetworkViewWriterFactory}. 
- * Is used to create instance of the image writer {@link SVGWriter}.
+ * Is used to create instance of the image writer {@link SVGWriter}. Each frame is 
+ * rendered by the calling thread into memory, and written to its file by the worker 
+ * threads.
  * 
  * @author Sabina Sara Pfister
  *
@@ -59,6 +62,8 @@ public class SVGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 			final File file,
 			final RenderingEngine<?> engine) 
 	{
+		super(1, 2*Runtime.getRuntime().availableProcessors());
+		
 		if (engine == null)
 			throw new NullPointerException("Rendering Engine is null.");
 		
@@ -74,6 +79,9 @@ public class SVGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 	@Override
 	public void updateView(DynNetwork<T> dynNetwork, double currentTime, int iteration) 
 	{
+		if (isClosed())
+			return;
+		
 		//		File outputFile = new File(trim(file.getAbsolutePath()) + 
 		//		"_" + Calendar.getInstance().getTimeInMillis() +
 		//		"_Time_" + formatter.format(currentTime) + ".png");
@@ -82,21 +90,40 @@ public class SVGWriterFactory<T> extends AbstractDynNetworkViewWriterFactory<T>
 //				"_T" + formatter.format(currentTime) + 
 //				"_I" + formatter2.format(iteration) + ".svg");
 		
-		File outputFile = new File(fileName +  
-				"_" + formatter3.format(counter) + ".png");
+		final File outputFile = new File(fileName +  
+				"_" + formatter3.format(counter) + ".svg");
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
-		try {
-			(new SVGWriter(engine, new FileOutputStream(outputFile,false))).export(width.intValue(),height.intValue());
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		}
+		(new SVGWriter(engine, buffer)).export(width.intValue(),height.intValue());
+		
+		boolean submitted = submit(new Runnable()
+		{
+			public void run()
+			{
+				FileOutputStream stream = null;
+				try {
+					stream = new FileOutputStream(outputFile,false);
+					buffer.writeTo(stream);
+				} catch (IOException e) {
+					e.printStackTrace();
+				} finally {
+					if (stream!=null)
+						try {
+							stream.close();
+						} catch (IOException e) {
+							e.printStackTrace();
+						}
+				}
+			}
+		});
 		
-		counter = counter + 1;
+		if (submitted)
+			counter = counter + 1;
 	}
 	
 	public void dispose()
 	{
-		// Do nothing.
+		shutdown(null);
 	}
 	
 	private String trim(String str)
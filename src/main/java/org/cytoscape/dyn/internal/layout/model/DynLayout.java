@@ -95,6 +95,18 @@ public interface DynLayout<T>
 	 */
 	public void initNodePositions(DynInterval<T> timeInterval);
 	
+	/**
+	 * Compile the node position intervals for the given frame times, so that the
+	 * changed intervals of these frames are replayed without tree search.
+	 * @param times
+	 */
+	public void compileTimeline(double[] times);
+	
+	/**
+	 * Release the compiled timeline and go back to tree search.
+	 */
+	public void releaseTimeline();
+	
 	/**
 	 * Finalize layout. We perform here all operations that require the network layout
 	 * to be finished.
@@ -29,6 +29,8 @@ import org.cytoscape.dyn.internal.io.read.util.KeyPairs;
 import org.cytoscape.dyn.internal.model.attribute.AbstractDynAttributeCheck;
 import org.cytoscape.dyn.internal.model.attribute.DynAttribute;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalChangeDetector;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalTimeline;
 import org.cytoscape.dyn.internal.model.tree.DynIntervalTree;
 import org.cytoscape.dyn.internal.model.tree.DynIntervalTreeImpl;
 import org.cytoscape.model.CyNode;
@@ -51,8 +53,8 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 {
 	private final CyNetworkView view;
 	
-	private List<DynInterval<T>> currentNodesX;
-	private List<DynInterval<T>> currentNodesY;
+	private final DynIntervalChangeDetector<T> currentNodesX;
+	private final DynIntervalChangeDetector<T> currentNodesY;
 	
 	private final DynIntervalTreeImpl<T> nodeXPositionsTree;
 	private final DynIntervalTreeImpl<T> nodeYPositionsTree;
@@ -70,8 +72,8 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 	{
 		this.view = view;
 
-		this.currentNodesX = new ArrayList<DynInterval<T>>();
-		this.currentNodesY = new ArrayList<DynInterval<T>>();
+		this.currentNodesX = new DynIntervalChangeDetector<T>();
+		this.currentNodesY = new DynIntervalChangeDetector<T>();
 		
 		this.nodeXPositionsTree = new DynIntervalTreeImpl<T>();
 		this.nodeYPositionsTree = new DynIntervalTreeImpl<T>();
@@ -106,7 +108,8 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 		for (DynInterval<T> interval : node_Y_Pos.get(key).getIntervalList())
 			nodeYPositionsTree.remove(interval, node.getSUID());
 		node_Y_Pos.remove(key);
-
+		
+		releaseTimeline();
 	}
 	
 	@Override
@@ -137,10 +140,10 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 	{
 		if (!node_X_Pos.isEmpty())
 		{
-			List<DynInterval<T>> tempList = nodeXPositionsTree.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentNodesX, tempList);
-			currentNodesX = tempList;
-			return changedList;
+			if (currentNodesX.hasTimeline())
+				return currentNodesX.replay(interval);
+			nodeXPositionsTree.search(interval, currentNodesX.next());
+			return currentNodesX.update();
 		}
 		return this.emptyList;
 	}
@@ -150,10 +153,10 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 	{
 		if (!node_Y_Pos.isEmpty())
 		{
-			List<DynInterval<T>> tempList = nodeYPositionsTree.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentNodesY, tempList);
-			currentNodesY = tempList;
-			return changedList;
+			if (currentNodesY.hasTimeline())
+				return currentNodesY.replay(interval);
+			nodeYPositionsTree.search(interval, currentNodesY.next());
+			return currentNodesY.update();
 		}
 		return this.emptyList;
 	}
@@ -176,6 +179,20 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 		}
 	}
 
+	@Override
+	public synchronized void compileTimeline(double[] times)
+	{
+		currentNodesX.setTimeline(new DynIntervalTimeline<T>(nodeXPositionsTree.getIntervals(), times));
+		currentNodesY.setTimeline(new DynIntervalTimeline<T>(nodeYPositionsTree.getIntervals(), times));
+	}
+
+	@Override
+	public synchronized void releaseTimeline()
+	{
+		currentNodesX.setTimeline(null);
+		currentNodesY.setTimeline(null);
+	}
+
 	@Override
 	public void finalize() 
 	{
@@ -186,6 +203,8 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 		for (DynAttribute<T> attr : node_Y_Pos.values())
 			for (DynInterval<T> interval : attr.getIntervalList())
 				nodeYPositionsTree.insert(interval, attr.getRow());
+		
+		releaseTimeline();
 	}
 	
 	@Override
@@ -213,22 +232,4 @@ public final class DynLayoutImpl<T> extends AbstractDynAttributeCheck<T> impleme
 
 	}
 	
-	private List<DynInterval<T>> nonOverlap(List<DynInterval<T>> list1, List<DynInterval<T>> list2) 
-	{
-		List<DynInterval<T>> diff = new ArrayList<DynInterval<T>>();
-		for (DynInterval<T> i : list1)
-			if (!list2.contains(i))
-			{
-				diff.add(i);
-				i.setOn(false);
-			}
-		for (DynInterval<T> i : list2)
-			if (!list1.contains(i))
-			{
-				diff.add(i);
-				i.setOn(true);
-			}
-		return diff;
-	}
-	
 }
@@ -31,7 +31,11 @@
 
 package org.cytoscape.dyn.internal.layout.standard.distance;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.cytoscape.dyn.internal.model.snapshot.DynNetworkSnapshot;
 import org.cytoscape.model.CyNode;
@@ -39,6 +43,13 @@ import org.cytoscape.model.CyNode;
 /**
  * <code> DistanceStatistics </code> computes the statistics relating to vertex-vertex 
  * distances in a graph.
+ * <p>
+ * The diameter of graphs without edge weights is found by breadth first search with 
+ * the iFUB (iterative Fringe Upper Bound) method: starting from a central node u, the 
+ * eccentricities of the nodes farthest from u are computed level by level, until the 
+ * largest one found is at least twice the distance from u of the levels left, which 
+ * bounds the distance between any two of the remaining nodes. Only a handful of searches 
+ * are usually needed, instead of one from every node.
  * 
  * @author Scott White
  * @author Joshua O'Madadhain
@@ -61,6 +72,9 @@ public class DistanceStatistics
 	 */
     public static <T> double diameter(DynNetworkSnapshot<T> g, Distance<T> d, boolean use_max)
     {
+        if (d instanceof UnweightedShortestPath)
+            return diameter(g, use_max);
+
         double diameter = 0;
         Collection<CyNode> vertices = g.getNodes();
         for(CyNode v : vertices) {
@@ -103,7 +117,258 @@ public class DistanceStatistics
      */
     public static <T> double diameter(DynNetworkSnapshot<T> g)
     {
-        return diameter(g, new UnweightedShortestPath<T>(g));
+        return diameter(g, false);
+    }
+    
+    /**
+     * Returns the diameter of the graph, ignoring edge weights and following the edges
+     * from their source to their target, as {@link UnweightedShortestPath} does.
+     * @param <T>
+     * @param g
+     * @param use_max if true, the maximum shortest path length over all pairs of connected 
+     * nodes is returned, otherwise infinity if some node cannot be reached from another
+     * @return diameter
+     */
+    public static <T> double diameter(DynNetworkSnapshot<T> g, boolean use_max)
+    {
+        List<CyNode> nodes = g.getNodes();
+        int n = nodes.size();
+        Map<CyNode,Integer> index = new IdentityHashMap<CyNode,Integer>(2*n);
+        for (CyNode node : nodes)
+            index.put(node, index.size());
+
+        int[] offset = new int[n+1];
+        int[][] successors = new int[n][];
+        for (int i=0; i<n; i++)
+        {
+            List<CyNode> list = g.getSuccessors(nodes.get(i));
+            successors[i] = new int[list.size()];
+            for (int k=0; k<successors[i].length; k++)
+                successors[i][k] = index.get(list.get(k));
+            offset[i+1] = offset[i] + successors[i].length;
+        }
+        int[] adjacency = new int[offset[n]];
+        for (int i=0; i<n; i++)
+            System.arraycopy(successors[i], 0, adjacency, offset[i], successors[i].length);
+
+        if (!use_max && !isStronglyConnected(offset, adjacency, transpose(offset, adjacency)))
+            return Double.POSITIVE_INFINITY;
+        return diameter(offset, adjacency, true);
+    }
+    
+    /**
+     * Returns the maximum shortest path length over all pairs of connected nodes of a graph 
+     * given in compressed sparse row form: the neighbors of node i are 
+     * <code> adjacency[offset[i]] </code> to <code> adjacency[offset[i+1]-1] </code>.
+     * Undirected graphs must list every edge from both of its nodes. The iFUB method 
+     * is used on every connected component of undirected graphs and on strongly connected 
+     * directed graphs; the other directed graphs are searched from every node.
+     * @param offset
+     * @param adjacency
+     * @param directed true if the neighbors of a node are its successors only
+     * @return diameter
+     */
+    public static int diameter(int[] offset, int[] adjacency, boolean directed)
+    {
+        int n = offset.length-1;
+        if (n<2)
+            return 0;
+
+        Search search = new Search(n);
+        if (!directed)
+        {
+            int diameter = 0;
+            boolean[] visited = new boolean[n];
+            for (int s=0; s<n; s++)
+                if (!visited[s])
+                {
+                    int size = search.run(s, offset, adjacency);
+                    for (int k=0; k<size; k++)
+                        visited[search.queue[k]] = true;
+                    // a component of m nodes cannot have a diameter larger than m-1
+                    if (size-1 > diameter)
+                        diameter = Math.max(diameter, 
+                                componentDiameter(search, offset, adjacency, search.copyVisited(size)));
+                }
+            return diameter;
+        }
+
+        int[][] transposed = transpose(offset, adjacency);
+        if (isStronglyConnected(offset, adjacency, transposed))
+        {
+            int u = 0;
+            for (int i=1; i<n; i++)
+                if (offset[i+1]-offset[i] + transposed[0][i+1]-transposed[0][i] > 
+                        offset[u+1]-offset[u] + transposed[0][u+1]-transposed[0][u])
+                    u = i;
+            return fringeDiameter(search, u, offset, adjacency, transposed[0], transposed[1], 0);
+        }
+
+        int diameter = 0;
+        for (int s=0; s<n; s++)
+        {
+            search.run(s, offset, adjacency);
+            diameter = Math.max(diameter, search.eccentricity);
+        }
+        return diameter;
+    }
+    
+    // diameter of an undirected connected component, from the center of a 4-sweep
+    private static int componentDiameter(Search search, int[] offset, int[] adjacency, int[] component)
+    {
+        int r = component[0];
+        for (int v : component)
+            if (offset[v+1]-offset[v] > offset[r+1]-offset[r])
+                r = v;
+
+        int lowerBound = 0;
+        for (int sweep=0; sweep<2; sweep++)
+        {
+            search.run(r, offset, adjacency);
+            int a = search.farthest;
+            search.run(a, offset, adjacency);
+            lowerBound = Math.max(lowerBound, search.eccentricity);
+            // the next sweep starts from the middle of the path from a to its farthest node
+            r = search.farthest;
+            for (int k=search.eccentricity/2; k>0; k--)
+                r = search.parent[r];
+        }
+        if (lowerBound==component.length-1)
+            return lowerBound;
+        return fringeDiameter(search, r, offset, adjacency, offset, adjacency, lowerBound);
+    }
+    
+    // iFUB from u, with the searches of the nodes at the same distance from u run in
+    // the opposite direction; both directions are the same in undirected graphs
+    private static int fringeDiameter(Search search, int u, int[] offset, int[] adjacency, 
+            int[] inOffset, int[] inAdjacency, int lowerBound)
+    {
+        boolean directed = inAdjacency!=adjacency;
+        int size = search.run(u, offset, adjacency);
+        int[] forward = search.copyVisited(size);
+        int[] forwardLevel = search.copyLevels(forward);
+        int[] backward = forward;
+        int[] backwardLevel = forwardLevel;
+        if (directed)
+        {
+            size = search.run(u, inOffset, inAdjacency);
+            backward = search.copyVisited(size);
+            backwardLevel = search.copyLevels(backward);
+        }
+
+        int f = forward.length-1;
+        int b = backward.length-1;
+        lowerBound = Math.max(lowerBound, Math.max(forwardLevel[f], backwardLevel[b]));
+        for (int i=Math.max(forwardLevel[f], backwardLevel[b]); i>0; i--)
+        {
+            // the nodes left are at most i from u, and at most 2i from each other
+            if (lowerBound>=2*i)
+                break;
+            for (; f>=0 && forwardLevel[f]==i; f--)
+            {
+                search.run(forward[f], inOffset, inAdjacency);
+                lowerBound = Math.max(lowerBound, search.eccentricity);
+            }
+            if (directed)
+                for (; b>=0 && backwardLevel[b]==i; b--)
+                {
+                    search.run(backward[b], offset, adjacency);
+                    lowerBound = Math.max(lowerBound, search.eccentricity);
+                }
+        }
+        return lowerBound;
+    }
+    
+    private static boolean isStronglyConnected(int[] offset, int[] adjacency, int[][] transposed)
+    {
+        int n = offset.length-1;
+        if (n<2)
+            return true;
+        Search search = new Search(n);
+        return search.run(0, offset, adjacency)==n && 
+                search.run(0, transposed[0], transposed[1])==n;
+    }
+    
+    // offsets and adjacency of the graph with all edges reversed
+    private static int[][] transpose(int[] offset, int[] adjacency)
+    {
+        int n = offset.length-1;
+        int[] inOffset = new int[n+1];
+        for (int k=0; k<adjacency.length; k++)
+            inOffset[adjacency[k]+1]++;
+        for (int i=0; i<n; i++)
+            inOffset[i+1] += inOffset[i];
+        int[] position = Arrays.copyOf(inOffset, n);
+        int[] inAdjacency = new int[adjacency.length];
+        for (int i=0; i<n; i++)
+            for (int k=offset[i]; k<offset[i+1]; k++)
+                inAdjacency[position[adjacency[k]]++] = i;
+        return new int[][] {inOffset, inAdjacency};
+    }
+    
+    /**
+     * Breadth first search, with the arrays reused by all searches.
+     */
+    private static final class Search
+    {
+        private final int[] distance;
+        private final int[] parent;
+        private final int[] queue;
+        private int visited;
+        private int eccentricity;
+        private int farthest;
+        
+        private Search(int n)
+        {
+            distance = new int[n];
+            parent = new int[n];
+            queue = new int[n];
+            Arrays.fill(distance, -1);
+        }
+        
+        // returns the number of nodes visited, which are the first ones in the queue
+        private int run(int source, int[] offset, int[] adjacency)
+        {
+            // reset the nodes of the previous search only
+            for (int k=0; k<visited; k++)
+                distance[queue[k]] = -1;
+            distance[source] = 0;
+            parent[source] = source;
+            queue[0] = source;
+            int head = 0;
+            int tail = 1;
+            while (head<tail)
+            {
+                int v = queue[head++];
+                for (int k=offset[v]; k<offset[v+1]; k++)
+                {
+                    int w = adjacency[k];
+                    if (distance[w]<0)
+                    {
+                        distance[w] = distance[v]+1;
+                        parent[w] = v;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            visited = tail;
+            farthest = queue[tail-1];
+            eccentricity = distance[farthest];
+            return tail;
+        }
+        
+        private int[] copyVisited(int size)
+        {
+            return Arrays.copyOf(queue, size);
+        }
+        
+        private int[] copyLevels(int[] visited)
+        {
+            int[] level = new int[visited.length];
+            for (int k=0; k<visited.length; k++)
+                level[k] = distance[visited[k]];
+            return level;
+        }
     }
     
 }
\ No newline at end of file
@@ -24,7 +24,11 @@ import java.util.List;
 import org.cytoscape.dyn.internal.model.attribute.DynAttribute;
 import org.cytoscape.dyn.internal.model.tree.AbstractDynInterval;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCounter;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCursor;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalTimeline;
 import org.cytoscape.dyn.internal.model.tree.DynIntervalTree;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalVisitor;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
@@ -58,6 +62,26 @@ public interface DynNetwork<T>
 	 */
 	public void insertNode(CyNode node, String column, DynInterval<T> interval);
 	public void insertNodeUpdate(CyNode node, String column, DynInterval<T> interval);		
+	
+	/**
+	 * Insert a batch of node attribute intervals of one column. The attribute
+	 * index is updated once for the whole batch.
+	 * @param column
+	 * @param rows node SUIDs, rows[k] is the node of intervals[k]
+	 * @param intervals
+	 * @param size number of intervals to insert
+	 */
+	public void insertNodeUpdates(String column, long[] rows, DynInterval<T>[] intervals, int size);
+	
+	/**
+	 * Insert a batch of graph attribute intervals of one column. The attribute
+	 * index is updated once for the whole batch.
+	 * @param column
+	 * @param intervals
+	 * @param size number of intervals to insert
+	 */
+	public void insertGraphUpdates(String column, DynInterval<T>[] intervals, int size);
+	
 	/**
 	 * Insert edge.
 	 * @param ede
@@ -124,6 +148,157 @@ public interface DynNetwork<T>
 	 */
 	public List<DynInterval<T>> searchEdgesAttr(DynInterval<T> interval, String attName);
 	
+	/**
+	 * Search overlapping intervals for nodes given an interval.
+	 * @param interval
+	 * @param visitor called back for each overlapping interval
+	 */
+	public void searchNodes(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search overlapping intervals for edges given an interval.
+	 * @param interval
+	 * @param visitor called back for each overlapping interval
+	 */
+	public void searchEdges(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search overlapping intervals for graph attributes given an interval.
+	 * @param interval
+	 * @param visitor called back for each overlapping interval
+	 */
+	public void searchGraphsAttr(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search overlapping intervals for node attributes given an interval.
+	 * @param interval
+	 * @param visitor called back for each overlapping interval
+	 */
+	public void searchNodesAttr(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search overlapping intervals for edge attributes given an interval.
+	 * @param interval
+	 * @param visitor called back for each overlapping interval
+	 */
+	public void searchEdgesAttr(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search the intervals for nodes that are on at the given time.
+	 * @param time
+	 * @param visitor called back for each interval found
+	 */
+	public void searchNodes(double time, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search the intervals for edges that are on at the given time.
+	 * @param time
+	 * @param visitor called back for each interval found
+	 */
+	public void searchEdges(double time, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search the intervals for graph attributes that are on at the given time.
+	 * @param time
+	 * @param visitor called back for each interval found
+	 */
+	public void searchGraphsAttr(double time, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search the intervals for node attributes that are on at the given time.
+	 * @param time
+	 * @param visitor called back for each interval found
+	 */
+	public void searchNodesAttr(double time, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Search the intervals for edge attributes that are on at the given time.
+	 * @param time
+	 * @param visitor called back for each interval found
+	 */
+	public void searchEdgesAttr(double time, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Count the intervals for nodes that are on at the given time, without searching them.
+	 * @param time
+	 * @return number of intervals
+	 */
+	public int countNodes(double time);
+	
+	/**
+	 * Count the intervals for edges that are on at the given time, without searching them.
+	 * @param time
+	 * @return number of intervals
+	 */
+	public int countEdges(double time);
+	
+	/**
+	 * Get the counter of the node intervals.
+	 * @return interval counter
+	 */
+	public DynIntervalCounter<T> getNodeCounter();
+	
+	/**
+	 * Get the counter of the edge intervals.
+	 * @return interval counter
+	 */
+	public DynIntervalCounter<T> getEdgeCounter();
+	
+	/**
+	 * Get a new forward-only cursor over the node intervals.
+	 * @return cursor
+	 */
+	public DynIntervalCursor<T> getNodeCursor();
+	
+	/**
+	 * Get a new forward-only cursor over the edge intervals.
+	 * @return cursor
+	 */
+	public DynIntervalCursor<T> getEdgeCursor();
+	
+	/**
+	 * Get a new forward-only cursor over the edge attribute intervals
+	 * filtered by the given attribute name.
+	 * @param attName
+	 * @return cursor
+	 */
+	public DynIntervalCursor<T> getEdgeAttrCursor(String attName);
+	
+	/**
+	 * Get a new compiled timeline of the node intervals for the given frame times.
+	 * @param times
+	 * @return timeline
+	 */
+	public DynIntervalTimeline<T> getNodeTimeline(double[] times);
+	
+	/**
+	 * Get a new compiled timeline of the edge intervals for the given frame times.
+	 * @param times
+	 * @return timeline
+	 */
+	public DynIntervalTimeline<T> getEdgeTimeline(double[] times);
+	
+	/**
+	 * Get a new compiled timeline of the graph attribute intervals for the given frame times.
+	 * @param times
+	 * @return timeline
+	 */
+	public DynIntervalTimeline<T> getGraphAttrTimeline(double[] times);
+	
+	/**
+	 * Get a new compiled timeline of the node attribute intervals for the given frame times.
+	 * @param times
+	 * @return timeline
+	 */
+	public DynIntervalTimeline<T> getNodeAttrTimeline(double[] times);
+	
+	/**
+	 * Get a new compiled timeline of the edge attribute intervals for the given frame times.
+	 * @param times
+	 * @return timeline
+	 */
+	public DynIntervalTimeline<T> getEdgeAttrTimeline(double[] times);
+	
 	/**
 	 * Search not overlapping intervals for nodes given an interval.
 	 * @param interval
@@ -183,6 +358,47 @@ public interface DynNetwork<T>
 	 */
 	public List<Double> getEventTimeList(String attName);
 	
+	/**
+	 * Get the sorted unique times at which nodes or edges change, including the
+	 * minimum and maximum time of the network.
+	 * @return event times
+	 */
+	public double[] getEventTimes();
+	
+	/**
+	 * Get the sorted unique times at which nodes, edges or the given edge
+	 * attribute change, including the minimum and maximum time of the network.
+	 * @param attName
+	 * @return event times
+	 */
+	public double[] getEventTimes(String attName);
+	
+	/**
+	 * Get the sorted unique times at which nodes change.
+	 * @return event times
+	 */
+	public double[] getNodeEventTimes();
+	
+	/**
+	 * Get the sorted unique times at which edges change.
+	 * @return event times
+	 */
+	public double[] getEdgeEventTimes();
+	
+	/**
+	 * Get the sorted unique times at which the given node attribute changes.
+	 * @param attName
+	 * @return event times
+	 */
+	public double[] getNodeAttrEventTimes(String attName);
+	
+	/**
+	 * Get the sorted unique times at which the given edge attribute changes.
+	 * @param attName
+	 * @return event times
+	 */
+	public double[] getEdgeAttrEventTimes(String attName);
+	
 	/**
 	 * Get dynamic attribute for given network and name.
 	 * @param network
@@ -317,8 +533,21 @@ public interface DynNetwork<T>
 	 * to be finished.
 	 */
 	public void finalizeNetwork();
+
+	/**
+	 * Merge the touching time intervals with equal values of all graph, node and edge 
+	 * attributes, and rebuild the trees of the attribute columns that changed.
+	 * @return number of intervals removed
+	 */
+	public int compactAttributes();
 	
-	public void UpdateNetwork();
+	/**
+	 * Get the number of changes made to the interval trees of this network. Anything
+	 * precompiled from the trees, like a timeline, is stale once this value changes.
+	 * @return modification count
+	 */
+	public int getModificationCount();
+
 	/**
 	 * Get minimum time.
 	 * @return minimum time
@@ -111,4 +111,27 @@ public interface DynNetworkFactory<T> extends Sink<T>
 	public void finalizeNetwork(DynNetwork<T> dynNetwork);
 	
 	public void setAttributesUpdate(DynNetwork<T> dynNetwork, CyNode node, String attName, String attValue, String attType, String start, String end);
+	
+	/**
+	 * Process a batch of real valued node attribute updates of one column.
+	 * @param dynNetwork
+	 * @param attName
+	 * @param rows node SUIDs, rows[k] is the node of the k-th value
+	 * @param starts
+	 * @param ends
+	 * @param values
+	 * @param size number of values to add
+	 */
+	public void setAttributesUpdate(DynNetwork<T> dynNetwork, String attName, long[] rows, double[] starts, double[] ends, double[] values, int size);
+	
+	/**
+	 * Process a batch of real valued graph attribute updates of one column.
+	 * @param dynNetwork
+	 * @param attName
+	 * @param starts
+	 * @param ends
+	 * @param values
+	 * @param size number of values to add
+	 */
+	public void setGraphAttributesUpdate(DynNetwork<T> dynNetwork, String attName, double[] starts, double[] ends, double[] values, int size);
 }
@@ -19,9 +19,13 @@
 
 package org.cytoscape.dyn.internal.model;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.cytoscape.dyn.internal.io.read.util.AttributeTypeMap;
 import org.cytoscape.dyn.internal.model.tree.AbstractIntervalCheck;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalStore;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
@@ -172,6 +176,47 @@ public final class DynNetworkFactoryImpl<T> extends AbstractIntervalCheck<T> imp
 		dynNetwork.insertNodeUpdate(node, attName, interval);
 	}
 	
+	@Override
+	public void setAttributesUpdate(DynNetwork<T> dynNetwork, String attName, long[] rows, double[] starts, double[] ends, double[] values, int size)
+	{
+		if (size==0)
+			return;
+		DynInterval<T>[] intervals = getIntervalsAttr(dynNetwork, attName, values, starts, ends, size);
+		
+		// the table keeps the last value of each node
+		CyNetwork network = dynNetwork.getNetwork();
+		CyTable table = network.getDefaultNodeTable();
+		if (table.getColumn(attName)==null)
+			table.createColumn(attName, Double.class, false);
+		Set<Long> updated = new HashSet<Long>();
+		for (int k=size-1; k>=0; k--)
+			if (updated.add(rows[k]))
+			{
+				CyNode node = network.getNode(rows[k]);
+				if (node!=null)
+					network.getRow(node).set(attName, Double.valueOf(values[k]));
+			}
+		
+		dynNetwork.insertNodeUpdates(attName, rows, intervals, size);
+	}
+	
+	@Override
+	public void setGraphAttributesUpdate(DynNetwork<T> dynNetwork, String attName, double[] starts, double[] ends, double[] values, int size)
+	{
+		if (size==0)
+			return;
+		DynInterval<T>[] intervals = getIntervalsAttr(dynNetwork, attName, values, starts, ends, size);
+		
+		// the table keeps the last value
+		CyNetwork network = dynNetwork.getNetwork();
+		CyTable table = network.getDefaultNetworkTable();
+		if (table.getColumn(attName)==null)
+			table.createColumn(attName, Double.class, false);
+		network.getRow(network).set(attName, Double.valueOf(values[size-1]));
+		
+		dynNetwork.insertGraphUpdates(attName, intervals, size);
+	}
+	
 	@SuppressWarnings("unchecked")
 	private void setAttributes(DynNetwork<T> dynNetwork, CyEdge edge, String attName, String attValue, String attType, String start, String end)
 	{
@@ -197,7 +242,7 @@ public final class DynNetworkFactoryImpl<T> extends AbstractIntervalCheck<T> imp
 	private DynNetwork<T> createGraph(String directed, String id, String label, String start, String end)
 	{
 		CyRootNetwork rootNetwork = this.rootNetworkManager.getRootNetwork(networkFactory.createNetwork());
-		DynNetworkImpl<T> dynNetwork = new DynNetworkImpl<T>(rootNetwork.getBaseNetwork(), directed.equals("1")?true:false);
+		DynNetworkImpl<T> dynNetwork = new DynNetworkImpl<T>(rootNetwork.getBaseNetwork(), directed.equals("1")?true:false, DynIntervalStore.isOffHeap());
 		return dynNetwork;
 	}
 
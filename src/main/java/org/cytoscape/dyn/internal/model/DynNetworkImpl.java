@@ -21,17 +21,27 @@ package org.cytoscape.dyn.internal.model;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.cytoscape.dyn.internal.io.read.util.KeyPairs;
 import org.cytoscape.dyn.internal.model.attribute.AbstractDynAttributeCheck;
 import org.cytoscape.dyn.internal.model.attribute.DynAttribute;
+import org.cytoscape.dyn.internal.model.tree.DynEventIndex;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalArrayTree;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalColumnTree;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCounter;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCursor;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalTimeline;
 import org.cytoscape.dyn.internal.model.tree.DynIntervalTree;
-import org.cytoscape.dyn.internal.model.tree.DynIntervalTreeImpl;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalVisitor;
 import org.cytoscape.model.CyColumn;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyIdentifiable;
@@ -49,6 +59,9 @@ import org.cytoscape.model.CyNode;
  * we store the intervals separately also in a balanced tree {@link DynIntervalTree},
  * which guarantuees fast retrival of the appropriate intervals. We use several interval trees 
  * for different type of elements or attributes to avoid type checking at runtime.
+ * The trees are {@link DynIntervalArrayTree}: inserts are appended to a buffer and
+ * removes only mark the interval, and the next search sorts the buffer into an implicit
+ * tree, compacting the marked intervals out of it.
  * 
  * @author Sabina Sara Pfister
  *
@@ -71,15 +84,17 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	private final DynIntervalTree<T> nodeTree;
 	private final DynIntervalTree<T> edgeTree;
 
-	private final DynIntervalTree<T> graphTreeAttr;
-	private final DynIntervalTree<T> nodeTreeAttr;
-	private final DynIntervalTree<T> edgeTreeAttr;
+	private final DynIntervalColumnTree<T> graphTreeAttr;
+	private final DynIntervalColumnTree<T> nodeTreeAttr;
+	private final DynIntervalColumnTree<T> edgeTreeAttr;
 
 	private double minStartTime = Double.POSITIVE_INFINITY;
 	private double maxStartTime = Double.NEGATIVE_INFINITY;
 	private double minEndTime = Double.POSITIVE_INFINITY;
 	private double maxEndTime = Double.NEGATIVE_INFINITY;
 	
+	private volatile int modificationCount = 0;
+	
 	/**
 	 * <code> DynNetworkImpl </code> constructor.
 	 * @param network
@@ -89,6 +104,20 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	public DynNetworkImpl(
 			final CyNetwork network,
 			final boolean isDirected)
+	{
+		this(network, isDirected, false);
+	}
+	
+	/**
+	 * <code> DynNetworkImpl </code> constructor.
+	 * @param network
+	 * @param isDirected
+	 * @param isOffHeap true to keep the index of the interval trees off-heap
+	 */
+	public DynNetworkImpl(
+			final CyNetwork network,
+			final boolean isDirected,
+			final boolean isOffHeap)
 	{
 		this.network = network;
 		this.isDirected = isDirected;
@@ -96,13 +125,13 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 		cyNodes = new HashMap<String, Long>();
 		cyEdges = new HashMap<String, Long>();
 
-		this.graphTree = new DynIntervalTreeImpl<T>();
-		this.nodeTree = new DynIntervalTreeImpl<T>();
-		this.edgeTree = new DynIntervalTreeImpl<T>();
+		this.graphTree = new DynIntervalArrayTree<T>(isOffHeap);
+		this.nodeTree = new DynIntervalArrayTree<T>(isOffHeap);
+		this.edgeTree = new DynIntervalArrayTree<T>(isOffHeap);
 		
-		this.graphTreeAttr = new DynIntervalTreeImpl<T>();
-		this.nodeTreeAttr = new DynIntervalTreeImpl<T>();
-		this.edgeTreeAttr = new DynIntervalTreeImpl<T>();
+		this.graphTreeAttr = new DynIntervalColumnTree<T>(isOffHeap);
+		this.nodeTreeAttr = new DynIntervalColumnTree<T>(isOffHeap);
+		this.edgeTreeAttr = new DynIntervalColumnTree<T>(isOffHeap);
 
 		this.graphTable = new HashMap<KeyPairs,DynAttribute<T>>();
 		this.nodeTable = new HashMap<KeyPairs,DynAttribute<T>>();
@@ -113,6 +142,7 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public synchronized void insertGraph(String column, DynInterval<T> interval)
 	{
+		modificationCount++;
 		setMinMaxTime(interval);
 		setGraphDynAttribute(network, this.graphTable, this.network.getSUID(), column, interval);
 	}
@@ -120,25 +150,103 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public synchronized void insertNode(CyNode node, String column, DynInterval<T> interval)
 	{
+		modificationCount++;
 		setMinMaxTime(interval);
 		setNodeDynAttribute(network, this.nodeTable, node.getSUID(), column, interval);
 	}
 	@Override
 	public synchronized void insertNodeUpdate(CyNode node, String column, DynInterval<T> interval)
 	{
+		modificationCount++;
 		KeyPairs key = new KeyPairs(column, node.getSUID());
 		if(this.nodeTable.containsKey(key)){
 			this.nodeTable.get(key).addInterval(interval);
 		}
 		else
 			this.nodeTable.put(key, getAttr(interval,key));	
-		nodeTreeAttr.remove(interval, getAttr(interval,key).getRow());
-		nodeTreeAttr.insert(interval, getAttr(interval,key).getRow());
+		nodeTreeAttr.getColumn(column).remove(interval, getAttr(interval,key).getRow());
+		nodeTreeAttr.getColumn(column).insert(interval, getAttr(interval,key).getRow());
+	}
+	
+	@Override
+	public synchronized void insertGraphUpdates(String column, DynInterval<T>[] intervals, int size)
+	{
+		modificationCount++;
+		long[] rows = new long[size];
+		Arrays.fill(rows, this.network.getSUID());
+		insertUpdates(graphTable, graphTreeAttr, column, rows, intervals, size);
+	}
+	
+	@Override
+	public synchronized void insertNodeUpdates(String column, long[] rows, DynInterval<T>[] intervals, int size)
+	{
+		modificationCount++;
+		insertUpdates(nodeTable, nodeTreeAttr, column, rows, intervals, size);
+	}
+	
+	private void insertUpdates(Map<KeyPairs,DynAttribute<T>> table, DynIntervalColumnTree<T> treeAttr, 
+			String column, long[] rows, DynInterval<T>[] intervals, int size)
+	{
+		// intervals of the attributes as they are indexed before this batch
+		Map<DynAttribute<T>,List<DynInterval<T>>> indexed = new IdentityHashMap<DynAttribute<T>,List<DynInterval<T>>>();
+		Set<DynAttribute<T>> merged = Collections.newSetFromMap(new IdentityHashMap<DynAttribute<T>,Boolean>());
+		List<DynAttribute<T>> owners = new ArrayList<DynAttribute<T>>(size);
+		for (int k=0; k<size; k++)
+		{
+			KeyPairs key = new KeyPairs(column, rows[k]);
+			DynAttribute<T> attr = table.get(key);
+			if (attr!=null)
+			{
+				if (!indexed.containsKey(attr))
+					indexed.put(attr, new ArrayList<DynInterval<T>>(attr.getIntervalList()));
+				attr.addInterval(intervals[k]);
+				// merged into an adjacent interval, which changed in place
+				if (intervals[k].getAttribute()==null)
+					merged.add(attr);
+			}
+			else
+			{
+				attr = getAttr(intervals[k],key);
+				table.put(key, attr);
+			}
+			owners.add(attr);
+		}
+		
+		// attributes with a merge are coalesced once, and only their intervals
+		// are taken out of the tree and put back with the new times
+		DynIntervalTree<T> tree = treeAttr.getColumn(column);
+		for (DynAttribute<T> attr : merged)
+		{
+			attr.coalesce();
+			for (DynInterval<T> interval : indexed.get(attr))
+				tree.remove(interval, attr.getRow());
+			for (DynInterval<T> interval : attr.getIntervalList())
+				tree.insert(interval, attr.getRow());
+		}
+		
+		if (merged.isEmpty())
+		{
+			tree.insert(intervals, rows, size);
+			return;
+		}
+		
+		@SuppressWarnings("unchecked")
+		DynInterval<T>[] inserted = new DynInterval[size];
+		long[] insertedRows = new long[size];
+		int n = 0;
+		for (int k=0; k<size; k++)
+			if (!merged.contains(owners.get(k)))
+			{
+				inserted[n] = intervals[k];
+				insertedRows[n++] = rows[k];
+			}
+		tree.insert(inserted, insertedRows, n);
 	}
 	
 	@Override
 	public synchronized void insertEdge(CyEdge edge, String column, DynInterval<T> interval)
 	{
+		modificationCount++;
 		setMinMaxTime(interval);
 		setEdgeDynAttribute(network, this.edgeTable, edge.getSUID(), column, interval);
 	}
@@ -152,13 +260,17 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public List<CyNode> getVisibleNodeList(DynInterval<T> interval) 
 	{
-		List<CyNode> nodeList = new ArrayList<CyNode>();
-		for (DynInterval<T> i : nodeTree.search(interval))
+		final List<CyNode> nodeList = new ArrayList<CyNode>();
+		nodeTree.search(interval, new DynIntervalVisitor<T>()
 		{
-			CyNode node = this.getNode(i);
-			if (node!=null)
-				nodeList.add(node);
-		}
+			@Override
+			public void visit(DynInterval<T> i)
+			{
+				CyNode node = getNode(i);
+				if (node!=null)
+					nodeList.add(node);
+			}
+		});
 		return nodeList;
 	}
 
@@ -171,13 +283,17 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public List<CyEdge> getVisibleEdgeList(DynInterval<T> interval) 
 	{
-		List<CyEdge> edgeList = new ArrayList<CyEdge>();
-		for (DynInterval<T> i : edgeTree.search(interval))
+		final List<CyEdge> edgeList = new ArrayList<CyEdge>();
+		edgeTree.search(interval, new DynIntervalVisitor<T>()
 		{
-			CyEdge edge = this.getEdge(i);
-			if (edge!=null)
-				edgeList.add(edge);
-		}
+			@Override
+			public void visit(DynInterval<T> i)
+			{
+				CyEdge edge = getEdge(i);
+				if (edge!=null)
+					edgeList.add(edge);
+			}
+		});
 		return edgeList;
 	}
 	
@@ -191,13 +307,17 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public List<CyNode> getVisibleNodeNotList(DynInterval<T> interval) 
 	{
-		List<CyNode> nodeList = new ArrayList<CyNode>();
-		for (DynInterval<T> i : nodeTree.searchNot(interval))
+		final List<CyNode> nodeList = new ArrayList<CyNode>();
+		nodeTree.searchNot(interval, new DynIntervalVisitor<T>()
 		{
-			CyNode node = this.getNode(i);
-			if (node!=null)
-				nodeList.add(node);
-		}
+			@Override
+			public void visit(DynInterval<T> i)
+			{
+				CyNode node = getNode(i);
+				if (node!=null)
+					nodeList.add(node);
+			}
+		});
 		return nodeList;
 	}
 
@@ -211,13 +331,17 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public List<CyEdge> getVisibleEdgeNotList(DynInterval<T> interval) 
 	{
-		List<CyEdge> edgeList = new ArrayList<CyEdge>();
-		for (DynInterval<T> i : edgeTree.searchNot(interval))
+		final List<CyEdge> edgeList = new ArrayList<CyEdge>();
+		edgeTree.searchNot(interval, new DynIntervalVisitor<T>()
 		{
-			CyEdge edge = this.getEdge(i);
-			if (edge!=null)
-				edgeList.add(edge);
-		}
+			@Override
+			public void visit(DynInterval<T> i)
+			{
+				CyEdge edge = getEdge(i);
+				if (edge!=null)
+					edgeList.add(edge);
+			}
+		});
 		return edgeList;
 	}
 	
@@ -242,11 +366,139 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public List<DynInterval<T>> searchEdgesAttr(DynInterval<T> interval,String attName) 
 	{
-		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>();
-		for (DynInterval<T> i : edgeTreeAttr.search(interval))
-			if (i.getAttribute().getColumn().equals(attName))
-				list.add(i);
-		return list;
+		return edgeTreeAttr.search(interval, attName);
+	}
+	
+	@Override
+	public void searchNodes(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		nodeTree.search(interval, visitor);
+	}
+	
+	@Override
+	public void searchEdges(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		edgeTree.search(interval, visitor);
+	}
+	
+	@Override
+	public void searchGraphsAttr(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		graphTreeAttr.search(interval, visitor);
+	}
+	
+	@Override
+	public void searchNodesAttr(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		nodeTreeAttr.search(interval, visitor);
+	}
+	
+	@Override
+	public void searchEdgesAttr(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		edgeTreeAttr.search(interval, visitor);
+	}
+	
+	@Override
+	public void searchNodes(double time, DynIntervalVisitor<T> visitor)
+	{
+		nodeTree.search(time, visitor);
+	}
+	
+	@Override
+	public void searchEdges(double time, DynIntervalVisitor<T> visitor)
+	{
+		edgeTree.search(time, visitor);
+	}
+	
+	@Override
+	public void searchGraphsAttr(double time, DynIntervalVisitor<T> visitor)
+	{
+		graphTreeAttr.search(time, visitor);
+	}
+	
+	@Override
+	public void searchNodesAttr(double time, DynIntervalVisitor<T> visitor)
+	{
+		nodeTreeAttr.search(time, visitor);
+	}
+	
+	@Override
+	public void searchEdgesAttr(double time, DynIntervalVisitor<T> visitor)
+	{
+		edgeTreeAttr.search(time, visitor);
+	}
+
+	@Override
+	public int countNodes(double time)
+	{
+		return nodeTree.getCounter().count(time);
+	}
+	
+	@Override
+	public int countEdges(double time)
+	{
+		return edgeTree.getCounter().count(time);
+	}
+	
+	@Override
+	public DynIntervalCounter<T> getNodeCounter()
+	{
+		return nodeTree.getCounter();
+	}
+	
+	@Override
+	public DynIntervalCounter<T> getEdgeCounter()
+	{
+		return edgeTree.getCounter();
+	}
+
+	@Override
+	public DynIntervalCursor<T> getNodeCursor()
+	{
+		return new DynIntervalCursor<T>(nodeTree.getIntervals());
+	}
+	
+	@Override
+	public DynIntervalCursor<T> getEdgeCursor()
+	{
+		return new DynIntervalCursor<T>(edgeTree.getIntervals());
+	}
+	
+	@Override
+	public DynIntervalCursor<T> getEdgeAttrCursor(String attName)
+	{
+		return new DynIntervalCursor<T>(edgeTreeAttr.getIntervals(attName));
+	}
+
+	@Override
+	public DynIntervalTimeline<T> getNodeTimeline(double[] times)
+	{
+		return new DynIntervalTimeline<T>(nodeTree.getIntervals(), times);
+	}
+
+	@Override
+	public DynIntervalTimeline<T> getEdgeTimeline(double[] times)
+	{
+		return new DynIntervalTimeline<T>(edgeTree.getIntervals(), times);
+	}
+
+	@Override
+	public DynIntervalTimeline<T> getGraphAttrTimeline(double[] times)
+	{
+		return new DynIntervalTimeline<T>(graphTreeAttr.getIntervals(), times);
+	}
+
+	@Override
+	public DynIntervalTimeline<T> getNodeAttrTimeline(double[] times)
+	{
+		return new DynIntervalTimeline<T>(nodeTreeAttr.getIntervals(), times);
+	}
+
+	@Override
+	public DynIntervalTimeline<T> getEdgeAttrTimeline(double[] times)
+	{
+		return new DynIntervalTimeline<T>(edgeTreeAttr.getIntervals(), times);
 	}
 
 	@Override
@@ -397,68 +649,106 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public void finalizeNetwork() 
 	{	
+		modificationCount++;
 		for (DynAttribute<T> attr : graphTable.values())
 			for (DynInterval<T> interval : attr.getIntervalList())
 				if (attr.getColumn().equals("name"))
 					graphTree.insert(interval, attr.getRow());	
 				else
-					graphTreeAttr.insert(interval, attr.getRow());	
+					graphTreeAttr.getColumn(attr.getColumn()).insert(interval, attr.getRow());
 
 		for (DynAttribute<T> attr : nodeTable.values())
 			for (DynInterval<T> interval : attr.getIntervalList())
 				if (attr.getColumn().equals("name"))
 					nodeTree.insert(interval, attr.getRow());
 				else
-					nodeTreeAttr.insert(interval, attr.getRow());
+					nodeTreeAttr.getColumn(attr.getColumn()).insert(interval, attr.getRow());
 
 		for (DynAttribute<T> attr : edgeTable.values())
 			for (DynInterval<T> interval : attr.getIntervalList())
 				if (attr.getColumn().equals("name"))
 					edgeTree.insert(interval, attr.getRow());
 				else
-					edgeTreeAttr.insert(interval, attr.getRow());
+					edgeTreeAttr.getColumn(attr.getColumn()).insert(interval, attr.getRow());
 	}
 	
 	@Override
-	public void UpdateNetwork()
+	public synchronized int compactAttributes()
 	{
-		for (DynAttribute<T> attr : graphTable.values())
-			for (DynInterval<T> interval : attr.getIntervalList()){
-				if(attr.getColumn().equals("name")){
-					graphTree.remove(interval, attr.getRow());
-					graphTree.insert(interval, attr.getRow());
-				}
-				else{
-					graphTreeAttr.remove(interval, attr.getRow());
-					graphTreeAttr.insert(interval,  attr.getRow());
-				}
-			}	
-		for(DynAttribute<T> attr : nodeTable.values())
-			for(DynInterval<T> interval : attr.getIntervalList()){
-				if(attr.getColumn().equals("name")){
-					nodeTree.remove(interval, attr.getRow());
-					nodeTree.insert(interval, attr.getRow());
-				}
-				else{
-					nodeTreeAttr.remove(interval, attr.getRow());
-					nodeTreeAttr.insert(interval,  attr.getRow());
+		modificationCount++;
+		return compact(graphTable, graphTreeAttr) + compact(nodeTable, nodeTreeAttr) + compact(edgeTable, edgeTreeAttr);
+	}
+	
+	@Override
+	public int getModificationCount()
+	{
+		return modificationCount;
+	}
+	
+	private int compact(Map<KeyPairs,DynAttribute<T>> table, DynIntervalColumnTree<T> treeAttr)
+	{
+		int removed = 0;
+		Set<String> columns = new HashSet<String>();
+		for (DynAttribute<T> attr : table.values())
+			if (!attr.getColumn().equals("name"))
+			{
+				int n = attr.coalesce();
+				if (n>0)
+				{
+					removed += n;
+					columns.add(attr.getColumn());
 				}
-			}	
-		for (DynAttribute<T> attr : edgeTable.values())
-			for (DynInterval<T> interval : attr.getIntervalList()){
-				if(attr.getColumn().equals("name")){
-					edgeTree.remove(interval, attr.getRow());
-					edgeTree.insert(interval, attr.getRow());
+			}
+		rebuildTrees(table, treeAttr, columns);
+		return removed;
+	}
+	
+	// The trees of the given columns are cleared and bulk-built again from the
+	// attribute intervals, instead of updating them one interval at a time.
+	@SuppressWarnings("unchecked")
+	private void rebuildTrees(Map<KeyPairs,DynAttribute<T>> table, DynIntervalColumnTree<T> treeAttr, Set<String> columns)
+	{
+		if (columns.isEmpty())
+			return;
+		
+		Map<String,List<DynAttribute<T>>> attrs = new HashMap<String,List<DynAttribute<T>>>();
+		for (DynAttribute<T> attr : table.values())
+			if (columns.contains(attr.getColumn()))
+			{
+				List<DynAttribute<T>> list = attrs.get(attr.getColumn());
+				if (list==null)
+				{
+					list = new ArrayList<DynAttribute<T>>();
+					attrs.put(attr.getColumn(), list);
 				}
-				else{
-					edgeTreeAttr.remove(interval,attr.getRow());
-					edgeTreeAttr.insert(interval, attr.getRow());
-				}	
+				list.add(attr);
 			}
 		
-		print();
+		for (String column : columns)
+		{
+			List<DynAttribute<T>> list = attrs.get(column);
+			int size = 0;
+			if (list!=null)
+				for (DynAttribute<T> attr : list)
+					size += attr.getIntervalList().size();
+			
+			DynInterval<T>[] intervals = new DynInterval[size];
+			long[] rows = new long[size];
+			int k = 0;
+			if (list!=null)
+				for (DynAttribute<T> attr : list)
+					for (DynInterval<T> interval : attr.getIntervalList())
+					{
+						intervals[k] = interval;
+						rows[k++] = attr.getRow();
+					}
+			
+			DynIntervalTree<T> tree = treeAttr.getColumn(column);
+			tree.clear();
+			tree.insert(intervals, rows, size);
+		}
 	}
-
+	
 	@Override
 	public double getMinTime()
 	{
@@ -577,36 +867,60 @@ public final class DynNetworkImpl<T> extends AbstractDynAttributeCheck<T> implem
 	@Override
 	public List<Double> getEventTimeList()
 	{
-		List<Double> timeList = this.nodeTree.getEventTimeList();
-		for (Double d : this.edgeTree.getEventTimeList())
-			if (!timeList.contains(d))
-				timeList.add(d);
-		return sortList(timeList);
+		return DynEventIndex.toList(getEventTimes());
 	}
 	
 	@Override
 	public List<Double> getEventTimeList(String attName)
 	{
-		List<Double> timeList = this.nodeTree.getEventTimeList();
-		for (Double d : this.edgeTree.getEventTimeList())
-			if (!timeList.contains(d))
-				timeList.add(d);
-		for (Double d : this.edgeTreeAttr.getEventTimeList(attName))
-			if (!timeList.contains(d))
-				timeList.add(d);
-		return sortList(timeList);
+		return DynEventIndex.toList(getEventTimes(attName));
 	}
 	
-	private List<Double> sortList(List<Double> timeList)
+	@Override
+	public double[] getEventTimes()
 	{
-		double mintime = this.getMinTime();
+		return addMinMaxTime(DynEventIndex.merge(nodeTree.getEventTimes(), edgeTree.getEventTimes()));
+	}
+	
+	@Override
+	public double[] getEventTimes(String attName)
+	{
+		return addMinMaxTime(DynEventIndex.merge(DynEventIndex.merge(nodeTree.getEventTimes(), edgeTree.getEventTimes()),
+				edgeTreeAttr.getEventTimes(attName)));
+	}
+	
+	@Override
+	public double[] getNodeEventTimes()
+	{
+		return nodeTree.getEventTimes();
+	}
+	
+	@Override
+	public double[] getEdgeEventTimes()
+	{
+		return edgeTree.getEventTimes();
+	}
+	
+	@Override
+	public double[] getNodeAttrEventTimes(String attName)
+	{
+		return nodeTreeAttr.getEventTimes(attName);
+	}
+	
+	@Override
+	public double[] getEdgeAttrEventTimes(String attName)
+	{
+		return edgeTreeAttr.getEventTimes(attName);
+	}
+	
+	private double[] addMinMaxTime(double[] times)
+	{
+		double minTime = this.getMinTime();
 		double maxTime = this.getMaxTime();
-		if (!timeList.contains(mintime))
-			timeList.add(mintime);
-		if (!timeList.contains(maxTime))
-			timeList.add(maxTime);
-		Collections.sort(timeList);
-		return timeList;
+		if (minTime<=maxTime)
+			return DynEventIndex.merge(times, new double[] {minTime, maxTime});
+		else
+			return DynEventIndex.merge(times, new double[] {maxTime, minTime});
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.cytoscape.dyn.internal.io.read.util.KeyPairs;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalSort;
 
 /**
  * <code> AbstractDynAttribute </code> is the abstract class which provides generic methods 
@@ -43,6 +44,8 @@ public abstract class AbstractDynAttribute<T> implements DynAttribute<T>
 	
 	protected List<DynAttribute<T>> children;
 	
+	protected DynNumericSeries series;
+	
 	/**
 	 * <code> AbstractDynAttribute </code> constructor.
 	 * @param type
@@ -52,6 +55,8 @@ public abstract class AbstractDynAttribute<T> implements DynAttribute<T>
 		this.type = type;
 		intervalList = new ArrayList<DynInterval<T>>();
 		children = new ArrayList<DynAttribute<T>>();
+		if (Number.class.isAssignableFrom(type))
+			series = new DynNumericSeries();
 	}
 	
 	/**
@@ -65,6 +70,8 @@ public abstract class AbstractDynAttribute<T> implements DynAttribute<T>
 		this.key = key;
 		this.intervalList.add(interval);
 		interval.setAttribute(this);
+		if (series!=null)
+			series.insert(interval);
 	}
 		
 	@Override
@@ -76,13 +83,27 @@ public abstract class AbstractDynAttribute<T> implements DynAttribute<T>
 			DynInterval<T> next = this.getSuccesor(interval);
 
 			if (previous!=null)
+			{
+				if (series!=null)
+					series.remove(previous);
 				previous.setEnd(interval.getEnd());
+				if (series!=null)
+					series.insert(previous);
+			}
 			else if (next!=null)
+			{
+				if (series!=null)
+					series.remove(next);
 				next.setStart(interval.getStart());
+				if (series!=null)
+					series.insert(next);
+			}
 			else
 			{
 				if(!intervalList.contains(interval)){
 					intervalList.add(interval);
+					if (series!=null)
+						series.insert(interval);
 				}
 				interval.setAttribute(this);
 			}
@@ -92,7 +113,8 @@ public abstract class AbstractDynAttribute<T> implements DynAttribute<T>
 	@Override
 	public void removeInterval(DynInterval<T> interval)
 	{
-		intervalList.remove(interval);
+		if (intervalList.remove(interval) && series!=null)
+			series.remove(interval);
 	}
 	
 	@Override
@@ -164,6 +186,68 @@ public abstract class AbstractDynAttribute<T> implements DynAttribute<T>
 		this.intervalList.clear();
 		this.children.clear();
 		this.key = null;
+		if (series!=null)
+			series.build(intervalList);
+	}
+	
+	@Override
+	public synchronized int coalesce()
+	{
+		int size = intervalList.size();
+		if (size<2)
+			return 0;
+
+		// stable sorts, by end time and then by start time
+		int[] index = new int[size];
+		double[] time = new double[size];
+		for (int k=0; k<size; k++)
+		{
+			index[k] = k;
+			time[k] = intervalList.get(k).getEnd();
+		}
+		DynIntervalSort.sort(index, time);
+		for (int k=0; k<size; k++)
+			time[k] = intervalList.get(k).getStart();
+		DynIntervalSort.sort(index, time);
+
+		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>(size);
+		DynInterval<T> run = intervalList.get(index[0]);
+		list.add(run);
+		for (int k=1; k<size; k++)
+		{
+			DynInterval<T> interval = intervalList.get(index[k]);
+			if (interval.getStart()==run.getEnd() &&
+					interval.getOnValue().equals(run.getOnValue()))
+				run.setEnd(interval.getEnd());
+			else
+			{
+				run = interval;
+				list.add(run);
+			}
+		}
+
+		int removed = size-list.size();
+		if (removed>0)
+		{
+			this.intervalList = list;
+			if (series!=null)
+				series.build(intervalList);
+		}
+		return removed;
+	}
+	
+	@Override
+	public DynNumericSeries getSeries()
+	{
+		return series;
+	}
+	
+	// Rebuilds the numeric series after intervals of this attribute were changed in place
+	// by the attribute checks, which bypass addInterval and removeInterval.
+	void refresh()
+	{
+		if (series!=null)
+			series.build(intervalList);
 	}
 
 	@Override
@@ -114,11 +114,17 @@ public abstract class AbstractDynAttributeCheck<T>
 			if (interval!=i && i.compareTo(interval)>0)
 			{
 				if (interval.getStart()>i.getStart() && interval.getEnd()>=i.getEnd())
+				{
 					i.setEnd(interval.getStart());
+					refresh(attr);
+				}
 				else if (interval.getStart()==i.getStart() && interval.getEnd()>i.getEnd())
 					interval.setStart(i.getEnd());
 				else if (interval.getEnd()<i.getEnd() && interval.getStart()<=i.getStart())
+				{
 					i.setStart(interval.getEnd());
+					refresh(attr);
+				}
 				else if (interval.getEnd()==i.getEnd() && interval.getStart()<i.getStart())
 					interval.setEnd(i.getStart());
 				else if (interval.getEnd()==i.getEnd() && interval.getStart()==i.getStart() && interval.getOnValue().equals(i.getOnValue()))
@@ -147,11 +153,17 @@ public abstract class AbstractDynAttributeCheck<T>
 			if (interval!=i && i.compareTo(interval)>0)
 			{
 				if (interval.getStart()>i.getStart() && interval.getEnd()>=i.getEnd())
+				{
 					i.setEnd(interval.getStart());
+					refresh(attr);
+				}
 				else if (interval.getStart()==i.getStart() && interval.getEnd()>i.getEnd())
 					interval.setStart(i.getEnd());
 				else if (interval.getEnd()<i.getEnd() && interval.getStart()<=i.getStart())
+				{
 					i.setStart(interval.getEnd());
+					refresh(attr);
+				}
 				else if (interval.getEnd()==i.getEnd() && interval.getStart()<i.getStart())
 					interval.setEnd(i.getStart());
 				else if (interval.getEnd()==i.getEnd() && interval.getStart()==i.getStart() && interval.getOnValue().equals(i.getOnValue()))
@@ -180,11 +192,17 @@ public abstract class AbstractDynAttributeCheck<T>
 			if (interval!=i && i.compareTo(interval)>0)
 			{
 				if (interval.getStart()>i.getStart() && interval.getEnd()>=i.getEnd())
+				{
 					i.setEnd(interval.getStart());
+					refresh(attr);
+				}
 				else if (interval.getStart()==i.getStart() && interval.getEnd()>i.getEnd())
 					interval.setStart(i.getEnd());
 				else if (interval.getEnd()<i.getEnd() && interval.getStart()<=i.getStart())
+				{
 					i.setStart(interval.getEnd());
+					refresh(attr);
+				}
 				else if (interval.getEnd()==i.getEnd() && interval.getStart()<i.getStart())
 					interval.setEnd(i.getStart());
 				else if (interval.getEnd()==i.getEnd() && interval.getStart()==i.getStart() && interval.getOnValue().equals(i.getOnValue()))
@@ -219,6 +237,15 @@ public abstract class AbstractDynAttributeCheck<T>
 			interval.setEnd(previous.getEnd());
 			interval.getAttribute().removeInterval(next);
 		}
+		if (previous!=null || next!=null)
+			refresh(interval.getAttribute());
+	}
+	
+	// The checks change intervals of the attribute in place, so its numeric series is rebuilt.
+	private void refresh(DynAttribute<T> attr)
+	{
+		if (attr instanceof AbstractDynAttribute)
+			((AbstractDynAttribute<T>) attr).refresh();
 	}
 
 }
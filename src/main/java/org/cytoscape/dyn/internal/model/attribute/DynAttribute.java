@@ -110,6 +110,20 @@ public interface DynAttribute<T>
 	 * Clear all.
 	 */
 	public void clear();
+	
+	/**
+	 * Merge the time intervals of this attribute that touch and have equal values
+	 * into single intervals.
+	 * @return number of intervals removed
+	 */
+	public int coalesce();
+	
+	/**
+	 * Get the time intervals of this attribute in columnar form. The series is
+	 * updated on every write to the attribute.
+	 * @return numeric series, or null if the attribute is not numeric
+	 */
+	public DynNumericSeries getSeries();
 
 	/**
 	 * Get class type.
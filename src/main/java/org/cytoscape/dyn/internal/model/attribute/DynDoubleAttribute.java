@@ -52,19 +52,13 @@ public class DynDoubleAttribute extends AbstractDynAttribute<Double>
 	@Override
 	public Double getMinValue()
     {
-		double min = Double.POSITIVE_INFINITY;
-		for (DynInterval<Double> i : intervalList)
-			min = Math.min(min, i.getOnValue());
-    	return min;
+		return series.getMinValue();
     }
     
 	@Override
 	public Double getMaxValue()
 	{
-		double max = Double.NEGATIVE_INFINITY;
-		for (DynInterval<Double> i : intervalList)
-			max = Math.max(max, i.getOnValue());
-    	return max;
+		return series.getMaxValue();
 	}
 	
 }
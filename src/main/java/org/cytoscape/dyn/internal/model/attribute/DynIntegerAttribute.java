@@ -52,19 +52,13 @@ public class DynIntegerAttribute extends AbstractDynAttribute<Integer>
 	@Override
 	public Integer getMinValue()
     {
-		int min = Integer.MAX_VALUE;
-		for (DynInterval<Integer> i : intervalList)
-			min = Math.min(min, i.getOnValue());
-    	return min;
+		return series.size()==0 ? Integer.MAX_VALUE : (int) series.getMinValue();
     }
     
 	@Override
 	public Integer getMaxValue()
 	{
-		int max = Integer.MIN_VALUE;
-		for (DynInterval<Integer> i : intervalList)
-			max = Math.max(max, i.getOnValue());
-    	return max;
+		return series.size()==0 ? Integer.MIN_VALUE : (int) series.getMaxValue();
 	}
 	
 }
@@ -0,0 +1,235 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.attribute;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalSort;
+
+/**
+ * <code> DynNumericSeries </code> stores the time intervals of a numeric attribute in
+ * columnar form, as contiguous arrays of start times, end times and values sorted by
+ * start time. The series is owned by its attribute and updated on every write, so charts
+ * and metrics can read it, or look up the value at a point in time by binary search,
+ * without going through the interval objects. Integer values are stored exactly as doubles.
+ *
+ * @author Sabina Sara Pfister
+ *
+ */
+public final class DynNumericSeries
+{
+	private double[] starts;
+	private double[] ends;
+	private double[] values;
+	private double[] maxEnds;
+	private int size;
+
+	/**
+	 * <code> DynNumericSeries </code> constructor.
+	 */
+	public DynNumericSeries()
+	{
+		this.starts = new double[4];
+		this.ends = new double[4];
+		this.values = new double[4];
+		this.maxEnds = new double[4];
+		this.size = 0;
+	}
+
+	/**
+	 * Insert an interval. Intervals written in time order are appended.
+	 * @param interval
+	 */
+	void insert(DynInterval<?> interval)
+	{
+		ensureCapacity(size+1);
+		double start = interval.getStart();
+		int k = DynIntervalSort.upperBound(starts, size, start);
+		System.arraycopy(starts, k, starts, k+1, size-k);
+		System.arraycopy(ends, k, ends, k+1, size-k);
+		System.arraycopy(values, k, values, k+1, size-k);
+		starts[k] = start;
+		ends[k] = interval.getEnd();
+		values[k] = ((Number) interval.getOnValue()).doubleValue();
+		size++;
+		updateMaxEnds(k);
+	}
+
+	/**
+	 * Remove an interval. It must be removed before its times are changed.
+	 * @param interval
+	 */
+	void remove(DynInterval<?> interval)
+	{
+		double start = interval.getStart();
+		double end = interval.getEnd();
+		double value = ((Number) interval.getOnValue()).doubleValue();
+		for (int k=DynIntervalSort.lowerBound(starts, size, start); k<size && starts[k]==start; k++)
+			if (ends[k]==end && Double.compare(values[k], value)==0)
+			{
+				System.arraycopy(starts, k+1, starts, k, size-k-1);
+				System.arraycopy(ends, k+1, ends, k, size-k-1);
+				System.arraycopy(values, k+1, values, k, size-k-1);
+				size--;
+				updateMaxEnds(k);
+				return;
+			}
+	}
+
+	/**
+	 * Replace the content of the series with the given intervals.
+	 * @param intervals
+	 */
+	void build(List<? extends DynInterval<?>> intervals)
+	{
+		int n = intervals.size();
+		double[] key = new double[n];
+		int[] index = new int[n];
+		for (int k=0; k<n; k++)
+		{
+			key[k] = intervals.get(k).getStart();
+			index[k] = k;
+		}
+		DynIntervalSort.sort(index, key);
+
+		size = 0;
+		ensureCapacity(n);
+		for (int k=0; k<n; k++)
+		{
+			DynInterval<?> interval = intervals.get(index[k]);
+			starts[k] = interval.getStart();
+			ends[k] = interval.getEnd();
+			values[k] = ((Number) interval.getOnValue()).doubleValue();
+		}
+		size = n;
+		updateMaxEnds(0);
+	}
+
+	/**
+	 * Get the number of intervals.
+	 * @return size
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Get the start time of the k-th interval.
+	 * @param k
+	 * @return start time
+	 */
+	public double getStart(int k)
+	{
+		return starts[k];
+	}
+
+	/**
+	 * Get the end time of the k-th interval.
+	 * @param k
+	 * @return end time
+	 */
+	public double getEnd(int k)
+	{
+		return ends[k];
+	}
+
+	/**
+	 * Get the value of the k-th interval.
+	 * @param k
+	 * @return value
+	 */
+	public double getValue(int k)
+	{
+		return values[k];
+	}
+
+	/**
+	 * Get the index of the interval that contains the given time. If several intervals
+	 * contain it, the one that starts last is returned.
+	 * @param time
+	 * @return index of the interval, or -1 if no interval contains the time
+	 */
+	public int indexOf(double time)
+	{
+		// intervals that start earlier are only checked as long as they may still be open
+		for (int k=DynIntervalSort.upperBound(starts, size, time)-1; k>=0 && maxEnds[k]>=time; k--)
+			if (time<ends[k] || (time==ends[k] && starts[k]==ends[k]))
+				return k;
+		return -1;
+	}
+
+	/**
+	 * Get the value at the given time.
+	 * @param time
+	 * @param defaultValue
+	 * @return value at time, or defaultValue if no interval contains the time
+	 */
+	public double getValue(double time, double defaultValue)
+	{
+		int k = indexOf(time);
+		return k<0 ? defaultValue : values[k];
+	}
+
+	/**
+	 * Get the minimum value.
+	 * @return minimum value, or positive infinity if the series is empty
+	 */
+	public double getMinValue()
+	{
+		double min = Double.POSITIVE_INFINITY;
+		for (int k=0; k<size; k++)
+			min = Math.min(min, values[k]);
+		return min;
+	}
+
+	/**
+	 * Get the maximum value.
+	 * @return maximum value, or negative infinity if the series is empty
+	 */
+	public double getMaxValue()
+	{
+		double max = Double.NEGATIVE_INFINITY;
+		for (int k=0; k<size; k++)
+			max = Math.max(max, values[k]);
+		return max;
+	}
+
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity<=starts.length)
+			return;
+		int length = Math.max(capacity, starts.length+(starts.length>>1));
+		starts = Arrays.copyOf(starts, length);
+		ends = Arrays.copyOf(ends, length);
+		values = Arrays.copyOf(values, length);
+		maxEnds = Arrays.copyOf(maxEnds, length);
+	}
+
+	// maxEnds[k] is the largest end time of the first k+1 intervals
+	private void updateMaxEnds(int from)
+	{
+		for (int k=from; k<size; k++)
+			maxEnds[k] = k==0 ? ends[k] : Math.max(maxEnds[k-1], ends[k]);
+	}
+
+}
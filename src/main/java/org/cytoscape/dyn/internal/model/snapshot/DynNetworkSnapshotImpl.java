@@ -20,12 +20,14 @@
 package org.cytoscape.dyn.internal.model.snapshot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cytoscape.dyn.internal.model.DynNetwork;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCursor;
 import org.cytoscape.dyn.internal.view.model.DynNetworkView;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
@@ -33,7 +35,11 @@ import org.cytoscape.model.CyNode;
 /**
  * <code> DynNetworkSnapshotImpl </code> implements all methods to investigate a network in
  * time snapshots within the given time interval. It's computationally intensive, and should 
- * be used only when it is not sufficient to search for time intervals only.
+ * be used only when it is not sufficient to search for time intervals only. Consecutive
+ * time intervals are applied through {@link DynIntervalCursor}, so that moving forward in 
+ * time only touches the nodes and edges that changed. Nodes and edges are indexed by SUID 
+ * in primitive hash maps, with array adjacency lists and swap-remove, so that adding or 
+ * removing elements and looking up neighbors take constant time.
  * 
  * @author Sabina Sara Pfister
  *
@@ -41,22 +47,45 @@ import org.cytoscape.model.CyNode;
  */
 public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 {
+	private static final int INITIAL_CAPACITY = 16;
+	
 	protected final DynNetwork<T> network;
 	protected final DynNetworkView<T> view;
 	
-	protected final List<CyNode> nodeList;
-	protected final List<CyEdge> edgeList;
-	
-	protected final Map<CyNode,List<CyEdge>> inEdges;
-	protected final Map<CyNode,List<CyEdge>> outEdges;
+	// Node slots, one for each node that is or was part of the snapshot
+	private final LongIntHashMap nodeIndex;
+	private CyNode[] slotNode;
+	private int[] slotCount;
+	private int[] slotPosition;
+	private int[][] inAdjacency;
+	private int[][] outAdjacency;
+	private int[] inSize;
+	private int[] outSize;
+	private int slots;
+	
+	// Edges, indexed by their position in the edge list
+	private final LongIntHashMap edgeIndex;
+	private final LongIntHashMap pairIndex;
+	private int[] edgeCount;
+	private int[] edgeSource;
+	private int[] edgeTarget;
+	private int[] edgeInPosition;
+	private int[] edgeOutPosition;
+	private int[] pairPrevious;
+	private int[] pairNext;
+	
+	private final List<CyNode> nodeList;
+	private final List<CyEdge> edgeList;
+	private List<CyNode> nodeListCopy;
+	private List<CyEdge> edgeListCopy;
 	
 	private String attName;
 	
 	private DynInterval<T> timeInterval;
 	
-	private List<DynInterval<T>> currentNodes;
-	private List<DynInterval<T>> currentEdges;
-	private List<DynInterval<T>> currentEdgesAttr;
+	private DynIntervalCursor<T> nodeCursor;
+	private DynIntervalCursor<T> edgeCursor;
+	private DynIntervalCursor<T> edgeAttrCursor;
 	
 	private final Map<CyNode,List<DynInterval<T>>> nodeIntervals;
 	private final Map<CyEdge,List<DynInterval<T>>> edgeIntervals;
@@ -76,19 +105,46 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	 * @param view
 	 */
 	public DynNetworkSnapshotImpl(final DynNetworkView<T> view) 
+	{
+		this(view.getNetwork(), view);
+	}
+	
+	/**
+	 * <code> DynNetworkSnapshotImpl </code> constructor for a network without view, 
+	 * e.g. to compute graph metrics headless. {@link #getNetworkView()} returns null.
+	 * @param network
+	 */
+	public DynNetworkSnapshotImpl(final DynNetwork<T> network) 
+	{
+		this(network, null);
+	}
+	
+	private DynNetworkSnapshotImpl(final DynNetwork<T> network, final DynNetworkView<T> view) 
 	{
 		this.view = view;
-		this.network = view.getNetwork();
+		this.network = network;
 		
-		this.nodeList = new ArrayList<CyNode>();
-		this.edgeList = new ArrayList<CyEdge>();
+		this.nodeIndex = new LongIntHashMap();
+		this.slotNode = new CyNode[INITIAL_CAPACITY];
+		this.slotCount = new int[INITIAL_CAPACITY];
+		this.slotPosition = new int[INITIAL_CAPACITY];
+		this.inAdjacency = new int[INITIAL_CAPACITY][];
+		this.outAdjacency = new int[INITIAL_CAPACITY][];
+		this.inSize = new int[INITIAL_CAPACITY];
+		this.outSize = new int[INITIAL_CAPACITY];
 		
-		this.inEdges = new HashMap<CyNode,List<CyEdge>>();
-		this.outEdges = new HashMap<CyNode,List<CyEdge>>();
+		this.edgeIndex = new LongIntHashMap();
+		this.pairIndex = new LongIntHashMap();
+		this.edgeCount = new int[INITIAL_CAPACITY];
+		this.edgeSource = new int[INITIAL_CAPACITY];
+		this.edgeTarget = new int[INITIAL_CAPACITY];
+		this.edgeInPosition = new int[INITIAL_CAPACITY];
+		this.edgeOutPosition = new int[INITIAL_CAPACITY];
+		this.pairPrevious = new int[INITIAL_CAPACITY];
+		this.pairNext = new int[INITIAL_CAPACITY];
 		
-		this.currentNodes = new ArrayList<DynInterval<T>>();
-		this.currentEdges = new ArrayList<DynInterval<T>>();
-		this.currentEdgesAttr = new ArrayList<DynInterval<T>>();
+		this.nodeList = new ArrayList<CyNode>();
+		this.edgeList = new ArrayList<CyEdge>();
 		
 		this.nodeIntervals = new HashMap<CyNode,List<DynInterval<T>>>();
 		this.edgeIntervals = new HashMap<CyEdge,List<DynInterval<T>>>();
@@ -134,18 +190,10 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 		if (attName!=null && !attName.equals("none"))
 		{
 			for (DynInterval<T> i : getChangedEdgeAttrIntervals(timeInterval))
-				if (i.getAttribute().getColumn().equals(attName))
-					if (i.isOn())
-					{
-						CyEdge edge = network.getEdge(i);
-						addEdgeAttr(edge, i);
-					}
-					else
-					{
-						CyEdge edge = network.getEdge(i);
-						if (edgeList.contains(edge))
-						removeEdgeAttr(edge, i);
-					}
+				if (i.isOn())
+					addEdgeAttr(network.getEdge(i), i);
+				else
+					removeEdgeAttr(network.getEdge(i), i);
 		}
 	}
 	
@@ -153,12 +201,14 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	public List<CyNode> getNeighbors(CyNode node)
 	{
 		ArrayList<CyNode> list = new ArrayList<CyNode>();
-		if (this.inEdges.containsKey(node))
-			for (CyEdge edge : this.inEdges.get(node))
-				list.add(edge.getSource());
-		if (this.outEdges.containsKey(node))
-			for (CyEdge edge : this.outEdges.get(node))
-				list.add(edge.getTarget());
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+		{
+			for (int i=0; i<inSize[slot]; i++)
+				list.add(edgeList.get(inAdjacency[slot][i]).getSource());
+			for (int i=0; i<outSize[slot]; i++)
+				list.add(edgeList.get(outAdjacency[slot][i]).getTarget());
+		}
 		return list;
 	}
 	
@@ -166,29 +216,37 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	public List<CyEdge> getEdges(CyNode node)
 	{
 		ArrayList<CyEdge> list = new ArrayList<CyEdge>();
-		if (this.inEdges.containsKey(node))
-			list.addAll(this.inEdges.get(node));
-		if (this.outEdges.containsKey(node))
-			list.addAll(this.outEdges.get(node));
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+		{
+			for (int i=0; i<inSize[slot]; i++)
+				list.add(edgeList.get(inAdjacency[slot][i]));
+			for (int i=0; i<outSize[slot]; i++)
+				list.add(edgeList.get(outAdjacency[slot][i]));
+		}
 		return list;
 	}
 	
 	@Override
 	public List<CyEdge> getInEdges(CyNode node)
 	{
-		if (this.inEdges.containsKey(node))
-			return this.inEdges.get(node);
-		else
-			return new ArrayList<CyEdge>();
+		ArrayList<CyEdge> list = new ArrayList<CyEdge>();
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+			for (int i=0; i<inSize[slot]; i++)
+				list.add(edgeList.get(inAdjacency[slot][i]));
+		return list;
 	}
 	
 	@Override
 	public List<CyEdge> getOutEdges(CyNode node)
 	{
-		if (this.outEdges.containsKey(node))
-			return this.outEdges.get(node);
-		else
-			return new ArrayList<CyEdge>();
+		ArrayList<CyEdge> list = new ArrayList<CyEdge>();
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+			for (int i=0; i<outSize[slot]; i++)
+				list.add(edgeList.get(outAdjacency[slot][i]));
+		return list;
 	}
 	
 	@Override
@@ -212,36 +270,30 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	@Override
 	public CyEdge findEdge(CyNode node1, CyNode node2)
 	{
-		for (CyEdge edge : this.edgeList)
-			if (edge.getSource()==node1 && edge.getTarget()==node2)
-				return edge;
-			else if (edge.getSource()==node2 && edge.getTarget()==node1)
-				return edge;
-		return null;
+		int e = pairIndex.get(node1.getSUID(), node2.getSUID());
+		if (e==LongIntHashMap.NONE)
+			e = pairIndex.get(node2.getSUID(), node1.getSUID());
+		if (e==LongIntHashMap.NONE)
+			return null;
+		return edgeList.get(e);
 	}
 	
 	@Override
 	public List<CyEdge> findEdgeSet(CyNode node1, CyNode node2)
 	{
 		ArrayList<CyEdge> list = new ArrayList<CyEdge>();
-		for (CyEdge edge : this.edgeList)
-			if (edge.getSource()==node1 && edge.getTarget()==node2)
-				list.add(edge);
-			else if (edge.getSource()==node2 && edge.getTarget()==node1)
-				list.add(edge);
+		for (int e = pairIndex.get(node1.getSUID(), node2.getSUID()); e!=LongIntHashMap.NONE; e = pairNext[e])
+			list.add(edgeList.get(e));
+		if (node1!=node2)
+			for (int e = pairIndex.get(node2.getSUID(), node1.getSUID()); e!=LongIntHashMap.NONE; e = pairNext[e])
+				list.add(edgeList.get(e));
 		return list;
 	}
 	
 	@Override
 	public boolean isNeighbor(CyNode node1, CyNode node2)
 	{
-		for (CyEdge edge : this.inEdges.get(node1))
-			if (edge.getSource()==node2 || edge.getTarget()==node2)
-				return true;
-		for (CyEdge edge : this.outEdges.get(node1))
-				if (edge.getSource()==node2 || edge.getTarget()==node2)
-					return true;
-		return false;
+		return getSlot(node1)!=LongIntHashMap.NONE && findEdge(node1, node2)!=null;
 	}
 	
 	@Override
@@ -272,13 +324,18 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	@Override
 	public List<CyNode> getNodes() 
 	{
-		return nodeList;
+		// Callers may sort the returned list, so they get a copy of the swap-remove list.
+		if (nodeListCopy==null)
+			nodeListCopy = new ArrayList<CyNode>(nodeList);
+		return nodeListCopy;
 	}
 
 	@Override
 	public List<CyEdge> getEdges() 
 	{
-		return edgeList;
+		if (edgeListCopy==null)
+			edgeListCopy = new ArrayList<CyEdge>(edgeList);
+		return edgeListCopy;
 	}
 	
 	@Override
@@ -290,7 +347,7 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 		{
 			if (edge!=null)
 			{
-					weightMap.put(edge, getWeight(edgeAttrIntervals.get(edge)));
+					weightMap.put(edge, getWeight(getEdgeAttrIntervals(edge)));
 			}
 		}
 		else
@@ -313,8 +370,9 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	@Override
 	public int inDegree(CyNode node)
 	{
-		if (this.inEdges.containsKey(node))
-			return this.inEdges.get(node).size();
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+			return inSize[slot];
 		else
 			return 0;
 	}
@@ -322,8 +380,9 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	@Override
 	public int outDegree(CyNode node)
 	{
-		if (this.outEdges.containsKey(node))
-			return this.outEdges.get(node).size();
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+			return outSize[slot];
 		else
 			return 0;
 	}
@@ -332,9 +391,10 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	public List<CyNode> getPredecessors(CyNode node)
 	{
 		ArrayList<CyNode> list = new ArrayList<CyNode>();
-		if (this.inEdges.containsKey(node))
-			for (CyEdge edge : this.inEdges.get(node))
-				list.add(edge.getSource());
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+			for (int i=0; i<inSize[slot]; i++)
+				list.add(edgeList.get(inAdjacency[slot][i]).getSource());
 		return list;
 	}
 	
@@ -342,52 +402,49 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 	public List<CyNode> getSuccessors(CyNode node)
 	{
 		ArrayList<CyNode> list = new ArrayList<CyNode>();
-		if (this.outEdges.containsKey(node))
-			for (CyEdge edge : this.outEdges.get(node))
-				list.add(edge.getTarget());
+		int slot = getSlot(node);
+		if (slot!=LongIntHashMap.NONE)
+			for (int i=0; i<outSize[slot]; i++)
+				list.add(edgeList.get(outAdjacency[slot][i]).getTarget());
 		return list;
 	}
 	
 	@Override
 	public boolean isPredecessor(CyNode node1, CyNode node2)
 	{
-		if (this.inEdges.containsKey(node2))
-			if (this.inEdges.get(node2).contains(node1))
-				return true; 
-		return false;
+		return getSlot(node2)!=LongIntHashMap.NONE && 
+				pairIndex.get(node1.getSUID(), node2.getSUID())!=LongIntHashMap.NONE;
 	}
 	
 	@Override
 	public boolean isSuccessor(CyNode node1, CyNode node2)
 	{
-		if (this.outEdges.containsKey(node1))
-			if (this.outEdges.get(node1).contains(node2))
-				return true; 
-		return false;
+		return getSlot(node1)!=LongIntHashMap.NONE && 
+				pairIndex.get(node1.getSUID(), node2.getSUID())!=LongIntHashMap.NONE;
 	}
 	
 	@Override
 	public int getPredecessorCount(CyNode node)
 	{
-		return getPredecessors(node).size();
+		return inDegree(node);
 	}
 	
 	@Override
 	public int getSuccessorCount(CyNode node)
 	{
-		return getSuccessors(node).size();
+		return outDegree(node);
 	}
 	
 	@Override
 	public boolean conatinsNode(CyNode node) 
 	{
-		return nodeList.contains(node);
+		return getSlot(node)!=LongIntHashMap.NONE;
 	}
 	
 	@Override
 	public boolean conatinsEdge(CyEdge edge) 
 	{
-		return edgeList.contains(edge);
+		return edgeIndex.get(edge.getSUID())!=LongIntHashMap.NONE;
 	}
 	
 	@Override
@@ -450,68 +507,170 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 		}
 	}
 
-	protected void addNode(CyNode node)
+	/**
+	 * Add node. A node with several overlapping intervals is added once, and 
+	 * removed when all its intervals are off.
+	 * @param node
+	 * @return true if the node was not in the snapshot
+	 */
+	protected boolean addNode(CyNode node)
 	{
 		if (node!=null)
 		{
-			this.nodeList.add(node);
-			nodeIntervals.put(node, new ArrayList<DynInterval<T>>());
-			
-			for (CyEdge edge : this.edgeList)
-				if (edge.getSource()==node)
-					addOutEdge(node, edge);
-				else if (edge.getTarget()==node)
-					addInEdge(node, edge);
-				
+			int slot = getOrCreateSlot(node);
+			if (slotCount[slot]++==0)
+			{
+				slotPosition[slot] = nodeList.size();
+				nodeList.add(node);
+				nodeListCopy = null;
+				nodeIntervals.put(node, new ArrayList<DynInterval<T>>());
+				return true;
+			}
 		}
+		return false;
 	}
 
-	protected void removeNode(CyNode node)
+	/**
+	 * Remove node.
+	 * @param node
+	 * @return true if the node was removed from the snapshot
+	 */
+	protected boolean removeNode(CyNode node)
 	{
 		if (node!=null)
 		{
-			this.inEdges.remove(node);
-			this.outEdges.remove(node);
-			this.nodeList.remove(node);
-			this.nodeIntervals.remove(node);
+			int slot = nodeIndex.get(node.getSUID());
+			if (slot!=LongIntHashMap.NONE && slotCount[slot]>0 && --slotCount[slot]==0)
+			{
+				int position = slotPosition[slot];
+				CyNode last = nodeList.remove(nodeList.size()-1);
+				if (last!=node)
+				{
+					nodeList.set(position, last);
+					slotPosition[nodeIndex.get(last.getSUID())] = position;
+				}
+				slotPosition[slot] = -1;
+				nodeListCopy = null;
+				nodeIntervals.remove(node);
+				return true;
+			}
 		}
+		return false;
 	}
 	
-	protected void addEdge(CyEdge edge)
+	/**
+	 * Add edge. An edge with several overlapping intervals is added once, and 
+	 * removed when all its intervals are off.
+	 * @param edge
+	 * @return true if the edge was not in the snapshot
+	 */
+	protected boolean addEdge(CyEdge edge)
 	{
 		if (edge!=null)
 		{
-			this.edgeList.add(edge);
-			edgeIntervals.put(edge, new ArrayList<DynInterval<T>>());
-			edgeAttrIntervals.put(edge, new ArrayList<DynInterval<T>>());
-			
-			for (CyNode node : this.nodeList)
+			int e = edgeIndex.get(edge.getSUID());
+			if (e!=LongIntHashMap.NONE)
 			{
-				if (edge.getSource()==node)
-					addOutEdge(node, edge);
-				if (edge.getTarget()==node)
-					addInEdge(node, edge);
+				edgeCount[e]++;
+				return false;
 			}
+			
+			e = edgeList.size();
+			if (e==edgeCount.length)
+				growEdges();
+			edgeList.add(edge);
+			edgeListCopy = null;
+			edgeIndex.put(edge.getSUID(), e);
+			edgeCount[e] = 1;
+			
+			int source = getOrCreateSlot(edge.getSource());
+			int target = getOrCreateSlot(edge.getTarget());
+			edgeSource[e] = source;
+			edgeTarget[e] = target;
+			edgeOutPosition[e] = outSize[source];
+			outAdjacency[source] = append(outAdjacency[source], outSize[source]++, e);
+			edgeInPosition[e] = inSize[target];
+			inAdjacency[target] = append(inAdjacency[target], inSize[target]++, e);
+			
+			long sourceId = edge.getSource().getSUID();
+			long targetId = edge.getTarget().getSUID();
+			int head = pairIndex.get(sourceId, targetId);
+			pairPrevious[e] = LongIntHashMap.NONE;
+			pairNext[e] = head;
+			if (head!=LongIntHashMap.NONE)
+				pairPrevious[head] = e;
+			pairIndex.put(sourceId, targetId, e);
+			
+			edgeIntervals.put(edge, new ArrayList<DynInterval<T>>());
+			return true;
 		}
+		return false;
 	}
 
-	protected void removeEdge(CyEdge edge)
+	/**
+	 * Remove edge.
+	 * @param edge
+	 * @return true if the edge was removed from the snapshot
+	 */
+	protected boolean removeEdge(CyEdge edge)
 	{
 		if (edge!=null)
 		{
-			for (CyNode node : this.inEdges.keySet())
-				this.inEdges.get(node).remove(edge);
-			for (CyNode node : this.outEdges.keySet())
-				this.outEdges.get(node).remove(edge);
-			this.edgeList.remove(edge);
-			this.edgeIntervals.remove(edge);
+			int e = edgeIndex.get(edge.getSUID());
+			if (e==LongIntHashMap.NONE || --edgeCount[e]>0)
+				return false;
+			
+			removeAdjacency(outAdjacency[edgeSource[e]], --outSize[edgeSource[e]], edgeOutPosition[e], edgeOutPosition);
+			removeAdjacency(inAdjacency[edgeTarget[e]], --inSize[edgeTarget[e]], edgeInPosition[e], edgeInPosition);
+			
+			long sourceId = edge.getSource().getSUID();
+			long targetId = edge.getTarget().getSUID();
+			if (pairPrevious[e]!=LongIntHashMap.NONE)
+				pairNext[pairPrevious[e]] = pairNext[e];
+			else if (pairNext[e]!=LongIntHashMap.NONE)
+				pairIndex.put(sourceId, targetId, pairNext[e]);
+			else
+				pairIndex.remove(sourceId, targetId);
+			if (pairNext[e]!=LongIntHashMap.NONE)
+				pairPrevious[pairNext[e]] = pairPrevious[e];
+			edgeIndex.remove(edge.getSUID());
+			
+			// Move the last edge to the free position.
+			int last = edgeList.size()-1;
+			CyEdge lastEdge = edgeList.remove(last);
+			if (e!=last)
+			{
+				edgeList.set(e, lastEdge);
+				edgeIndex.put(lastEdge.getSUID(), e);
+				edgeCount[e] = edgeCount[last];
+				edgeSource[e] = edgeSource[last];
+				edgeTarget[e] = edgeTarget[last];
+				edgeOutPosition[e] = edgeOutPosition[last];
+				edgeInPosition[e] = edgeInPosition[last];
+				pairPrevious[e] = pairPrevious[last];
+				pairNext[e] = pairNext[last];
+				outAdjacency[edgeSource[e]][edgeOutPosition[e]] = e;
+				inAdjacency[edgeTarget[e]][edgeInPosition[e]] = e;
+				if (pairPrevious[e]!=LongIntHashMap.NONE)
+					pairNext[pairPrevious[e]] = e;
+				else
+					pairIndex.put(lastEdge.getSource().getSUID(), lastEdge.getTarget().getSUID(), e);
+				if (pairNext[e]!=LongIntHashMap.NONE)
+					pairPrevious[pairNext[e]] = e;
+			}
+			edgeListCopy = null;
+			edgeIntervals.remove(edge);
+			return true;
 		}
+		return false;
 	}
 
 	protected void addEdgeAttr(CyEdge edge, DynInterval<T> i)
 	{
 		if (edge!=null)
 		{
+			if (!this.edgeAttrIntervals.containsKey(edge))
+				this.edgeAttrIntervals.put(edge, new ArrayList<DynInterval<T>>());
 			this.edgeAttrIntervals.get(edge).add(i);	
 		}
 	}
@@ -523,77 +682,102 @@ public class DynNetworkSnapshotImpl<T> implements DynNetworkSnapshot<T>
 			this.edgeAttrIntervals.get(edge).remove(i);
 		}
 	}
-
-	protected void addInEdge(CyNode node, CyEdge edge)
+	
+	private List<DynInterval<T>> getEdgeAttrIntervals(CyEdge edge)
 	{
-		if (this.inEdges.containsKey(node))
-		{
-			if(!this.inEdges.get(node).contains(edge))
-				this.inEdges.get(node).add(edge);
-		}
+		if (this.edgeAttrIntervals.containsKey(edge))
+			return this.edgeAttrIntervals.get(edge);
 		else
-		{
-			ArrayList<CyEdge> list = new ArrayList<CyEdge>();
-			list.add(edge);
-			this.inEdges.put(node, list);
-		}
+			return new ArrayList<DynInterval<T>>();
 	}
-
-	protected void addOutEdge(CyNode node, CyEdge edge)
+	
+	/**
+	 * Get the slot of a node in the snapshot.
+	 * @param node
+	 * @return slot, or {@link LongIntHashMap#NONE} if the node is not in the snapshot
+	 */
+	private int getSlot(CyNode node)
 	{
-		if (this.outEdges.containsKey(node))
-		{
-			if(!this.outEdges.get(node).contains(edge))
-				this.outEdges.get(node).add(edge);
-		}
-		else
+		int slot = nodeIndex.get(node.getSUID());
+		if (slot!=LongIntHashMap.NONE && slotCount[slot]>0)
+			return slot;
+		return LongIntHashMap.NONE;
+	}
+	
+	private int getOrCreateSlot(CyNode node)
+	{
+		int slot = nodeIndex.get(node.getSUID());
+		if (slot==LongIntHashMap.NONE)
 		{
-			ArrayList<CyEdge> list = new ArrayList<CyEdge>();
-			list.add(edge);
-			this.outEdges.put(node, list);
+			if (slots==slotCount.length)
+				growSlots();
+			slot = slots++;
+			slotNode[slot] = node;
+			slotPosition[slot] = -1;
+			inAdjacency[slot] = new int[2];
+			outAdjacency[slot] = new int[2];
+			nodeIndex.put(node.getSUID(), slot);
 		}
+		return slot;
+	}
+	
+	private int[] append(int[] array, int position, int value)
+	{
+		if (position==array.length)
+			array = Arrays.copyOf(array, 2*array.length);
+		array[position] = value;
+		return array;
+	}
+	
+	private void removeAdjacency(int[] array, int last, int position, int[] edgePosition)
+	{
+		array[position] = array[last];
+		edgePosition[array[position]] = position;
+	}
+	
+	private void growSlots()
+	{
+		int capacity = 2*slotCount.length;
+		slotNode = Arrays.copyOf(slotNode, capacity);
+		slotCount = Arrays.copyOf(slotCount, capacity);
+		slotPosition = Arrays.copyOf(slotPosition, capacity);
+		inAdjacency = Arrays.copyOf(inAdjacency, capacity);
+		outAdjacency = Arrays.copyOf(outAdjacency, capacity);
+		inSize = Arrays.copyOf(inSize, capacity);
+		outSize = Arrays.copyOf(outSize, capacity);
+	}
+	
+	private void growEdges()
+	{
+		int capacity = 2*edgeCount.length;
+		edgeCount = Arrays.copyOf(edgeCount, capacity);
+		edgeSource = Arrays.copyOf(edgeSource, capacity);
+		edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+		edgeInPosition = Arrays.copyOf(edgeInPosition, capacity);
+		edgeOutPosition = Arrays.copyOf(edgeOutPosition, capacity);
+		pairPrevious = Arrays.copyOf(pairPrevious, capacity);
+		pairNext = Arrays.copyOf(pairNext, capacity);
 	}
 	
 	private List<DynInterval<T>> getChangedNodeIntervals(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = network.searchNodes(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentNodes, tempList);
-		currentNodes = tempList;
-		return changedList;
+		if (nodeCursor==null)
+			nodeCursor = network.getNodeCursor();
+		return nodeCursor.advance(interval);
 	}
 	
 	private List<DynInterval<T>> getChangedEdgeIntervals(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = network.searchEdges(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentEdges, tempList);
-		currentEdges = tempList;
-		return changedList;
+		if (edgeCursor==null)
+			edgeCursor = network.getEdgeCursor();
+		return edgeCursor.advance(interval);
 	}
 	
 	private List<DynInterval<T>> getChangedEdgeAttrIntervals(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = network.searchEdgesAttr(interval,attName);
-		List<DynInterval<T>> changedList = nonOverlap(currentEdgesAttr, tempList);
-		currentEdgesAttr = tempList;
-		return changedList;
-	}
-
-	private List<DynInterval<T>> nonOverlap(List<DynInterval<T>> list1, List<DynInterval<T>> list2) 
-	{
-		List<DynInterval<T>> diff = new ArrayList<DynInterval<T>>();
-		for (DynInterval<T> i : list1)
-			if (!list2.contains(i))
-			{
-				diff.add(i);
-				i.setOn(false);
-			}
-		for (DynInterval<T> i : list2)
-			if (!list1.contains(i))
-			{
-				diff.add(i);
-				i.setOn(true);
-			}
-		return diff;
+		if (edgeAttrCursor==null)
+			edgeAttrCursor = network.getEdgeAttrCursor(attName);
+		return edgeAttrCursor.advance(interval);
 	}
 
 	private double getWeight(List<DynInterval<T>> list)
@@ -126,68 +126,54 @@ public class DynNetworkTreeSnapshotImpl<T> extends DynNetworkSnapshotImpl<T> imp
 	}
 	
 	@Override
-	protected void addNode(CyNode node)
+	protected boolean addNode(CyNode node)
 	{
-		if (node!=null)
+		if (super.addNode(node))
 		{
-			this.nodeList.add(node);
-			for (CyEdge edge : this.edgeList)
-				if (edge.getSource()==node)
-					addOutEdge(node, edge);
-				else if (edge.getTarget()==node)
-					addInEdge(node, edge);
 			this.addRoot(node);
+			return true;
 		}
+		return false;
 	}
 
 	@Override
-	protected void removeNode(CyNode node)
+	protected boolean removeNode(CyNode node)
 	{
-		if (node!=null)
+		if (super.removeNode(node))
 		{
-			this.inEdges.remove(node);
-			this.outEdges.remove(node);
-			this.nodeList.remove(node);
 			this.removeRoot(node);
+			return true;
 		}
+		return false;
 	}
 	
 	@Override
-	protected void addEdge(CyEdge edge)
+	protected boolean addEdge(CyEdge edge)
 	{
-		if (edge!=null)
+		if (super.addEdge(edge))
 		{
-			this.edgeList.add(edge);
-			for (CyNode node : this.nodeList)
-			{
-				if (edge.getSource()==node)
-					addOutEdge(node, edge);
-				if (edge.getTarget()==node)
-					addInEdge(node, edge);
-			}
 			this.removeRoot(edge.getTarget());
 			this.addRoot(edge.getSource());
+			return true;
 		}
+		return false;
 	}
 
 	@Override
-	protected void removeEdge(CyEdge edge)
+	protected boolean removeEdge(CyEdge edge)
 	{
-		if (edge!=null)
+		if (super.removeEdge(edge))
 		{
-			for (CyNode node : this.inEdges.keySet())
-				this.inEdges.get(node).remove(edge);
-			for (CyNode node : this.outEdges.keySet())
-				this.outEdges.get(node).remove(edge);
-			this.edgeList.remove(edge);
 			this.addRoot(edge.getSource());
 			this.addRoot(edge.getTarget());
+			return true;
 		}
+		return false;
 	}
 	
 	private void addRoot(CyNode node)
 	{
-		if (!this.roots.contains(node) && (!this.inEdges.containsKey(node) || this.inEdges.get(node).size()==0))
+		if (!this.roots.contains(node) && this.inDegree(node)==0)
 		{
 			this.roots.add(node);
 			for (CyNode child : this.getChildren(node))
@@ -219,7 +205,7 @@ public class DynNetworkTreeSnapshotImpl<T> extends DynNetworkSnapshotImpl<T> imp
 	private void printDown(CyNode node)
 	{
 		System.out.println("\nLABEL:" + network.getNodeLabel(node) +
-				" all-edges:" + this.edgeList.size() +
+				" all-edges:" + this.getEdgeCount() +
 				" in-edges:" + this.inDegree(node) +
 				" out-edges:" + this.outDegree(node));
 		for (CyNode child : this.getChildren(node))
@@ -0,0 +1,206 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.snapshot;
+
+/**
+ * <code> LongIntHashMap </code> is an open addressing hash map from a pair of long
+ * keys to a non-negative int value, without boxing. Single keys, such as SUIDs, are
+ * stored with a second key of zero. Removal uses backward shifting, so that no
+ * deleted markers are left in the table.
+ *
+ * @author Sabina Sara Pfister
+ */
+public final class LongIntHashMap
+{
+	/**
+	 * Value returned for missing keys.
+	 */
+	public static final int NONE = -1;
+
+	private long[] keys1;
+	private long[] keys2;
+	private int[] values;
+	private boolean[] isUsed;
+	private int size;
+	private int mask;
+
+	/**
+	 * <code> LongIntHashMap </code> constructor.
+	 */
+	public LongIntHashMap()
+	{
+		allocate(16);
+	}
+
+	/**
+	 * Get the value for the given key.
+	 * @param key
+	 * @return value, or {@link #NONE} if the key is missing
+	 */
+	public int get(long key)
+	{
+		return get(key, 0);
+	}
+
+	/**
+	 * Get the value for the given pair of keys.
+	 * @param key1
+	 * @param key2
+	 * @return value, or {@link #NONE} if the key is missing
+	 */
+	public int get(long key1, long key2)
+	{
+		for (int i = hash(key1, key2); isUsed[i]; i = (i+1) & mask)
+			if (keys1[i]==key1 && keys2[i]==key2)
+				return values[i];
+		return NONE;
+	}
+
+	/**
+	 * Put the value for the given key.
+	 * @param key
+	 * @param value
+	 */
+	public void put(long key, int value)
+	{
+		put(key, 0, value);
+	}
+
+	/**
+	 * Put the value for the given pair of keys.
+	 * @param key1
+	 * @param key2
+	 * @param value
+	 */
+	public void put(long key1, long key2, int value)
+	{
+		int i = hash(key1, key2);
+		for (; isUsed[i]; i = (i+1) & mask)
+			if (keys1[i]==key1 && keys2[i]==key2)
+			{
+				values[i] = value;
+				return;
+			}
+		isUsed[i] = true;
+		keys1[i] = key1;
+		keys2[i] = key2;
+		values[i] = value;
+		if (++size > (values.length>>1))
+			rehash(values.length<<1);
+	}
+
+	/**
+	 * Remove the given key.
+	 * @param key
+	 * @return removed value, or {@link #NONE} if the key is missing
+	 */
+	public int remove(long key)
+	{
+		return remove(key, 0);
+	}
+
+	/**
+	 * Remove the given pair of keys.
+	 * @param key1
+	 * @param key2
+	 * @return removed value, or {@link #NONE} if the key is missing
+	 */
+	public int remove(long key1, long key2)
+	{
+		int i = hash(key1, key2);
+		for (; isUsed[i]; i = (i+1) & mask)
+			if (keys1[i]==key1 && keys2[i]==key2)
+			{
+				int value = values[i];
+				shift(i);
+				size--;
+				return value;
+			}
+		return NONE;
+	}
+
+	/**
+	 * Get the number of keys.
+	 * @return size
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Remove all keys.
+	 */
+	public void clear()
+	{
+		allocate(16);
+	}
+
+	private void shift(int i)
+	{
+		int j = i;
+		while (true)
+		{
+			j = (j+1) & mask;
+			if (!isUsed[j])
+				break;
+			int k = hash(keys1[j], keys2[j]);
+			// move the entry at j back to i unless its home slot lies cyclically in (i,j]
+			if ((i<=j) ? (i<k && k<=j) : (i<k || k<=j))
+				continue;
+			keys1[i] = keys1[j];
+			keys2[i] = keys2[j];
+			values[i] = values[j];
+			i = j;
+		}
+		isUsed[i] = false;
+	}
+
+	private void rehash(int capacity)
+	{
+		long[] oldKeys1 = keys1;
+		long[] oldKeys2 = keys2;
+		int[] oldValues = values;
+		boolean[] oldIsUsed = isUsed;
+		allocate(capacity);
+		for (int i=0; i<oldValues.length; i++)
+			if (oldIsUsed[i])
+				put(oldKeys1[i], oldKeys2[i], oldValues[i]);
+	}
+
+	private void allocate(int capacity)
+	{
+		this.keys1 = new long[capacity];
+		this.keys2 = new long[capacity];
+		this.values = new int[capacity];
+		this.isUsed = new boolean[capacity];
+		this.mask = capacity-1;
+		this.size = 0;
+	}
+
+	private int hash(long key1, long key2)
+	{
+		long h = key1 * 0x9E3779B97F4A7C15L + key2 * 0xC2B2AE3D27D4EB4FL;
+		h ^= (h >>> 32);
+		h ^= (h >>> 16);
+		return (int) h & mask;
+	}
+
+}
@@ -21,12 +21,16 @@ package org.cytoscape.dyn.internal.model.tree;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * <code> AbstractDynIntervalTree </code> abstract class for the implementation of a 
  * the interval tree.
+ * Each interval is mapped to the node that contains it, so that intervals are
+ * removed in O(log n) without searching the tree, even if their start or end
+ * time were changed after they were inserted.
  *  
  * @author Sabina Sara Pfister
  *
@@ -38,7 +42,10 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 	protected final DynNode<T> nil;
 	
 	protected final Map<Long,List<DynInterval<T>>> intervalMap;
+	protected final Map<DynInterval<T>,DynNode<T>> nodeMap;
+	protected final DynEventIndex<T> events;
 	protected List<DynInterval<T>> currentIntervals;
+	protected DynIntervalCounter<T> counter;
 	
 	/**
 	 * <code> AbstractDynIntervalTree </code> constructor.
@@ -49,6 +56,8 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 		this.root = new DynNode<T>();
 		
 		this.intervalMap = new HashMap<Long,List<DynInterval<T>>>();
+		this.nodeMap = new IdentityHashMap<DynInterval<T>,DynNode<T>>();
+		this.events = new DynEventIndex<T>();
 		this.currentIntervals = new ArrayList<DynInterval<T>>();
 	}
 	
@@ -71,6 +80,8 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 	{
 		this(new DynNode<T>(interval, new DynNode<T>()));
 		addInterval(id, interval);
+		nodeMap.put(interval, root.getLeft());
+		events.add(interval);
 	}
 
 	@Override
@@ -82,27 +93,46 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 	@Override
 	public void insert(DynInterval<T> interval, long id)
 	{	
-		insert(new DynNode<T>(interval, nil), root.getLeft());
+		nodeMap.put(interval, insert(new DynNode<T>(interval, nil), root.getLeft()));
 		addInterval(id, interval);
+		events.add(interval);
+		counter = null;
 	}
 	
-	abstract protected void insert(DynNode<T> z, DynNode<T> root);
+	@Override
+	public void insert(DynInterval<T>[] intervals, long[] ids, int size)
+	{
+		for (int k=0; k<size; k++)
+			insert(intervals[k], ids[k]);
+	}
+	
+	/**
+	 * Insert node z below root.
+	 * @param z
+	 * @param root
+	 * @return the node that contains the interval of z
+	 */
+	abstract protected DynNode<T> insert(DynNode<T> z, DynNode<T> root);
 	
 	@Override
 	public void remove(DynInterval<T> interval, long id)
 	{
-		DynNode<T> z = searchThisNode(interval);
+		DynNode<T> z = nodeMap.remove(interval);
 		if (z!=null)
+		{
 			if (z.getIntervalList().size()>1)
 				z.removeInterval(interval);
 			else
-				remove(z);	
+				remove(z);
+			events.invalidate();
+			counter = null;
+		}
 		removeInterval(id, interval);
 	}
 	
 	protected DynNode<T> searchThisNode(DynInterval<T> interval)
 	{
-		return root.getLeft().searchThisNode(interval);
+		return nodeMap.get(interval);
 	}
 	
 	abstract protected void remove(DynNode<T> z);
@@ -125,6 +155,38 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 		return root.getLeft().search(new ArrayList<DynInterval<T>>(), interval);
 	}
 
+	@Override
+	public void getIntervals(DynIntervalVisitor<T> visitor)
+	{
+		root.getLeft().getIntervals(visitor);
+	}
+	
+	@Override
+	public void searchNot(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		root.getLeft().searchNot(visitor, interval);
+	}
+	
+	@Override
+	public void search(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		root.getLeft().search(visitor, interval);
+	}
+
+	@Override
+	public void search(double time, DynIntervalVisitor<T> visitor)
+	{
+		root.getLeft().search(visitor, time);
+	}
+
+	@Override
+	public DynIntervalCounter<T> getCounter()
+	{
+		if (counter==null)
+			counter = new DynIntervalCounter<T>(getIntervals());
+		return counter;
+	}
+
 	protected List<DynNode<T>> searchNodes(DynInterval<T> interval)
 	{
 		return root.getLeft().searchNodes(interval, new ArrayList<DynNode<T>>());
@@ -137,6 +199,9 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 		this.nil.setLeft(this.nil);
 		this.nil.setRight(this.nil);
 		this.root.setLeft(this.nil);
+		this.nodeMap.clear();
+		this.events.build(new ArrayList<DynInterval<T>>());
+		this.counter = null;
 	}
 	
 	@Override
@@ -149,34 +214,25 @@ public abstract class AbstractDynIntervalTree<T> implements DynIntervalTree<T>
 	}
 	
 	@Override
-	public List<Double> getEventTimeList()
+	public double[] getEventTimes()
 	{
-		List<Double> timeList = new ArrayList<Double>();
-		for (DynInterval<T> interval : this.getIntervals())
-		{
-			if (interval.getStart()!=Double.NEGATIVE_INFINITY && !timeList.contains(interval.getStart()))
-				timeList.add(interval.getStart());
-			if (interval.getEnd()!=Double.POSITIVE_INFINITY && !timeList.contains(interval.getEnd()))
-				timeList.add(interval.getEnd());
-		}
-		return timeList;
+		if (!events.isValid())
+			events.build(getIntervals());
+		return events.getEventTimes();
 	}
 	
 	@Override
-	public List<Double> getEventTimeList(String attName)
+	public double[] getEventTimes(String attName)
 	{
-		List<Double> timeList = new ArrayList<Double>();
-		for (DynInterval<T> interval : this.getIntervals())
+		if (!events.isValid())
+			events.build(getIntervals());
+		double[] times = events.getEventTimes(attName);
+		if (times==null)
 		{
-			if (interval.getAttribute().getColumn().equals(attName))
-			{
-				if (interval.getStart()!=Double.NEGATIVE_INFINITY && !timeList.contains(interval.getStart()))
-					timeList.add(interval.getStart());
-				if (interval.getEnd()!=Double.POSITIVE_INFINITY && !timeList.contains(interval.getEnd()))
-					timeList.add(interval.getEnd());
-			}
+			events.addColumn(attName, getIntervals());
+			times = events.getEventTimes(attName);
 		}
-		return timeList;
+		return times;
 	}
 
 	protected void addInterval(long id, DynInterval<T> interval)
@@ -97,6 +97,28 @@ public abstract class AbstractIntervalCheck<T>
 		return interval;
 	}
 	
+	// Checking for a batch of real valued attributes, clipped to the graph time range
+	@SuppressWarnings("unchecked")
+	protected DynInterval<T>[] getIntervalsAttr(DynNetwork<T> dynNetwork, String label, double[] values, double[] starts, double[] ends, int size)
+	{
+		DynAttribute<T> parentAttr = dynNetwork.getDynAttribute(dynNetwork.getNetwork(), CyNetwork.NAME);
+		double minTime = parentAttr.getMinTime();
+		double maxTime = parentAttr.getMaxTime();
+		DynInterval<T>[] intervals = new DynInterval[size];
+		for (int k=0; k<size; k++)
+		{
+			double start = max(minTime, starts[k]);
+			double end = min(maxTime, ends[k]);
+			if (start>end)
+			{
+				System.out.println("\nXGMML Parser Error: skipped invalid interval for graph attr=" + label +" start=" + starts[k] + " end=" + ends[k]);
+				throw new IndexOutOfBoundsException("Invalid interval for graph attr=" + label +" start=" + starts[k] + " end=" + ends[k]);
+			}
+			intervals[k] = (DynInterval<T>) new DynIntervalDouble(values[k], start, end);
+		}
+		return intervals;
+	}
+	
 	// Checking for node attributes
 	protected DynInterval<T> getIntervalAttr(DynNetwork<T> dynNetwork, CyNode node, String label, T value, String start, String end)
 	{
@@ -0,0 +1,223 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <code> DynEventIndex </code> maintains the sorted list of unique event times of a set
+ * of time intervals, i.e. the finite start and end times, for all intervals and for the
+ * intervals of single attribute columns. New times are appended to a buffer when the
+ * intervals are inserted, and are sorted and merged into the sorted array only when the
+ * event times are requested, so that building the index costs O(n log n) and later
+ * insertions O(k log k + n) for k new times. Once intervals are removed, the index is
+ * invalid and must be built again from all intervals.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynEventIndex<T>
+{
+	private final Times times;
+	private final Map<String,Times> columnTimes;
+	private boolean isValid;
+
+	/**
+	 * <code> DynEventIndex </code> constructor.
+	 */
+	public DynEventIndex()
+	{
+		this.times = new Times();
+		this.columnTimes = new HashMap<String,Times>();
+		this.isValid = true;
+	}
+
+	/**
+	 * Add the event times of the interval.
+	 * @param interval
+	 */
+	public synchronized void add(DynInterval<T> interval)
+	{
+		if (!isValid)
+			return;
+		times.add(interval);
+		if (!columnTimes.isEmpty() && interval.getAttribute()!=null)
+		{
+			Times t = columnTimes.get(interval.getAttribute().getColumn());
+			if (t!=null)
+				t.add(interval);
+		}
+	}
+
+	/**
+	 * Mark the index as invalid, for instance because intervals were removed.
+	 */
+	public synchronized void invalidate()
+	{
+		isValid = false;
+		times.clear();
+		columnTimes.clear();
+	}
+
+	/**
+	 * Check if the index must be built again.
+	 * @return true if the index is valid
+	 */
+	public synchronized boolean isValid()
+	{
+		return isValid;
+	}
+
+	/**
+	 * Build the index again from all intervals.
+	 * @param intervals
+	 */
+	public synchronized void build(List<DynInterval<T>> intervals)
+	{
+		times.clear();
+		columnTimes.clear();
+		for (DynInterval<T> interval : intervals)
+			times.add(interval);
+		isValid = true;
+	}
+
+	/**
+	 * Get the sorted unique event times.
+	 * @return event times
+	 */
+	public synchronized double[] getEventTimes()
+	{
+		return times.get();
+	}
+
+	/**
+	 * Get the sorted unique event times of the intervals of the given attribute column.
+	 * @param column
+	 * @return event times, or null if the column is not indexed
+	 */
+	public synchronized double[] getEventTimes(String column)
+	{
+		Times t = columnTimes.get(column);
+		if (t==null)
+			return null;
+		return t.get();
+	}
+
+	/**
+	 * Index the event times of an attribute column.
+	 * @param column
+	 * @param intervals all intervals
+	 */
+	public synchronized void addColumn(String column, List<DynInterval<T>> intervals)
+	{
+		Times t = new Times();
+		for (DynInterval<T> interval : intervals)
+			if (interval.getAttribute()!=null && interval.getAttribute().getColumn().equals(column))
+				t.add(interval);
+		columnTimes.put(column, t);
+	}
+
+	/**
+	 * Get the union of two sorted arrays of unique times.
+	 * @param a
+	 * @param b
+	 * @return sorted unique times
+	 */
+	public static double[] merge(double[] a, double[] b)
+	{
+		double[] c = new double[a.length+b.length];
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		while (i<a.length || j<b.length)
+		{
+			double t;
+			if (j==b.length || (i<a.length && a[i]<=b[j]))
+				t = a[i++];
+			else
+				t = b[j++];
+			if (n==0 || c[n-1]!=t)
+				c[n++] = t;
+		}
+		return n==c.length ? c : Arrays.copyOf(c, n);
+	}
+
+	/**
+	 * Convert the times to a list.
+	 * @param times
+	 * @return list of times
+	 */
+	public static List<Double> toList(double[] times)
+	{
+		List<Double> list = new ArrayList<Double>(times.length);
+		for (double t : times)
+			list.add(t);
+		return list;
+	}
+
+	private static final class Times
+	{
+		private double[] sorted = new double[0];
+		private double[] pending = new double[16];
+		private int pendingSize;
+
+		private void add(DynInterval<?> interval)
+		{
+			add(interval.getStart());
+			add(interval.getEnd());
+		}
+
+		private void add(double time)
+		{
+			if (Double.isInfinite(time) || Double.isNaN(time))
+				return;
+			if (pendingSize==pending.length)
+				pending = Arrays.copyOf(pending, 2*pending.length);
+			pending[pendingSize++] = time;
+		}
+
+		private double[] get()
+		{
+			if (pendingSize>0)
+			{
+				Arrays.sort(pending, 0, pendingSize);
+				int n = 0;
+				for (int k=0; k<pendingSize; k++)
+					if (n==0 || pending[n-1]!=pending[k])
+						pending[n++] = pending[k];
+				sorted = merge(sorted, Arrays.copyOf(pending, n));
+				pendingSize = 0;
+			}
+			return sorted.clone();
+		}
+
+		private void clear()
+		{
+			sorted = new double[0];
+			pendingSize = 0;
+		}
+	}
+
+}
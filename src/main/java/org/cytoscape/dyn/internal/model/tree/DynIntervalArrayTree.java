@@ -0,0 +1,608 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <code> DynIntervalArrayTree </code> implements a static interval tree for networks
+ * that are loaded once and then only queried. Intervals are appended to a buffer while
+ * the network is created, and on the first query they are sorted once by (start, end)
+ * into primitive arrays. The tree has an implicit layout: the root of the range [lo,hi)
+ * is the element in the middle, and each element stores the maximum end time of its
+ * range, so that searches prune exactly as in {@link DynNode}. No node objects are
+ * allocated, and the order of the returned intervals is the same as the in-order
+ * traversal of {@link DynIntervalTreeImpl}.
+ * <br>
+ * Intervals inserted after the tree has been built, one at a time or in batches, are
+ * appended to the buffer, and removed intervals are only marked. The implicit tree is
+ * built again on the next query, starting from the order of the previous build, so that
+ * the merge sorts only have to place the intervals that were added since then.
+ * <br>
+ * Searches at a single time, as done by the time slider, are answered by a 
+ * {@link DynIntervalStabbingIndex} that is built on the first such search, and
+ * return the intervals in the same order. Queries that only need the
+ * number of intervals on at a time use a {@link DynIntervalCounter} instead.
+ * <br>
+ * If the tree is created off-heap, the sorted arrays are kept in a {@link DynIntervalStore}
+ * in direct buffers, or in a memory-mapped scratch file if {@link DynIntervalStore#SCRATCH_DIR}
+ * is set. The buffer of interval references and row ids, and
+ * the intervals themselves, remain on the heap.
+ * <br>
+ * The sorted arrays of a built tree are never changed: inserting or removing intervals
+ * builds new ones on the next query, so that searches read a consistent snapshot of the tree 
+ * while batches of intervals are written.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalArrayTree<T> implements DynIntervalTree<T>
+{
+	private static final int INITIAL_CAPACITY = 16;
+
+	private DynInterval<T>[] intervals;
+	private long[] ids;
+	private int size;
+
+	private final boolean isOffHeap;
+
+	private final BitSet removed;
+
+	private Snapshot<T> snapshot;
+	private DynIntervalCounter<T> counter;
+
+	// the last built snapshot, kept to find the slots of removed intervals and
+	// to sort the next build from its order
+	private Snapshot<T> last;
+
+	private DynEventIndex<T> events;
+
+	/**
+	 * <code> DynIntervalArrayTree </code> constructor.
+	 */
+	public DynIntervalArrayTree()
+	{
+		this(false);
+	}
+
+	/**
+	 * <code> DynIntervalArrayTree </code> constructor.
+	 * @param isOffHeap true to keep the sorted arrays in a {@link DynIntervalStore}
+	 */
+	public DynIntervalArrayTree(boolean isOffHeap)
+	{
+		this.isOffHeap = isOffHeap;
+		this.removed = new BitSet();
+		clear();
+	}
+
+	@Override
+	public DynNode<T> getRoot()
+	{
+		return null;
+	}
+
+	@Override
+	public synchronized void insert(DynInterval<T> interval, long id)
+	{
+		if (size==intervals.length)
+			grow();
+		intervals[size] = interval;
+		ids[size] = id;
+		size++;
+		events.add(interval);
+		release();
+	}
+
+	@Override
+	public synchronized void insert(DynInterval<T>[] intervals, long[] ids, int size)
+	{
+		// the batch is appended to the buffer and sorted into the implicit
+		// tree once, the next time the tree is searched
+		while (this.size+size>this.intervals.length)
+			grow();
+		System.arraycopy(intervals, 0, this.intervals, this.size, size);
+		System.arraycopy(ids, 0, this.ids, this.size, size);
+		this.size += size;
+		for (int k=0; k<size; k++)
+			events.add(intervals[k]);
+		release();
+	}
+
+	@Override
+	public synchronized void remove(DynInterval<T> interval, long id)
+	{
+		int slot = indexOf(interval, id);
+		if (slot>=0)
+		{
+			removed.set(slot);
+			events.invalidate();
+			release();
+		}
+	}
+
+	@Override
+	public List<DynInterval<T>> getIntervals()
+	{
+		Snapshot<T> snapshot = build();
+		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>(snapshot.size);
+		for (int k=0; k<snapshot.size; k++)
+			list.add(snapshot.intervals[snapshot.getSlot(k)]);
+		return list;
+	}
+
+	@Override
+	public void getIntervals(DynIntervalVisitor<T> visitor)
+	{
+		Snapshot<T> snapshot = build();
+		for (int k=0; k<snapshot.size; k++)
+			visitor.visit(snapshot.intervals[snapshot.getSlot(k)]);
+	}
+
+	@Override
+	public List<DynInterval<T>> getIntervals(long id)
+	{
+		Snapshot<T> snapshot = build();
+		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>();
+		for (int k=snapshot.indexOf(id); k<snapshot.size && snapshot.getId(k)==id; k++)
+			list.add(snapshot.intervals[snapshot.getIdSlot(k)]);
+		return list;
+	}
+
+	@Override
+	public synchronized double[] getEventTimes()
+	{
+		if (!events.isValid())
+			events.build(getIntervals());
+		return events.getEventTimes();
+	}
+
+	@Override
+	public synchronized double[] getEventTimes(String attName)
+	{
+		if (!events.isValid())
+			events.build(getIntervals());
+		double[] times = events.getEventTimes(attName);
+		if (times==null)
+		{
+			events.addColumn(attName, getIntervals());
+			times = events.getEventTimes(attName);
+		}
+		return times;
+	}
+
+	@Override
+	public List<DynInterval<T>> search(DynInterval<T> interval)
+	{
+		DynIntervalBuffer<T> buffer = new DynIntervalBuffer<T>();
+		search(interval, buffer);
+		return buffer.getIntervals();
+	}
+
+	@Override
+	public void search(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		Snapshot<T> snapshot = build();
+		if (interval.getStart()==interval.getEnd() && snapshot.store==null)
+			snapshot.getStabbingIndex().search(interval.getStart(), visitor);
+		else
+			snapshot.search(visitor, interval, 0, snapshot.size);
+	}
+
+	@Override
+	public void search(double time, DynIntervalVisitor<T> visitor)
+	{
+		Snapshot<T> snapshot = build();
+		if (snapshot.store!=null)
+			snapshot.search(time, visitor, 0, snapshot.size);
+		else
+			snapshot.getStabbingIndex().search(time, visitor);
+	}
+
+	@Override
+	public synchronized DynIntervalCounter<T> getCounter()
+	{
+		if (counter==null)
+		{
+			// built from the snapshot, which no longer holds removed intervals
+			Snapshot<T> snapshot = build();
+			counter = new DynIntervalCounter<T>(snapshot.intervals, snapshot.size);
+		}
+		return counter;
+	}
+
+	@Override
+	public List<DynInterval<T>> searchNot(DynInterval<T> interval)
+	{
+		DynIntervalBuffer<T> buffer = new DynIntervalBuffer<T>();
+		searchNot(interval, buffer);
+		return buffer.getIntervals();
+	}
+
+	@Override
+	public void searchNot(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		Snapshot<T> snapshot = build();
+		for (int k=0; k<snapshot.size; k++)
+			if (snapshot.intervals[snapshot.getSlot(k)].compareTo(interval)<0)
+				visitor.visit(snapshot.intervals[snapshot.getSlot(k)]);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public synchronized void clear()
+	{
+		this.intervals = new DynInterval[INITIAL_CAPACITY];
+		this.ids = new long[INITIAL_CAPACITY];
+		this.size = 0;
+		this.removed.clear();
+		this.last = null;
+		this.events = new DynEventIndex<T>();
+		release();
+	}
+
+	@Override
+	public void print()
+	{
+		Snapshot<T> snapshot = build();
+		StringBuilder string = new StringBuilder();
+		for (int k=0; k<snapshot.size; k++)
+			string.append("\n node  ").append(snapshot.getStart(k)).append(" ").append(snapshot.getEnd(k)).append(" ").append(snapshot.getMax(k)).append(" >");
+		System.out.println(string.toString());
+	}
+
+	/**
+	 * Sort the buffered intervals into the implicit tree if not done yet.
+	 * @return snapshot of the built tree
+	 */
+	private synchronized Snapshot<T> build()
+	{
+		if (snapshot!=null)
+			return snapshot;
+
+		int[] slots = compact();
+
+		// start from the order of the last build, the intervals appended since
+		// then follow in insertion order and are merged in by the stable sorts
+		int[] index = new int[size];
+		int[] idIndex = new int[size];
+		int n = 0;
+		int m = 0;
+		if (last!=null)
+			for (int k=0; k<last.size; k++)
+			{
+				int slot = slots==null ? last.getSlot(k) : slots[last.getSlot(k)];
+				if (slot>=0)
+					index[n++] = slot;
+				int idSlot = slots==null ? last.getIdSlot(k) : slots[last.getIdSlot(k)];
+				if (idSlot>=0)
+					idIndex[m++] = idSlot;
+			}
+		for (int k=n; k<size; k++)
+		{
+			index[k] = k;
+			idIndex[k] = k;
+		}
+		sortByTime(index, new int[size], 0, size);
+		sortById(idIndex, new int[size], 0, size);
+
+		if (isOffHeap)
+		{
+			DynIntervalStore store = new DynIntervalStore(size);
+			for (int k=0; k<size; k++)
+			{
+				store.setInterval(k, intervals[index[k]].getStart(), intervals[index[k]].getEnd(), index[k]);
+				store.setId(k, ids[idIndex[k]], idIndex[k]);
+			}
+			snapshot = new Snapshot<T>(intervals, size, store);
+		}
+		else
+		{
+			double[] start = new double[size];
+			double[] end = new double[size];
+			for (int k=0; k<size; k++)
+			{
+				start[k] = intervals[index[k]].getStart();
+				end[k] = intervals[index[k]].getEnd();
+			}
+
+			long[] sortedIds = new long[size];
+			for (int k=0; k<size; k++)
+				sortedIds[k] = ids[idIndex[k]];
+			snapshot = new Snapshot<T>(intervals, size, index, start, end, idIndex, sortedIds);
+		}
+		snapshot.setMax(0, size);
+		return last = snapshot;
+	}
+
+	/**
+	 * Move the intervals that were not removed to new buffers. The old buffers are
+	 * not changed, since snapshots may still read them.
+	 * @return new slot of each old slot, -1 if removed, or null if nothing was removed
+	 */
+	@SuppressWarnings("unchecked")
+	private int[] compact()
+	{
+		if (removed.isEmpty())
+			return null;
+		int[] slots = new int[size];
+		DynInterval<T>[] newIntervals = new DynInterval[intervals.length];
+		long[] newIds = new long[ids.length];
+		int n = 0;
+		for (int k=0; k<size; k++)
+			if (removed.get(k))
+				slots[k] = -1;
+			else
+			{
+				slots[k] = n;
+				newIntervals[n] = intervals[k];
+				newIds[n] = ids[k];
+				n++;
+			}
+		this.intervals = newIntervals;
+		this.ids = newIds;
+		this.size = n;
+		removed.clear();
+		return slots;
+	}
+
+	/**
+	 * Find the buffer slot of an interval that is not removed yet.
+	 * @param interval
+	 * @param id
+	 * @return slot, or -1 if the interval is not in the tree
+	 */
+	private int indexOf(DynInterval<T> interval, long id)
+	{
+		int from = 0;
+		if (last!=null)
+		{
+			// the slots of the last build are still valid, since the buffer is only
+			// compacted when the tree is built
+			for (int k=last.indexOf(id); k<last.size && last.getId(k)==id; k++)
+			{
+				int slot = last.getIdSlot(k);
+				if (intervals[slot]==interval && !removed.get(slot))
+					return slot;
+			}
+			from = last.size;
+		}
+		for (int k=from; k<size; k++)
+			if (intervals[k]==interval && ids[k]==id && !removed.get(k))
+				return k;
+		return -1;
+	}
+
+	// the snapshot is only dropped, searches that still hold it can finish with it
+	private void release()
+	{
+		this.snapshot = null;
+		this.counter = null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void grow()
+	{
+		DynInterval<T>[] newIntervals = new DynInterval[2*intervals.length];
+		System.arraycopy(intervals, 0, newIntervals, 0, size);
+		long[] newIds = new long[2*ids.length];
+		System.arraycopy(ids, 0, newIds, 0, size);
+		this.intervals = newIntervals;
+		this.ids = newIds;
+	}
+
+	private boolean lessByTime(int a, int b)
+	{
+		double sa = intervals[a].getStart();
+		double sb = intervals[b].getStart();
+		return sa<sb || (sa==sb && intervals[a].getEnd()<intervals[b].getEnd());
+	}
+
+	// Stable merge sorts, so that identical intervals keep their insertion order.
+	private void sortByTime(int[] a, int[] tmp, int lo, int hi)
+	{
+		if (hi-lo<2)
+			return;
+		int mid = (lo+hi)>>>1;
+		sortByTime(a, tmp, lo, mid);
+		sortByTime(a, tmp, mid, hi);
+		if (!lessByTime(a[mid], a[mid-1]))
+			return;
+		System.arraycopy(a, lo, tmp, lo, hi-lo);
+		for (int i=lo, j=mid, k=lo; k<hi; k++)
+			if (j>=hi || (i<mid && !lessByTime(tmp[j], tmp[i])))
+				a[k] = tmp[i++];
+			else
+				a[k] = tmp[j++];
+	}
+
+	private void sortById(int[] a, int[] tmp, int lo, int hi)
+	{
+		if (hi-lo<2)
+			return;
+		int mid = (lo+hi)>>>1;
+		sortById(a, tmp, lo, mid);
+		sortById(a, tmp, mid, hi);
+		if (ids[a[mid-1]]<=ids[a[mid]])
+			return;
+		System.arraycopy(a, lo, tmp, lo, hi-lo);
+		for (int i=lo, j=mid, k=lo; k<hi; k++)
+			if (j>=hi || (i<mid && ids[tmp[i]]<=ids[tmp[j]]))
+				a[k] = tmp[i++];
+			else
+				a[k] = tmp[j++];
+	}
+
+	/**
+	 * The implicit tree of a built <code> DynIntervalArrayTree </code>. The buffer positions 
+	 * below size are never written again, so the buffer can be shared with the tree while 
+	 * further intervals are appended.
+	 *
+	 * @param <T>
+	 */
+	private static final class Snapshot<T>
+	{
+		private final DynInterval<T>[] intervals;
+		private final int size;
+
+		private final int[] index;
+		private final double[] start;
+		private final double[] end;
+		private final double[] max;
+
+		private final int[] idIndex;
+		private final long[] sortedIds;
+
+		private final DynIntervalStore store;
+
+		private DynIntervalStabbingIndex<T> stabbingIndex;
+
+		private Snapshot(DynInterval<T>[] intervals, int size, DynIntervalStore store)
+		{
+			this(intervals, size, null, null, null, null, null, store);
+		}
+
+		private Snapshot(DynInterval<T>[] intervals, int size, int[] index, double[] start, double[] end, 
+				int[] idIndex, long[] sortedIds)
+		{
+			this(intervals, size, index, start, end, idIndex, sortedIds, null);
+		}
+
+		private Snapshot(DynInterval<T>[] intervals, int size, int[] index, double[] start, double[] end, 
+				int[] idIndex, long[] sortedIds, DynIntervalStore store)
+		{
+			this.intervals = intervals;
+			this.size = size;
+			this.index = index;
+			this.start = start;
+			this.end = end;
+			this.max = store==null ? new double[size] : null;
+			this.idIndex = idIndex;
+			this.sortedIds = sortedIds;
+			this.store = store;
+		}
+
+		private void search(DynIntervalVisitor<T> visitor, DynInterval<T> interval, int lo, int hi)
+		{
+			if (lo<hi)
+			{
+				int mid = (lo+hi)>>>1;
+				if (interval.getStart()<=getMax(mid))
+				{
+					search(visitor, interval, lo, mid);
+					DynInterval<T> i = intervals[getSlot(mid)];
+					if (i.compareTo(interval)>0)
+						visitor.visit(i);
+					if (interval.getEnd()>=getStart(mid))
+						search(visitor, interval, mid+1, hi);
+				}
+			}
+		}
+
+		// Same as search(visitor, [time,time], lo, hi), without a query interval.
+		private void search(double time, DynIntervalVisitor<T> visitor, int lo, int hi)
+		{
+			if (lo<hi)
+			{
+				int mid = (lo+hi)>>>1;
+				if (time<=getMax(mid))
+				{
+					search(time, visitor, lo, mid);
+					double start = getStart(mid);
+					double end = getEnd(mid);
+					if ((start<=time && time<end) || (start==end && start==time))
+						visitor.visit(intervals[getSlot(mid)]);
+					if (time>=start)
+						search(time, visitor, mid+1, hi);
+				}
+			}
+		}
+
+		// position of the first row id not smaller than id
+		private int indexOf(long id)
+		{
+			int lo = 0;
+			int hi = size;
+			while (lo<hi)
+			{
+				int mid = (lo+hi)>>>1;
+				if (getId(mid)<id)
+					lo = mid+1;
+				else
+					hi = mid;
+			}
+			return lo;
+		}
+
+		private synchronized DynIntervalStabbingIndex<T> getStabbingIndex()
+		{
+			if (stabbingIndex==null)
+				stabbingIndex = new DynIntervalStabbingIndex<T>(intervals, index, size);
+			return stabbingIndex;
+		}
+
+		private double setMax(int lo, int hi)
+		{
+			if (lo>=hi)
+				return Double.NEGATIVE_INFINITY;
+			int mid = (lo+hi)>>>1;
+			double value = Math.max(getEnd(mid), Math.max(setMax(lo, mid), setMax(mid+1, hi)));
+			if (store!=null)
+				store.setMax(mid, value);
+			else
+				max[mid] = value;
+			return value;
+		}
+
+		private int getSlot(int k)
+		{
+			return store!=null ? store.getSlot(k) : index[k];
+		}
+
+		private double getStart(int k)
+		{
+			return store!=null ? store.getStart(k) : start[k];
+		}
+
+		private double getEnd(int k)
+		{
+			return store!=null ? store.getEnd(k) : end[k];
+		}
+
+		private double getMax(int k)
+		{
+			return store!=null ? store.getMax(k) : max[k];
+		}
+
+		private long getId(int k)
+		{
+			return store!=null ? store.getId(k) : sortedIds[k];
+		}
+
+		private int getIdSlot(int k)
+		{
+			return store!=null ? store.getIdSlot(k) : idIndex[k];
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <code> DynIntervalBuffer </code> is a {@link DynIntervalVisitor} that collects the 
+ * visited intervals in a list. The buffer can be cleared and reused for the next 
+ * search, so that repeated searches do not allocate a new list each time.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalBuffer<T> implements DynIntervalVisitor<T>
+{
+	private final List<DynInterval<T>> intervalList;
+
+	/**
+	 * <code> DynIntervalBuffer </code> constructor.
+	 */
+	public DynIntervalBuffer()
+	{
+		this(new ArrayList<DynInterval<T>>());
+	}
+
+	/**
+	 * <code> DynIntervalBuffer </code> constructor.
+	 * @param intervalList list the intervals are added to
+	 */
+	public DynIntervalBuffer(List<DynInterval<T>> intervalList)
+	{
+		this.intervalList = intervalList;
+	}
+
+	@Override
+	public void visit(DynInterval<T> interval)
+	{
+		intervalList.add(interval);
+	}
+
+	/**
+	 * Remove all intervals from the buffer.
+	 * @return this buffer
+	 */
+	public DynIntervalBuffer<T> clear()
+	{
+		intervalList.clear();
+		return this;
+	}
+
+	/**
+	 * Get the collected intervals. The list is reused by the next search.
+	 * @return interval list
+	 */
+	public List<DynInterval<T>> getIntervals()
+	{
+		return intervalList;
+	}
+
+	/**
+	 * Get the number of collected intervals.
+	 * @return size
+	 */
+	public int size()
+	{
+		return intervalList.size();
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <code> DynIntervalChangeDetector </code> keeps the list of intervals that are currently
+ * visible and computes which intervals were turned on or off when a new list is set.
+ * Intervals are compared by identity in hash sets, so that each update costs O(n) in
+ * the size of the two lists. The returned intervals are marked with
+ * {@link DynInterval#setOn(boolean)}, and the intervals turned off come first.
+ * The new intervals can also be passed by a search directly to the visitor returned
+ * by {@link #next()}, which collects them in a buffer reused by all updates.
+ * <br>
+ * A compiled {@link DynIntervalTimeline} can be set to replay the changes between
+ * frames without searching the interval tree. It takes over the visible intervals,
+ * and gives them back when it is removed.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalChangeDetector<T>
+{
+	private Map<DynInterval<T>,Boolean> currentSet;
+	private Map<DynInterval<T>,Boolean> nextSet;
+	private List<DynInterval<T>> currentList;
+	private final DynIntervalBuffer<T> nextBuffer;
+	private DynIntervalTimeline<T> timeline;
+
+	/**
+	 * <code> DynIntervalChangeDetector </code> constructor.
+	 */
+	public DynIntervalChangeDetector()
+	{
+		this.currentSet = new IdentityHashMap<DynInterval<T>,Boolean>();
+		this.nextSet = new IdentityHashMap<DynInterval<T>,Boolean>();
+		this.currentList = new ArrayList<DynInterval<T>>();
+		this.nextBuffer = new DynIntervalBuffer<T>();
+	}
+
+	/**
+	 * Set the list of visible intervals.
+	 * @param intervalList
+	 * @return list of intervals that were turned on or off
+	 */
+	public List<DynInterval<T>> update(List<DynInterval<T>> intervalList)
+	{
+		DynIntervalVisitor<T> visitor = next();
+		for (DynInterval<T> i : intervalList)
+			visitor.visit(i);
+		return update();
+	}
+
+	/**
+	 * Start a new list of visible intervals, to be passed to the returned visitor
+	 * and then set by {@link #update()}.
+	 * @return visitor that collects the visible intervals
+	 */
+	public DynIntervalVisitor<T> next()
+	{
+		return nextBuffer.clear();
+	}
+
+	/**
+	 * Set the list of visible intervals collected since {@link #next()}.
+	 * @return list of intervals that were turned on or off
+	 */
+	public List<DynInterval<T>> update()
+	{
+		if (timeline!=null)
+			setTimeline(null);
+
+		List<DynInterval<T>> intervalList = nextBuffer.getIntervals();
+		List<DynInterval<T>> diff = new ArrayList<DynInterval<T>>();
+
+		nextSet.clear();
+		for (DynInterval<T> i : intervalList)
+			nextSet.put(i, Boolean.TRUE);
+
+		for (DynInterval<T> i : currentList)
+			if (!nextSet.containsKey(i))
+			{
+				diff.add(i);
+				i.setOn(false);
+			}
+		for (DynInterval<T> i : intervalList)
+			if (!currentSet.containsKey(i))
+			{
+				diff.add(i);
+				i.setOn(true);
+			}
+
+		Map<DynInterval<T>,Boolean> tempSet = currentSet;
+		currentSet = nextSet;
+		nextSet = tempSet;
+		currentList.clear();
+		currentList.addAll(intervalList);
+		return diff;
+	}
+
+	/**
+	 * Move the compiled timeline to the given time interval.
+	 * @param interval
+	 * @return list of intervals that were turned on or off
+	 */
+	public List<DynInterval<T>> replay(DynInterval<T> interval)
+	{
+		return timeline.advance(interval);
+	}
+
+	/**
+	 * Set the compiled timeline used by {@link #replay(DynInterval)}, or remove it if null.
+	 * @param timeline
+	 */
+	public void setTimeline(DynIntervalTimeline<T> timeline)
+	{
+		if (this.timeline!=null)
+		{
+			currentList = this.timeline.getIntervals();
+			currentSet.clear();
+			for (DynInterval<T> i : currentList)
+				currentSet.put(i, Boolean.TRUE);
+		}
+		if (timeline!=null)
+			timeline.setIntervals(currentList);
+		this.timeline = timeline;
+	}
+
+	/**
+	 * Check if a compiled timeline is set.
+	 * @return true if changes are replayed from a timeline
+	 */
+	public boolean hasTimeline()
+	{
+		return timeline!=null;
+	}
+
+	/**
+	 * Get the list of visible intervals.
+	 * @return interval list
+	 */
+	public List<DynInterval<T>> getIntervals()
+	{
+		if (timeline!=null)
+			return timeline.getIntervals();
+		return currentList;
+	}
+
+	/**
+	 * Get the number of visible intervals.
+	 * @return size
+	 */
+	public int size()
+	{
+		if (timeline!=null)
+			return timeline.size();
+		return currentList.size();
+	}
+
+	/**
+	 * Forget all visible intervals.
+	 */
+	public void clear()
+	{
+		timeline = null;
+		currentSet.clear();
+		nextSet.clear();
+		currentList = new ArrayList<DynInterval<T>>();
+	}
+
+}
@@ -0,0 +1,294 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <code> DynIntervalColumnTree </code> partitions the intervals of dynamic attributes by
+ * attribute column, with one {@link DynIntervalArrayTree} per column. Queries for one
+ * column only touch the intervals of that column, while the methods of
+ * {@link DynIntervalTree} fan out to all columns. Intervals are assigned to the column of
+ * their attribute, unless the column is given explicitly.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalColumnTree<T> implements DynIntervalTree<T>
+{
+	private final Map<String,DynIntervalTree<T>> columns;
+
+	// copy of the column trees for the searches, replaced when a column is added
+	private volatile List<DynIntervalTree<T>> trees;
+
+	private final boolean isOffHeap;
+
+	/**
+	 * <code> DynIntervalColumnTree </code> constructor.
+	 */
+	public DynIntervalColumnTree()
+	{
+		this(false);
+	}
+
+	/**
+	 * <code> DynIntervalColumnTree </code> constructor.
+	 * @param isOffHeap true to keep the index of the column trees off-heap
+	 */
+	public DynIntervalColumnTree(boolean isOffHeap)
+	{
+		this.columns = new LinkedHashMap<String,DynIntervalTree<T>>();
+		this.trees = new ArrayList<DynIntervalTree<T>>();
+		this.isOffHeap = isOffHeap;
+	}
+
+	/**
+	 * Get the tree of the given column, and create it if it does not exist.
+	 * @param column
+	 * @return interval tree of the column
+	 */
+	public synchronized DynIntervalTree<T> getColumn(String column)
+	{
+		DynIntervalTree<T> tree = columns.get(column);
+		if (tree==null)
+		{
+			tree = new DynIntervalArrayTree<T>(isOffHeap);
+			columns.put(column, tree);
+			trees = new ArrayList<DynIntervalTree<T>>(columns.values());
+		}
+		return tree;
+	}
+
+	/**
+	 * Get the tree of the given column.
+	 * @param column
+	 * @return interval tree of the column, or null if the column has no intervals
+	 */
+	public synchronized DynIntervalTree<T> getColumnTree(String column)
+	{
+		return columns.get(column);
+	}
+
+	/**
+	 * Get the names of the indexed columns.
+	 * @return column names
+	 */
+	public synchronized List<String> getColumns()
+	{
+		return new ArrayList<String>(columns.keySet());
+	}
+
+	@Override
+	public DynNode<T> getRoot()
+	{
+		return null;
+	}
+
+	@Override
+	public void insert(DynInterval<T> interval, long id)
+	{
+		getColumn(interval.getAttribute().getColumn()).insert(interval, id);
+	}
+
+	@Override
+	public void insert(DynInterval<T>[] intervals, long[] ids, int size)
+	{
+		for (int k=0; k<size; k++)
+			insert(intervals[k], ids[k]);
+	}
+
+	@Override
+	public void remove(DynInterval<T> interval, long id)
+	{
+		if (interval.getAttribute()!=null)
+		{
+			DynIntervalTree<T> tree = getColumnTree(interval.getAttribute().getColumn());
+			if (tree!=null)
+				tree.remove(interval, id);
+		}
+		else
+			for (DynIntervalTree<T> tree : getTrees())
+				tree.remove(interval, id);
+	}
+
+	@Override
+	public List<DynInterval<T>> getIntervals()
+	{
+		DynIntervalBuffer<T> buffer = new DynIntervalBuffer<T>();
+		getIntervals(buffer);
+		return buffer.getIntervals();
+	}
+
+	@Override
+	public void getIntervals(DynIntervalVisitor<T> visitor)
+	{
+		for (DynIntervalTree<T> tree : getTrees())
+			tree.getIntervals(visitor);
+	}
+
+	@Override
+	public List<DynInterval<T>> getIntervals(long id)
+	{
+		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>();
+		for (DynIntervalTree<T> tree : getTrees())
+			list.addAll(tree.getIntervals(id));
+		return list;
+	}
+
+	/**
+	 * Get all intervals of the given column.
+	 * @param column
+	 * @return list of intervals
+	 */
+	public List<DynInterval<T>> getIntervals(String column)
+	{
+		DynIntervalTree<T> tree = getColumnTree(column);
+		if (tree==null)
+			return new ArrayList<DynInterval<T>>();
+		return tree.getIntervals();
+	}
+
+	@Override
+	public double[] getEventTimes()
+	{
+		double[] times = new double[0];
+		for (DynIntervalTree<T> tree : getTrees())
+			times = DynEventIndex.merge(times, tree.getEventTimes());
+		return times;
+	}
+
+	@Override
+	public double[] getEventTimes(String attName)
+	{
+		DynIntervalTree<T> tree = getColumnTree(attName);
+		if (tree==null)
+			return new double[0];
+		return tree.getEventTimes();
+	}
+
+	@Override
+	public List<DynInterval<T>> search(DynInterval<T> interval)
+	{
+		DynIntervalBuffer<T> buffer = new DynIntervalBuffer<T>();
+		search(interval, buffer);
+		return buffer.getIntervals();
+	}
+
+	@Override
+	public void search(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		for (DynIntervalTree<T> tree : getTrees())
+			tree.search(interval, visitor);
+	}
+
+	/**
+	 * Search the intervals of the given column overlapping with the interval.
+	 * @param interval
+	 * @param column
+	 * @return list of overlapping intervals
+	 */
+	public List<DynInterval<T>> search(DynInterval<T> interval, String column)
+	{
+		DynIntervalTree<T> tree = getColumnTree(column);
+		if (tree==null)
+			return new ArrayList<DynInterval<T>>();
+		return tree.search(interval);
+	}
+
+	@Override
+	public void search(double time, DynIntervalVisitor<T> visitor)
+	{
+		for (DynIntervalTree<T> tree : getTrees())
+			tree.search(time, visitor);
+	}
+
+	/**
+	 * Search the intervals of the given column that are on at the given time.
+	 * @param time
+	 * @param column
+	 * @param visitor called back for each interval found
+	 */
+	public void search(double time, String column, DynIntervalVisitor<T> visitor)
+	{
+		DynIntervalTree<T> tree = getColumnTree(column);
+		if (tree!=null)
+			tree.search(time, visitor);
+	}
+
+	@Override
+	public DynIntervalCounter<T> getCounter()
+	{
+		// the counters of the columns are cached by their trees, the merged one is not
+		return new DynIntervalCounter<T>(getIntervals());
+	}
+
+	/**
+	 * Get the counter of the intervals of the given column.
+	 * @param column
+	 * @return interval counter
+	 */
+	public DynIntervalCounter<T> getCounter(String column)
+	{
+		DynIntervalTree<T> tree = getColumnTree(column);
+		if (tree==null)
+			return new DynIntervalCounter<T>(new ArrayList<DynInterval<T>>());
+		return tree.getCounter();
+	}
+
+	@Override
+	public List<DynInterval<T>> searchNot(DynInterval<T> interval)
+	{
+		DynIntervalBuffer<T> buffer = new DynIntervalBuffer<T>();
+		searchNot(interval, buffer);
+		return buffer.getIntervals();
+	}
+
+	@Override
+	public void searchNot(DynInterval<T> interval, DynIntervalVisitor<T> visitor)
+	{
+		for (DynIntervalTree<T> tree : getTrees())
+			tree.searchNot(interval, visitor);
+	}
+
+	@Override
+	public synchronized void clear()
+	{
+		columns.clear();
+		trees = new ArrayList<DynIntervalTree<T>>();
+	}
+
+	@Override
+	public void print()
+	{
+		for (DynIntervalTree<T> tree : getTrees())
+			tree.print();
+	}
+
+	private Collection<DynIntervalTree<T>> getTrees()
+	{
+		return trees;
+	}
+
+}
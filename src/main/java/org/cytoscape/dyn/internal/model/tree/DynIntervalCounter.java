@@ -0,0 +1,134 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <code> DynIntervalCounter </code> counts the intervals that are on at a given time
+ * without visiting them. The start and end times of the intervals are kept in two sorted
+ * arrays, so that the position of a time in an array is the prefix sum of the events up to 
+ * that time: an interval [start, end) is on at t if start<=t and not end<=t, and since
+ * start<end the number of intervals on at t is the number of starts minus the number of
+ * ends smaller or equal to t, i.e. O(log n). Intervals with start=end are on only at that
+ * time, and are kept apart. The number of events in a time range, i.e. the rate at which
+ * the network changes, is found in the same way.
+ * <br>
+ * The counter is a snapshot of the intervals and must be built again if they are changed.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalCounter<T>
+{
+	private final double[] starts;
+	private final double[] ends;
+	private final double[] points;
+
+	/**
+	 * <code> DynIntervalCounter </code> constructor.
+	 * @param intervals
+	 * @param size number of intervals
+	 */
+	public DynIntervalCounter(DynInterval<T>[] intervals, int size)
+	{
+		double[] starts = new double[size];
+		double[] ends = new double[size];
+		double[] points = new double[size];
+		int n = 0;
+		int p = 0;
+		for (int k=0; k<size; k++)
+		{
+			double start = intervals[k].getStart();
+			double end = intervals[k].getEnd();
+			if (start<end)
+			{
+				starts[n] = start;
+				ends[n] = end;
+				n++;
+			}
+			else if (start==end)
+				points[p++] = start;
+		}
+		Arrays.sort(starts, 0, n);
+		Arrays.sort(ends, 0, n);
+		Arrays.sort(points, 0, p);
+		this.starts = n==size ? starts : Arrays.copyOf(starts, n);
+		this.ends = n==size ? ends : Arrays.copyOf(ends, n);
+		this.points = Arrays.copyOf(points, p);
+	}
+
+	/**
+	 * <code> DynIntervalCounter </code> constructor.
+	 * @param intervals
+	 */
+	@SuppressWarnings("unchecked")
+	public DynIntervalCounter(List<DynInterval<T>> intervals)
+	{
+		this(intervals.toArray(new DynInterval[intervals.size()]), intervals.size());
+	}
+
+	/**
+	 * Get the number of intervals that are on at the given time, i.e. that overlap with 
+	 * the point interval [time, time].
+	 * @param time
+	 * @return number of intervals
+	 */
+	public int count(double time)
+	{
+		return DynIntervalSort.upperBound(starts, starts.length, time)
+				- DynIntervalSort.upperBound(ends, ends.length, time)
+				+ DynIntervalSort.upperBound(points, points.length, time)
+				- DynIntervalSort.lowerBound(points, points.length, time);
+	}
+
+	/**
+	 * Get the number of intervals that start or end in the time range [from, to). 
+	 * Intervals with start=end count as two events.
+	 * @param from
+	 * @param to
+	 * @return number of events
+	 */
+	public int countEvents(double from, double to)
+	{
+		if (!(from<to))
+			return 0;
+		return countRange(starts, from, to) + countRange(ends, from, to)
+				+ 2*countRange(points, from, to);
+	}
+
+	/**
+	 * Get the number of intervals counted.
+	 * @return number of intervals
+	 */
+	public int size()
+	{
+		return starts.length+points.length;
+	}
+
+	private static int countRange(double[] array, double from, double to)
+	{
+		return DynIntervalSort.lowerBound(array, array.length, to)
+				- DynIntervalSort.lowerBound(array, array.length, from);
+	}
+
+}
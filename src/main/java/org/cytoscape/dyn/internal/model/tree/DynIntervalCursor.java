@@ -0,0 +1,152 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <code> DynIntervalCursor </code> is a forward-only cursor over a fixed set of
+ * time intervals. The intervals are sorted once by start time and by end time. When
+ * the cursor moves forward to a later time interval, only the intervals whose start
+ * or end time has been passed are checked, so that a sweep over all event times costs
+ * O(total events) instead of one tree search per step. Moving backward, or to a point
+ * interval, checks all intervals once.
+ * <br>
+ * As for the changed lists of the network view, the returned intervals are marked
+ * with {@link DynInterval#setOn(boolean)} to tell if they were turned on or off, and
+ * the intervals turned off come first.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalCursor<T>
+{
+	private final DynInterval<T>[] intervals;
+	private final boolean[] isActive;
+
+	private final int[] startOrder;
+	private final double[] starts;
+	private final int[] endOrder;
+	private final double[] ends;
+
+	private int startIndex;
+	private int endIndex;
+	private double currentStart = Double.NEGATIVE_INFINITY;
+	private double currentEnd = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * <code> DynIntervalCursor </code> constructor.
+	 * @param intervalList
+	 */
+	@SuppressWarnings("unchecked")
+	public DynIntervalCursor(List<DynInterval<T>> intervalList)
+	{
+		int size = intervalList.size();
+		this.intervals = intervalList.toArray(new DynInterval[size]);
+		this.isActive = new boolean[size];
+
+		double[] startKey = new double[size];
+		double[] endKey = new double[size];
+		this.startOrder = new int[size];
+		this.endOrder = new int[size];
+		for (int k=0; k<size; k++)
+		{
+			startKey[k] = intervals[k].getStart();
+			// a point interval [t,t] stays on as long as the interval start is not after t
+			endKey[k] = intervals[k].getStart()==intervals[k].getEnd()?
+					Math.nextUp(intervals[k].getEnd()):intervals[k].getEnd();
+			startOrder[k] = k;
+			endOrder[k] = k;
+		}
+		DynIntervalSort.sort(startOrder, startKey);
+		DynIntervalSort.sort(endOrder, endKey);
+
+		this.starts = new double[size];
+		this.ends = new double[size];
+		for (int k=0; k<size; k++)
+		{
+			starts[k] = startKey[startOrder[k]];
+			ends[k] = endKey[endOrder[k]];
+		}
+	}
+
+	/**
+	 * Move the cursor to the given time interval.
+	 * @param interval
+	 * @return list of intervals that were turned on or off
+	 */
+	public List<DynInterval<T>> advance(DynInterval<T> interval)
+	{
+		List<DynInterval<T>> changedList = new ArrayList<DynInterval<T>>();
+		List<DynInterval<T>> onList = new ArrayList<DynInterval<T>>();
+		double start = interval.getStart();
+		double end = interval.getEnd();
+
+		if (start<end && start>=currentStart && end>=currentEnd)
+		{
+			for (; endIndex<ends.length && ends[endIndex]<=start; endIndex++)
+				update(endOrder[endIndex], interval, changedList, onList);
+			for (; startIndex<starts.length && starts[startIndex]<end; startIndex++)
+				update(startOrder[startIndex], interval, changedList, onList);
+		}
+		else
+		{
+			for (int k=0; k<intervals.length; k++)
+				update(k, interval, changedList, onList);
+			startIndex = DynIntervalSort.lowerBound(starts, starts.length, end);
+			endIndex = DynIntervalSort.upperBound(ends, ends.length, start);
+		}
+
+		currentStart = start;
+		currentEnd = end;
+		changedList.addAll(onList);
+		return changedList;
+	}
+
+	/**
+	 * Get the intervals that are currently on.
+	 * @return interval list
+	 */
+	public List<DynInterval<T>> getIntervals()
+	{
+		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>();
+		for (int k=0; k<intervals.length; k++)
+			if (isActive[k])
+				list.add(intervals[k]);
+		return list;
+	}
+
+	private void update(int k, DynInterval<T> interval, List<DynInterval<T>> offList, List<DynInterval<T>> onList)
+	{
+		boolean isOn = intervals[k].compareTo(interval)>0;
+		if (isOn!=isActive[k])
+		{
+			isActive[k] = isOn;
+			intervals[k].setOn(isOn);
+			if (isOn)
+				onList.add(intervals[k]);
+			else
+				offList.add(intervals[k]);
+		}
+	}
+
+}
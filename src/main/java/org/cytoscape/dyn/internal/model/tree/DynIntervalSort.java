@@ -0,0 +1,106 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+/**
+ * <code> DynIntervalSort </code> provides sorting and searching of primitive time
+ * arrays used by the array based interval structures.
+ *
+ * @author Sabina Sara Pfister
+ */
+public final class DynIntervalSort
+{
+	private DynIntervalSort()
+	{
+
+	}
+
+	/**
+	 * Sort the given indexes by the corresponding keys. The sort is stable.
+	 * @param index
+	 * @param key
+	 */
+	public static void sort(int[] index, double[] key)
+	{
+		sort(index, new int[index.length], key, 0, index.length);
+	}
+
+	/**
+	 * Get the first position in the sorted array with a value not smaller than the given time.
+	 * @param array
+	 * @param size
+	 * @param time
+	 * @return number of values smaller than time
+	 */
+	public static int lowerBound(double[] array, int size, double time)
+	{
+		int lo = 0;
+		int hi = size;
+		while (lo<hi)
+		{
+			int mid = (lo+hi)>>>1;
+			if (array[mid]<time)
+				lo = mid+1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Get the first position in the sorted array with a value larger than the given time.
+	 * @param array
+	 * @param size
+	 * @param time
+	 * @return number of values smaller or equal to time
+	 */
+	public static int upperBound(double[] array, int size, double time)
+	{
+		int lo = 0;
+		int hi = size;
+		while (lo<hi)
+		{
+			int mid = (lo+hi)>>>1;
+			if (array[mid]<=time)
+				lo = mid+1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	private static void sort(int[] a, int[] tmp, double[] key, int lo, int hi)
+	{
+		if (hi-lo<2)
+			return;
+		int mid = (lo+hi)>>>1;
+		sort(a, tmp, key, lo, mid);
+		sort(a, tmp, key, mid, hi);
+		if (key[a[mid-1]]<=key[a[mid]])
+			return;
+		System.arraycopy(a, lo, tmp, lo, hi-lo);
+		for (int i=lo, j=mid, k=lo; k<hi; k++)
+			if (j>=hi || (i<mid && key[tmp[i]]<=key[tmp[j]]))
+				a[k] = tmp[i++];
+			else
+				a[k] = tmp[j++];
+	}
+
+}
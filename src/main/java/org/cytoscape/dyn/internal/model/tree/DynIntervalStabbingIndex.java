@@ -0,0 +1,179 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.Arrays;
+
+/**
+ * <code> DynIntervalStabbingIndex </code> is a static segment tree that answers stabbing
+ * queries, i.e. which intervals are on at a time t, as used by the time slider and the
+ * playback. The sorted event times x[0] < ... < x[m-1] of the intervals split the time 
+ * axis into m+1 elementary slots, slot j being [x[j-1], x[j]). An interval [start, end) 
+ * covers a contiguous range of slots, and is stored in the O(log m) nodes of the tree 
+ * that cover exactly that range. The intervals on at t are then found by locating the 
+ * slot of t by binary search and walking from its leaf to the root: every interval stored 
+ * on the path contains t, so no interval is checked and discarded. Intervals with 
+ * start=end are on only at that time, and are kept apart sorted by time.
+ * <br>
+ * The intervals are given in (start, end) order, and the lists of the nodes store their
+ * positions in that order in compact int arrays. The query sorts the positions it found,
+ * so that the intervals are returned in the same order as by a search of the interval
+ * tree. The index must be built again if the intervals are changed.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalStabbingIndex<T>
+{
+	private final DynInterval<T>[] intervals;
+	private final int[] order;
+
+	private final double[] times;
+	private final int leaves;
+	private final int[] offset;
+	private final int[] index;
+
+	private final double[] pointTimes;
+	private final int[] pointIndex;
+
+	/**
+	 * <code> DynIntervalStabbingIndex </code> constructor.
+	 * @param intervals
+	 * @param order positions of the intervals in (start, end) order, intervals[order[k]] 
+	 * being the k-th interval
+	 * @param size number of intervals
+	 */
+	public DynIntervalStabbingIndex(DynInterval<T>[] intervals, int[] order, int size)
+	{
+		this.intervals = intervals;
+		this.order = order;
+
+		double[] t = new double[2*size];
+		int m = 0;
+		int points = 0;
+		for (int k=0; k<size; k++)
+		{
+			double start = intervals[order[k]].getStart();
+			double end = intervals[order[k]].getEnd();
+			if (start==end)
+				points++;
+			if (!Double.isInfinite(start))
+				t[m++] = start;
+			if (!Double.isInfinite(end))
+				t[m++] = end;
+		}
+		Arrays.sort(t, 0, m);
+		int unique = 0;
+		for (int k=0; k<m; k++)
+			if (unique==0 || t[k]!=t[unique-1])
+				t[unique++] = t[k];
+		this.times = Arrays.copyOf(t, unique);
+
+		int slots = unique+1;
+		int p = 1;
+		while (p<slots)
+			p <<= 1;
+		this.leaves = p;
+
+		// first pass counts the intervals of each node, second pass fills them in; the
+		// intervals with start=end are found in (start, end) order, i.e. sorted by time
+		int[] lo = new int[size];
+		int[] hi = new int[size];
+		int[] count = new int[2*leaves+1];
+		this.pointTimes = new double[points];
+		this.pointIndex = new int[points];
+		points = 0;
+		for (int k=0; k<size; k++)
+		{
+			double start = intervals[order[k]].getStart();
+			double end = intervals[order[k]].getEnd();
+			if (start==end)
+			{
+				pointIndex[points] = k;
+				pointTimes[points++] = start;
+				lo[k] = 1;
+				hi[k] = 0;
+			}
+			else
+			{
+				lo[k] = DynIntervalSort.upperBound(times, unique, start);
+				hi[k] = DynIntervalSort.lowerBound(times, unique, end);
+				cover(lo[k], hi[k], count, null, k);
+			}
+		}
+		this.offset = new int[2*leaves+1];
+		for (int n=0; n<2*leaves; n++)
+			offset[n+1] = offset[n]+count[n];
+		this.index = new int[offset[2*leaves]];
+		Arrays.fill(count, 0);
+		for (int k=0; k<size; k++)
+			cover(lo[k], hi[k], count, index, k);
+	}
+
+	/**
+	 * Visit all intervals that are on at the given time.
+	 * @param time
+	 * @param visitor
+	 */
+	public void search(double time, DynIntervalVisitor<T> visitor)
+	{
+		int leaf = DynIntervalSort.upperBound(times, times.length, time)+leaves;
+		int from = DynIntervalSort.lowerBound(pointTimes, pointTimes.length, time);
+		int to = DynIntervalSort.upperBound(pointTimes, pointTimes.length, time);
+		int count = to-from;
+		for (int n=leaf; n>0; n>>>=1)
+			count += offset[n+1]-offset[n];
+		if (count==0)
+			return;
+
+		int[] found = new int[count];
+		int size = 0;
+		for (int n=leaf; n>0; n>>>=1)
+			for (int k=offset[n]; k<offset[n+1]; k++)
+				found[size++] = index[k];
+		for (int k=from; k<to; k++)
+			found[size++] = pointIndex[k];
+		Arrays.sort(found);
+		for (int k=0; k<size; k++)
+			visitor.visit(intervals[order[found[k]]]);
+	}
+
+	// Add interval k to the nodes that cover exactly the slots [lo,hi], or only count
+	// them if list is null.
+	private void cover(int lo, int hi, int[] count, int[] list, int k)
+	{
+		for (int l=lo+leaves, r=hi+leaves+1; l<r; l>>>=1, r>>>=1)
+		{
+			if ((l&1)==1)
+				add(l++, count, list, k);
+			if ((r&1)==1)
+				add(--r, count, list, k);
+		}
+	}
+
+	private void add(int n, int[] count, int[] list, int k)
+	{
+		if (list!=null)
+			list[offset[n]+count[n]] = k;
+		count[n]++;
+	}
+
+}
@@ -0,0 +1,259 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * <code> DynIntervalStore </code> stores the index of a {@link DynIntervalArrayTree} 
+ * outside of the Java heap, as fixed-width records in direct byte buffers, which count
+ * against the direct memory limit of the JVM. If the system property {@link #SCRATCH_DIR}
+ * is set, the records are kept in a memory-mapped scratch file in that directory instead.
+ * Record k holds the start time, end time and maximum end time of 
+ * the k-th interval in (start, end) order together with its slot in the interval 
+ * buffer, and the k-th row id in row order together with the slot of its interval. 
+ * The store is written once when the tree is built and is read-only afterwards.
+ * <br>
+ * Only this index, about 40 bytes per interval, leaves the heap: the {@link DynInterval}s
+ * themselves are still referenced by their {@link org.cytoscape.dyn.internal.model.attribute.DynAttribute}s
+ * and by the trees, so the heap still grows with the number of intervals.
+ * 
+ * @author Sabina Sara Pfister
+ *
+ */
+public final class DynIntervalStore
+{
+	/**
+	 * System property that enables the off-heap index for networks created afterwards.
+	 */
+	public static final String OFF_HEAP = "org.cytoscape.dyn.offheap";
+
+	/**
+	 * System property with the directory of the memory-mapped scratch files. Each build
+	 * of a tree maps a new file, so this is only worth it if the direct memory limit is
+	 * too small for the index.
+	 */
+	public static final String SCRATCH_DIR = "org.cytoscape.dyn.scratchdir";
+
+	private static final int START = 0;
+	private static final int END = 8;
+	private static final int MAX = 16;
+	private static final int ID = 24;
+	private static final int SLOT = 32;
+	private static final int ID_SLOT = 36;
+	private static final int RECORD_SIZE = 40;
+
+	// records per buffer, so that a buffer never exceeds the 2GB limit of a ByteBuffer
+	private static final int CHUNK_SHIFT = 20;
+	private static final int CHUNK_MASK = (1<<CHUNK_SHIFT)-1;
+
+	private final int size;
+	private final ByteBuffer[] chunks;
+
+	/**
+	 * <code> DynIntervalStore </code> constructor.
+	 * @param size number of records
+	 */
+	public DynIntervalStore(int size)
+	{
+		this.size = size;
+		this.chunks = new ByteBuffer[(size+CHUNK_MASK)>>>CHUNK_SHIFT];
+		if (size==0)
+			return;
+		String directory = System.getProperty(SCRATCH_DIR);
+		if (directory!=null)
+			try
+			{
+				map(new File(directory));
+				return;
+			}
+			catch (IOException e)
+			{
+				System.out.println("\nCould not map interval store in " + directory + ", using direct buffers: " + e.getMessage());
+				release();
+			}
+		for (int c=0; c<chunks.length; c++)
+			chunks[c] = ByteBuffer.allocateDirect(getChunkSize(c)*RECORD_SIZE).order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Get if the off-heap index is enabled.
+	 * @return true if the system property {@link #OFF_HEAP} is true
+	 */
+	public static boolean isOffHeap()
+	{
+		return Boolean.getBoolean(OFF_HEAP);
+	}
+
+	/**
+	 * Get the number of records.
+	 * @return size
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Set the k-th interval in (start, end) order.
+	 * @param k
+	 * @param start
+	 * @param end
+	 * @param slot position of the interval in the buffer of the tree
+	 */
+	public void setInterval(int k, double start, double end, int slot)
+	{
+		ByteBuffer chunk = chunks[k>>>CHUNK_SHIFT];
+		int offset = (k&CHUNK_MASK)*RECORD_SIZE;
+		chunk.putDouble(offset+START, start);
+		chunk.putDouble(offset+END, end);
+		chunk.putInt(offset+SLOT, slot);
+	}
+
+	/**
+	 * Set the maximum end time of the subtree of the k-th interval.
+	 * @param k
+	 * @param max
+	 */
+	public void setMax(int k, double max)
+	{
+		chunks[k>>>CHUNK_SHIFT].putDouble((k&CHUNK_MASK)*RECORD_SIZE+MAX, max);
+	}
+
+	/**
+	 * Set the k-th row id in row order.
+	 * @param k
+	 * @param id
+	 * @param slot position of the interval in the buffer of the tree
+	 */
+	public void setId(int k, long id, int slot)
+	{
+		ByteBuffer chunk = chunks[k>>>CHUNK_SHIFT];
+		int offset = (k&CHUNK_MASK)*RECORD_SIZE;
+		chunk.putLong(offset+ID, id);
+		chunk.putInt(offset+ID_SLOT, slot);
+	}
+
+	/**
+	 * Get the start time of the k-th interval in (start, end) order.
+	 * @param k
+	 * @return start time
+	 */
+	public double getStart(int k)
+	{
+		return chunks[k>>>CHUNK_SHIFT].getDouble((k&CHUNK_MASK)*RECORD_SIZE+START);
+	}
+
+	/**
+	 * Get the end time of the k-th interval in (start, end) order.
+	 * @param k
+	 * @return end time
+	 */
+	public double getEnd(int k)
+	{
+		return chunks[k>>>CHUNK_SHIFT].getDouble((k&CHUNK_MASK)*RECORD_SIZE+END);
+	}
+
+	/**
+	 * Get the maximum end time of the subtree of the k-th interval.
+	 * @param k
+	 * @return maximum end time
+	 */
+	public double getMax(int k)
+	{
+		return chunks[k>>>CHUNK_SHIFT].getDouble((k&CHUNK_MASK)*RECORD_SIZE+MAX);
+	}
+
+	/**
+	 * Get the buffer position of the k-th interval in (start, end) order.
+	 * @param k
+	 * @return slot
+	 */
+	public int getSlot(int k)
+	{
+		return chunks[k>>>CHUNK_SHIFT].getInt((k&CHUNK_MASK)*RECORD_SIZE+SLOT);
+	}
+
+	/**
+	 * Get the k-th row id in row order.
+	 * @param k
+	 * @return row id
+	 */
+	public long getId(int k)
+	{
+		return chunks[k>>>CHUNK_SHIFT].getLong((k&CHUNK_MASK)*RECORD_SIZE+ID);
+	}
+
+	/**
+	 * Get the buffer position of the interval of the k-th row id in row order.
+	 * @param k
+	 * @return slot
+	 */
+	public int getIdSlot(int k)
+	{
+		return chunks[k>>>CHUNK_SHIFT].getInt((k&CHUNK_MASK)*RECORD_SIZE+ID_SLOT);
+	}
+
+	/**
+	 * Release the store. The memory of the buffers is freed once they are garbage
+	 * collected.
+	 */
+	public void release()
+	{
+		for (int c=0; c<chunks.length; c++)
+			chunks[c] = null;
+	}
+
+	private void map(File directory) throws IOException
+	{
+		File file = File.createTempFile("dynnetwork", ".idx", directory);
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			long position = 0;
+			for (int c=0; c<chunks.length; c++)
+			{
+				long length = (long) getChunkSize(c)*RECORD_SIZE;
+				chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, position, length).order(ByteOrder.nativeOrder());
+				position += length;
+			}
+		}
+		finally
+		{
+			// the mapping stays valid after the channel is closed and, where the file
+			// system allows it, after the scratch file is deleted
+			raf.close();
+			if (!file.delete())
+				file.deleteOnExit();
+		}
+	}
+
+	private int getChunkSize(int c)
+	{
+		return Math.min(1<<CHUNK_SHIFT, size-(c<<CHUNK_SHIFT));
+	}
+
+}
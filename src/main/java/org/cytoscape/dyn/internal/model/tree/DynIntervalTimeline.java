@@ -0,0 +1,293 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <code> DynIntervalTimeline </code> is a compiled timeline of a fixed set of intervals
+ * for a fixed sequence of frame times, such as the positions of the time slider. Since
+ * the frames are point intervals [t,t] in increasing order, every interval is on for a
+ * contiguous range of frames. The first and last frame of each interval are computed
+ * once by binary search, and the intervals are grouped by first and by last frame in
+ * compact int arrays. Moving to a frame then only visits the intervals that start or
+ * stop between the old and the new frame, in both directions, without any tree search.
+ * Time intervals that are not a frame of the timeline are checked against all intervals.
+ * <br>
+ * As for the changed lists of the network view, the returned intervals are marked
+ * with {@link DynInterval#setOn(boolean)} to tell if they were turned on or off, and
+ * the intervals turned off come first.
+ *
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynIntervalTimeline<T>
+{
+	private final DynInterval<T>[] intervals;
+	private final boolean[] isActive;
+	private int activeCount;
+
+	private final double[] times;
+	private final int frames;
+
+	private final int[] firstFrame;
+	private final int[] lastFrame;
+	private final int[] firstOffset;
+	private final int[] firstIndex;
+	private final int[] lastOffset;
+	private final int[] lastIndex;
+
+	private final int[] stamp;
+	private final boolean[] wasActive;
+	private int currentStamp;
+	private int currentFrame = -1;
+
+	/**
+	 * <code> DynIntervalTimeline </code> constructor. The frame times must be
+	 * strictly increasing, otherwise every time interval is checked against all
+	 * intervals.
+	 * @param intervalList
+	 * @param times
+	 */
+	@SuppressWarnings("unchecked")
+	public DynIntervalTimeline(List<DynInterval<T>> intervalList, double[] times)
+	{
+		int size = intervalList.size();
+		this.intervals = intervalList.toArray(new DynInterval[size]);
+		this.isActive = new boolean[size];
+		this.stamp = new int[size];
+		this.wasActive = new boolean[size];
+
+		this.times = times.clone();
+		this.frames = isIncreasing(times)?times.length:0;
+
+		this.firstFrame = new int[size];
+		this.lastFrame = new int[size];
+		for (int k=0; k<size; k++)
+		{
+			double start = intervals[k].getStart();
+			double end = intervals[k].getEnd();
+			// a point query [t,t] overlaps [start,end) if start<=t<end, and [t,t] if t==start
+			firstFrame[k] = DynIntervalSort.lowerBound(this.times, frames, start);
+			if (start==end)
+				lastFrame[k] = DynIntervalSort.upperBound(this.times, frames, end)-1;
+			else
+				lastFrame[k] = DynIntervalSort.lowerBound(this.times, frames, end)-1;
+		}
+
+		this.firstOffset = new int[frames+1];
+		this.lastOffset = new int[frames+1];
+		for (int k=0; k<size; k++)
+			if (firstFrame[k]<=lastFrame[k])
+			{
+				firstOffset[firstFrame[k]+1]++;
+				lastOffset[lastFrame[k]+1]++;
+			}
+		for (int f=0; f<frames; f++)
+		{
+			firstOffset[f+1] += firstOffset[f];
+			lastOffset[f+1] += lastOffset[f];
+		}
+		this.firstIndex = new int[firstOffset[frames]];
+		this.lastIndex = new int[lastOffset[frames]];
+		int[] firstPosition = firstOffset.clone();
+		int[] lastPosition = lastOffset.clone();
+		for (int k=0; k<size; k++)
+			if (firstFrame[k]<=lastFrame[k])
+			{
+				firstIndex[firstPosition[firstFrame[k]]++] = k;
+				lastIndex[lastPosition[lastFrame[k]]++] = k;
+			}
+	}
+
+	/**
+	 * Set the intervals that are currently on, e.g. the ones that are visible when
+	 * the timeline is compiled. The next move checks all intervals.
+	 * @param intervalList
+	 */
+	public void setIntervals(List<DynInterval<T>> intervalList)
+	{
+		Map<DynInterval<T>,Boolean> activeSet = new IdentityHashMap<DynInterval<T>,Boolean>();
+		for (DynInterval<T> interval : intervalList)
+			activeSet.put(interval, Boolean.TRUE);
+		activeCount = 0;
+		for (int k=0; k<intervals.length; k++)
+		{
+			isActive[k] = activeSet.containsKey(intervals[k]);
+			if (isActive[k])
+				activeCount++;
+		}
+		currentFrame = -1;
+	}
+
+	/**
+	 * Move the timeline to the given time interval.
+	 * @param interval
+	 * @return list of intervals that were turned on or off
+	 */
+	public List<DynInterval<T>> advance(DynInterval<T> interval)
+	{
+		List<DynInterval<T>> changedList = new ArrayList<DynInterval<T>>();
+		List<DynInterval<T>> onList = new ArrayList<DynInterval<T>>();
+		int frame = getFrame(interval);
+
+		if (frame>=0 && currentFrame>=0 && getChanges(currentFrame, frame)<intervals.length)
+		{
+			currentStamp++;
+			if (frame>currentFrame)
+				for (int f=currentFrame+1; f<=frame; f++)
+				{
+					for (int i=lastOffset[f-1]; i<lastOffset[f]; i++)
+						toggle(lastIndex[i], false);
+					for (int i=firstOffset[f]; i<firstOffset[f+1]; i++)
+						toggle(firstIndex[i], true);
+				}
+			else
+				for (int f=currentFrame; f>frame; f--)
+				{
+					for (int i=firstOffset[f]; i<firstOffset[f+1]; i++)
+						toggle(firstIndex[i], false);
+					for (int i=lastOffset[f-1]; i<lastOffset[f]; i++)
+						toggle(lastIndex[i], true);
+				}
+			collect(lastIndex, lastOffset, currentFrame, frame, changedList, onList);
+			collect(firstIndex, firstOffset, currentFrame, frame, changedList, onList);
+		}
+		else
+		{
+			for (int k=0; k<intervals.length; k++)
+			{
+				boolean isOn = frame>=0?
+						(firstFrame[k]<=frame && frame<=lastFrame[k]):intervals[k].compareTo(interval)>0;
+				if (isOn!=isActive[k])
+					set(k, isOn, changedList, onList);
+			}
+		}
+
+		currentFrame = frame;
+		changedList.addAll(onList);
+		return changedList;
+	}
+
+	/**
+	 * Get the intervals that are currently on.
+	 * @return interval list
+	 */
+	public List<DynInterval<T>> getIntervals()
+	{
+		List<DynInterval<T>> list = new ArrayList<DynInterval<T>>(activeCount);
+		for (int k=0; k<intervals.length; k++)
+			if (isActive[k])
+				list.add(intervals[k]);
+		return list;
+	}
+
+	/**
+	 * Get the number of intervals that are currently on.
+	 * @return size
+	 */
+	public int size()
+	{
+		return activeCount;
+	}
+
+	/**
+	 * Get the frame of the given time interval.
+	 * @param interval
+	 * @return frame index, or -1 if the interval is not a frame of this timeline
+	 */
+	private int getFrame(DynInterval<T> interval)
+	{
+		if (interval.getStart()!=interval.getEnd())
+			return -1;
+		int frame = DynIntervalSort.lowerBound(times, frames, interval.getStart());
+		if (frame<frames && times[frame]==interval.getStart())
+			return frame;
+		return -1;
+	}
+
+	private int getChanges(int from, int to)
+	{
+		int lo = Math.min(from, to);
+		int hi = Math.max(from, to);
+		return (firstOffset[hi+1]-firstOffset[lo]) + (lastOffset[hi+1]-lastOffset[lo]);
+	}
+
+	private void toggle(int k, boolean isOn)
+	{
+		if (stamp[k]!=currentStamp)
+		{
+			stamp[k] = currentStamp;
+			wasActive[k] = isActive[k];
+		}
+		if (isActive[k]!=isOn)
+		{
+			isActive[k] = isOn;
+			activeCount += isOn?1:-1;
+		}
+	}
+
+	// Report every touched interval once, if its state differs from before the move.
+	private void collect(int[] index, int[] offset, int from, int to, List<DynInterval<T>> offList, List<DynInterval<T>> onList)
+	{
+		int lo = Math.min(from, to);
+		int hi = Math.max(from, to);
+		for (int i=offset[lo]; i<offset[hi+1]; i++)
+		{
+			int k = index[i];
+			if (stamp[k]==currentStamp)
+			{
+				stamp[k] = 0;
+				if (isActive[k]!=wasActive[k])
+				{
+					intervals[k].setOn(isActive[k]);
+					if (isActive[k])
+						onList.add(intervals[k]);
+					else
+						offList.add(intervals[k]);
+				}
+			}
+		}
+	}
+
+	private void set(int k, boolean isOn, List<DynInterval<T>> offList, List<DynInterval<T>> onList)
+	{
+		isActive[k] = isOn;
+		activeCount += isOn?1:-1;
+		intervals[k].setOn(isOn);
+		if (isOn)
+			onList.add(intervals[k]);
+		else
+			offList.add(intervals[k]);
+	}
+
+	private static boolean isIncreasing(double[] times)
+	{
+		for (int f=1; f<times.length; f++)
+			if (!(times[f-1]<times[f]))
+				return false;
+		return true;
+	}
+
+}
@@ -43,6 +43,14 @@ public interface DynIntervalTree<T>
 	 * @param object id
 	 */
 	public void insert(DynInterval<T> interval, long id);
+	
+    /**
+     * Insert a batch of new intervals to the tree.
+	 * @param intervals
+	 * @param object ids, ids[k] is the id of intervals[k]
+	 * @param size number of intervals to insert
+	 */
+	public void insert(DynInterval<T>[] intervals, long[] ids, int size);
    
     /**
      * Removes interval from the tree if exists.
@@ -57,6 +65,12 @@ public interface DynIntervalTree<T>
 	 */
 	public List<DynInterval<T>> getIntervals();
 	
+	/**
+	 * Visit all intervals contained in this interval tree.
+	 * @param visitor called back for each interval
+	 */
+	public void getIntervals(DynIntervalVisitor<T> visitor);
+	
 	/**
 	 * Get all intervals corresponding to this object id
 	 * @param object id
@@ -65,17 +79,17 @@ public interface DynIntervalTree<T>
 	public List<DynInterval<T>> getIntervals(long id);
 	
 	/**
-	 *  Get a list of times at which events occur.
-	 * @return time list
+	 * Get the sorted unique times at which events occur.
+	 * @return event times
 	 */
-	public List<Double> getEventTimeList();
+	public double[] getEventTimes();
 	
 	/**
-	 * Get a list of times at which events occur filtered by attribute name.
+	 * Get the sorted unique times at which events occur filtered by attribute name.
 	 * @param attName
-	 * @return time list
+	 * @return event times
 	 */
-	public List<Double> getEventTimeList(String attName);
+	public double[] getEventTimes(String attName);
 	
     /**
      * Search overlapping intervals in the tree.
@@ -84,12 +98,42 @@ public interface DynIntervalTree<T>
 	 */
 	public List<DynInterval<T>> search(DynInterval<T> interval);
 	
+    /**
+     * Search overlapping intervals in the tree.
+	 * @param interval
+	 * @param visitor called back for each interval overlapping with the given interval
+	 */
+	public void search(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
+	
+    /**
+     * Search the intervals that are on at the given time, i.e. that overlap with the 
+     * point interval [time, time].
+	 * @param time
+	 * @param visitor called back for each interval found
+	 */
+	public void search(double time, DynIntervalVisitor<T> visitor);
+	
+	/**
+	 * Get the counter of the intervals contained in this interval tree, to count the
+	 * intervals on at a given time without searching them. The counter is a snapshot
+	 * and must be requested again after the tree is changed.
+	 * @return interval counter
+	 */
+	public DynIntervalCounter<T> getCounter();
+	
     /**
      * Search not overlapping intervals in the tree.
 	 * @param interval
 	 * @return list of not overlapping intervals with the given interval.
 	 */
 	public List<DynInterval<T>> searchNot(DynInterval<T> interval);
+	
+    /**
+     * Search not overlapping intervals in the tree.
+	 * @param interval
+	 * @param visitor called back for each interval not overlapping with the given interval
+	 */
+	public void searchNot(DynInterval<T> interval, DynIntervalVisitor<T> visitor);
 
     /**
      * Clear interval tree.
@@ -62,16 +62,19 @@ public final class DynIntervalTreeImpl<T> extends AbstractDynIntervalTree<T>
 		super(interval, id);
 	}
 	
-	protected void insert(DynNode<T> z, DynNode<T> root)
+	protected DynNode<T> insert(DynNode<T> z, DynNode<T> root)
 	{
 		int dir = 0;
+		// if all nodes were removed, root is the nil sentinel
+		if (root==this.root.getLeft())
+			root.setParent(this.root);
 		while (!root.isLeaf())
 		{	
 			// If duplicate
 			if (z.getStart()==root.getStart() && z.getEnd()==root.getEnd())
 			{
 				root.addInterval(z.getIntervalList().get(0));
-				return;
+				return root;
 			}
 			
 			// Otherwise check direction
@@ -83,6 +86,7 @@ public final class DynIntervalTreeImpl<T> extends AbstractDynIntervalTree<T>
 		}
 		root.getParent().setChildren(dir, z);
 		insertFixUp(z, dir);
+		return z;
 	}
 		
 	private void insertFixUp(DynNode<T> z, int dir)
@@ -105,6 +109,8 @@ public final class DynIntervalTreeImpl<T> extends AbstractDynIntervalTree<T>
 					z = z.getParent();
 					rotate(z,dir);
 				}
+				z.getParent().isBlack(true);
+				z.getParent().getParent().isBlack(false);
 				rotate(z.getParent().getParent(), 1-dir);
 			}
 		}
@@ -113,51 +119,63 @@ public final class DynIntervalTreeImpl<T> extends AbstractDynIntervalTree<T>
 	
 	protected void remove(DynNode<T> z)
 	{
-		z.setMax(Double.NEGATIVE_INFINITY);
-		for (DynNode<T> i = z.getParent(); i != root; i = i.getParent())
-			i.setMax(max(i.getLeft(), i.getRight()));
-
-		DynNode<T> y;
+		DynNode<T> y = z;
+		boolean isBlack = y.isBlack();
 		DynNode<T> x;
 
-		if (z.getLeft().isLeaf() || z.getRight().isLeaf())
-			y = z;
-		else
-			y = this.successor(z);
-		if (y.getLeft().isLeaf())
-			x = y.getRight();
-		else
-			x = y.getLeft();
-		x.setParent(y.getParent());
-		if (root == x.getParent())
-			root.setLeft(x);
+		if (z.getLeft().isLeaf())
+		{
+			x = z.getRight();
+			transplant(z, x);
+		}
+		else if (z.getRight().isLeaf())
+		{
+			x = z.getLeft();
+			transplant(z, x);
+		}
 		else
-			y.getParent().setChildren(getParentDirection(y),x);
-		if (y!=z)
 		{
-			if (y.isBlack())
-				removeFixUp(x);
+			// z is replaced by its successor y, the minimum of its right subtree
+			y = this.getTreeMinimum(z.getRight());
+			isBlack = y.isBlack();
+			x = y.getRight();
+			if (y.getParent()==z)
+				x.setParent(y);
+			else
+			{
+				transplant(y, x);
+				y.setRight(z.getRight());
+			}
+			transplant(z, y);
 			y.setLeft(z.getLeft());
-			y.setRight(z.getRight());
 			y.isBlack(z.isBlack());
-			z.getParent().setChildren(getParentDirection(z),y);
 		}
-		else if (y.isBlack())
+		
+		// the maximum end time changes only on the path from x to the root
+		for (DynNode<T> i = x.getParent(); i != root; i = i.getParent())
+			i.setMax(max(i.getLeft(), i.getRight(), i));
+
+		if (isBlack)
 			removeFixUp(x);
 	}
 	
+	private void transplant(DynNode<T> u, DynNode<T> v)
+	{
+		u.getParent().setChildren(getThisDirection(u), v);
+	}
+	
 	private void removeFixUp(DynNode<T> x)
 	{
 		int dir = 0;
 		while (x!=root.getLeft() && x.isBlack())
 		{
-			dir = getParentDirection(x);
+			dir = getThisDirection(x);
 			DynNode<T> w = x.getParent().getChildren(1-dir);
 			if (!w.isBlack())
 			{
 				w.isBlack(true);
 				x.getParent().isBlack(false);
-				rotate(x.getParent(),1-dir);
+				rotate(x.getParent(),dir);
 				w = x.getParent().getChildren(1-dir);
 			}
 			if (w.getChildren(dir).isBlack() && w.getChildren(1-dir).isBlack())
@@ -169,7 +187,7 @@ public final class DynIntervalTreeImpl<T> extends AbstractDynIntervalTree<T>
 				if (w.getChildren(1-dir).isBlack()) {
 					w.getChildren(dir).isBlack(true);
 					w.isBlack(false);
-					rotate(w,dir);
+					rotate(w,1-dir);
 					w = x.getParent().getChildren(1-dir);
 				}
 				w.isBlack(x.getParent().isBlack());
@@ -181,53 +199,35 @@ public final class DynIntervalTreeImpl<T> extends AbstractDynIntervalTree<T>
 		}
 		x.isBlack(true);
 	}      
-    private DynNode<T> successor(DynNode<T> root)
-    {
-    	DynNode<T> right = root.getRight();
-    	if (!right.isLeaf())
-    		return this.getTreeMinimum(right);
-    	else
-    		return this.getUp(right);
-    }
-    
-    private DynNode<T> getUp(DynNode<T> root)
-    {
-    	DynNode<T> up = root.getParent();
-    	while (!up.isLeaf() && root == up.getRight())
-    	{
-    		root = up;
-    		up = up.getParent();
-    	}
-    	return up;
-    }
 
     private DynNode<T> getTreeMinimum(DynNode<T> root)
     {
     	DynNode<T> left = root;
-    	while (!root.getLeft().isLeaf())
+    	while (!left.getLeft().isLeaf())
     		left = left.getLeft();
     	return left;
     }
 
     private DynNode<T> rotate(DynNode<T> root, int dir)
     {
+    	// the parent of nil is used by removeFixUp and must not change
+    	DynNode<T> nilParent = nil.getParent();
     	DynNode<T> pivot = root.getChildren(1-dir);
     	root.setChildren(1-dir,pivot.getChildren(dir));
-    	root.getParent().setChildren(getThisDirection(root, dir),pivot);
+    	root.getParent().setChildren(getThisDirection(root),pivot);
     	pivot.setChildren(dir,root);
-    	root.isBlack(false);
-    	pivot.isBlack(true);
+    	nil.setParent(nilParent);
     	pivot.setMax(root.getMax());
     	root.setMax(max(root.getLeft(),root.getRight(),root));
     	return pivot;
     }
 
-    private int getThisDirection(DynNode<T> z, int dir)
+    private int getThisDirection(DynNode<T> z)
     {
-    	if (z == z.getParent().getChildren(dir))
-			return dir;
+    	if (z == z.getParent().getLeft())
+			return 0;
 		else
-			return 1-dir;
+			return 1;
     }
     
     private int getParentDirection(DynNode<T> z)
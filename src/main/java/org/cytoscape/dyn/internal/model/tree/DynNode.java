@@ -229,15 +229,24 @@ public final class DynNode<T>
 	 * @return interval list
 	 */
 	public List<DynInterval<T>> getIntervals(List<DynInterval<T>> intervalList)
+	{
+		getIntervals(new DynIntervalBuffer<T>(intervalList));
+		return intervalList;
+	}
+	
+	/**
+	 * Visit all time intervals in this interval tree.
+	 * @param visitor
+	 */
+	public void getIntervals(DynIntervalVisitor<T> visitor)
 	{
 		if (!this.isLeaf())
 		{
-			this.children[0].getIntervals(intervalList);
+			this.children[0].getIntervals(visitor);
 			for (DynInterval<T> interval : this.intervalList)
-				intervalList.add(interval);
-			this.children[1].getIntervals(intervalList);
+				visitor.visit(interval);
+			this.children[1].getIntervals(visitor);
 		}
-		return intervalList;
 	}
 	
 	/**
@@ -247,17 +256,26 @@ public final class DynNode<T>
 	 * @return interval list
 	 */
 	public List<DynInterval<T>> searchNot(List<DynInterval<T>> intervalList, DynInterval<T> interval)
+	{
+		searchNot(new DynIntervalBuffer<T>(intervalList), interval);
+		return intervalList;
+	}
+	
+	/**
+	 * Visit the time intervals that do not overlap with the given time interval.
+	 * @param visitor
+	 * @param interval
+	 */
+	public void searchNot(DynIntervalVisitor<T> visitor, DynInterval<T> interval)
 	{
 		if (!this.isLeaf())
 		{
-			this.children[0].searchNot(intervalList, interval);
+			this.children[0].searchNot(visitor, interval);
 			if (this.intervalList.get(0).compareTo(interval)<0)
 				for (DynInterval<T> i : this.intervalList)
-					intervalList.add(i);
-			this.children[1].searchNot(intervalList,interval);
+					visitor.visit(i);
+			this.children[1].searchNot(visitor, interval);
 		}
-		
-		return intervalList;
 	}
 	
 	/**
@@ -267,17 +285,47 @@ public final class DynNode<T>
 	 * @return interval list
 	 */
 	public List<DynInterval<T>> search(List<DynInterval<T>> intervalList, DynInterval<T> interval)
+	{
+		search(new DynIntervalBuffer<T>(intervalList), interval);
+		return intervalList;
+	}
+	
+	/**
+	 * Visit the time intervals that overlap with the given time interval.
+	 * @param visitor
+	 * @param interval
+	 */
+	public void search(DynIntervalVisitor<T> visitor, DynInterval<T> interval)
 	{
 		if (!this.isLeaf() && interval.getStart()<=this.getMax())
 		{
-			this.children[0].search(intervalList, interval);
+			this.children[0].search(visitor, interval);
 			if (this.intervalList.get(0).compareTo(interval)>0)
 				for (DynInterval<T> i : this.intervalList)
-					intervalList.add(i);
+					visitor.visit(i);
 			if (interval.getEnd()>=this.intervalList.get(0).getStart())
-				this.children[1].search(intervalList, interval);
+				this.children[1].search(visitor, interval);
+		}
+	}
+	
+	/**
+	 * Visit the time intervals that overlap with the point interval [time, time].
+	 * @param visitor
+	 * @param time
+	 */
+	public void search(DynIntervalVisitor<T> visitor, double time)
+	{
+		if (!this.isLeaf() && time<=this.getMax())
+		{
+			this.children[0].search(visitor, time);
+			double start = this.intervalList.get(0).getStart();
+			double end = this.intervalList.get(0).getEnd();
+			if ((start<=time && time<end) || (start==end && start==time))
+				for (DynInterval<T> i : this.intervalList)
+					visitor.visit(i);
+			if (time>=start)
+				this.children[1].search(visitor, time);
 		}
-		return intervalList;
 	}
 	
 	/**
@@ -310,13 +358,15 @@ public final class DynNode<T>
 	{
 		if (!this.isLeaf() && interval.getStart()<=this.getMax())
 		{
-			this.children[0].searchThisNode(interval);
+			DynNode<T> node = this.children[0].searchThisNode(interval);
+			if (node!=null)
+				return node;
 			if (this.intervalList.get(0).getStart()==interval.getStart() && this.intervalList.get(0).getEnd()==interval.getEnd())
 				for (DynInterval<T> i : this.intervalList)	
 					if (i==interval)
 						return this;
 			if (interval.getEnd()>=this.intervalList.get(0).getStart())
-				this.children[1].searchThisNode(interval);
+				return this.children[1].searchThisNode(interval);
 		}
 		return null;
 	}
@@ -0,0 +1,210 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.view.gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.text.DecimalFormat;
+
+import javax.swing.JComponent;
+import javax.swing.JSlider;
+
+import org.cytoscape.dyn.internal.model.DynNetwork;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalCounter;
+
+/**
+ * <code> DynActivityHistogram </code> draws the activity of the dynamic network above the
+ * time slider: the time range of the slider is split into buckets, and for each bucket
+ * the bar shows the number of nodes on at the start of the bucket and the line the number 
+ * of nodes and edges that appear or disappear within the bucket. The counts are taken from
+ * the {@link DynIntervalCounter}s of the network, i.e. O(log n) for each bucket, so that no 
+ * interval is searched. Clicking on a bucket moves the slider to its start time.
+ * 
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ */
+public final class DynActivityHistogram<T> extends JComponent
+{
+	private static final long serialVersionUID = 1L;
+	
+	private static final int BAR_WIDTH = 3;
+	private static final Color BAR_COLOR = new Color(100, 140, 190);
+	private static final Color RATE_COLOR = new Color(230, 120, 30);
+	private static final Color TIME_COLOR = Color.red;
+
+	private final JSlider slider;
+	private final DecimalFormat formatter;
+
+	private DynIntervalCounter<T> nodes;
+	private DynIntervalCounter<T> edges;
+	private double minTime;
+	private double maxTime;
+
+	private int buckets;
+	private int[] aliveNodes;
+	private int[] aliveEdges;
+	private int[] changes;
+	private int maxAlive;
+	private int maxChanges;
+
+	/**
+	 * <code> DynActivityHistogram </code> constructor.
+	 * @param slider
+	 */
+	public DynActivityHistogram(JSlider slider)
+	{
+		this.slider = slider;
+		this.formatter = new DecimalFormat("#0.000");
+		this.setPreferredSize(new Dimension(280, 40));
+		this.setToolTipText("");
+		this.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				int value = getSliderValue(e.getX());
+				if (value>=0)
+					DynActivityHistogram.this.slider.setValue(value);
+			}
+		});
+	}
+
+	/**
+	 * Count the activity of the network in the given time range.
+	 * @param network
+	 * @param minTime
+	 * @param maxTime
+	 */
+	public synchronized void update(DynNetwork<T> network, double minTime, double maxTime)
+	{
+		this.nodes = network.getNodeCounter();
+		this.edges = network.getEdgeCounter();
+		this.minTime = minTime;
+		this.maxTime = maxTime;
+		this.buckets = 0;
+		repaint();
+	}
+
+	@Override
+	public synchronized String getToolTipText(MouseEvent e)
+	{
+		int bucket = getBucket(e.getX());
+		if (bucket<0)
+			return null;
+		return "<html>Time = " + formatter.format(getTime(bucket)) + " - " + formatter.format(getTime(bucket+1)) +
+				"<br>Nodes = " + aliveNodes[bucket] + ", edges = " + aliveEdges[bucket] +
+				"<br>Changes = " + changes[bucket] + "</html>";
+	}
+
+	@Override
+	protected synchronized void paintComponent(Graphics g)
+	{
+		super.paintComponent(g);
+		Insets insets = getInsets();
+		int width = getWidth()-insets.left-insets.right;
+		int height = getHeight()-insets.top-insets.bottom;
+		if (!count(width/BAR_WIDTH))
+			return;
+
+		g.setColor(BAR_COLOR);
+		for (int i=0; i<buckets; i++)
+		{
+			int x = insets.left + i*width/buckets;
+			int h = maxAlive>0 ? aliveNodes[i]*height/maxAlive : 0;
+			g.fillRect(x, insets.top+height-h, Math.max(1, insets.left+(i+1)*width/buckets-x-1), h);
+		}
+
+		g.setColor(RATE_COLOR);
+		int x0 = 0;
+		int y0 = 0;
+		for (int i=0; i<buckets; i++)
+		{
+			int x = insets.left + (2*i+1)*width/(2*buckets);
+			int y = insets.top + height-1 - (maxChanges>0 ? changes[i]*(height-1)/maxChanges : 0);
+			if (i>0)
+				g.drawLine(x0, y0, x, y);
+			x0 = x;
+			y0 = y;
+		}
+
+		if (slider.getMaximum()>0)
+		{
+			g.setColor(TIME_COLOR);
+			int x = insets.left + (int) ((long) slider.getValue()*(width-1)/slider.getMaximum());
+			g.drawLine(x, insets.top, x, insets.top+height-1);
+		}
+	}
+
+	private boolean count(int n)
+	{
+		if (nodes==null || !(minTime<maxTime) || n<1)
+			return false;
+		if (n==buckets)
+			return true;
+
+		buckets = n;
+		aliveNodes = new int[n];
+		aliveEdges = new int[n];
+		changes = new int[n];
+		maxAlive = 0;
+		maxChanges = 0;
+		for (int i=0; i<n; i++)
+		{
+			double from = getTime(i);
+			// the last bucket also contains the events at the maximum time
+			double to = i==n-1 ? Math.nextUp(maxTime) : getTime(i+1);
+			aliveNodes[i] = nodes.count(from);
+			aliveEdges[i] = edges.count(from);
+			changes[i] = nodes.countEvents(from, to) + edges.countEvents(from, to);
+			maxAlive = Math.max(maxAlive, aliveNodes[i]);
+			maxChanges = Math.max(maxChanges, changes[i]);
+		}
+		return true;
+	}
+
+	private synchronized int getBucket(int x)
+	{
+		Insets insets = getInsets();
+		int width = getWidth()-insets.left-insets.right;
+		if (!count(width/BAR_WIDTH) || x<insets.left || x>=insets.left+width)
+			return -1;
+		return (x-insets.left)*buckets/width;
+	}
+
+	private synchronized int getSliderValue(int x)
+	{
+		int bucket = getBucket(x);
+		if (bucket<0)
+			return -1;
+		// first slider position within the bucket
+		return (int) Math.ceil((double) bucket*slider.getMaximum()/buckets);
+	}
+
+	private double getTime(int bucket)
+	{
+		return minTime + bucket*((maxTime-minTime)/buckets);
+	}
+
+}
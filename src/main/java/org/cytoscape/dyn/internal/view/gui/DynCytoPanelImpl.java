@@ -31,6 +31,7 @@ import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.zip.Deflater;
 
 import javax.swing.BorderFactory;
 import javax.swing.GroupLayout;
@@ -62,6 +63,7 @@ import org.cytoscape.dyn.internal.view.model.DynNetworkViewManager;
 import org.cytoscape.dyn.internal.view.task.BlockingQueue;
 import org.cytoscape.dyn.internal.view.task.DynNetworkViewTask;
 import org.cytoscape.dyn.internal.view.task.DynNetworkViewTaskIterator;
+import org.cytoscape.dyn.internal.view.task.DynNetworkViewTimelineTask;
 import org.cytoscape.dyn.internal.view.task.DynNetworkViewTransparencyTask;
 import org.cytoscape.dyn.internal.view.task.DynVizmapTask;
 import org.cytoscape.dyn.internal.view.task.Transformator;
@@ -118,10 +120,13 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 	private volatile JLabel nodeNumber;
 	private JLabel edgeNumber;
 	private JSlider slider;
+	private DynActivityHistogram<T> histogram;
 	private JComboBox resolutionComboBox;
 	private JComboBox smoothnessComboBox;
+	private JComboBox compressionComboBox;
 	private JButton forwardButton, backwardButton,stopButton,vizmapButton,recordButton;
 	private JCheckBox seeAllCheck;
+	private JCheckBox timelineCheck;
 	private Hashtable<Integer, JLabel> labelTable;
 	private DecimalFormat formatter,formatter2;
 
@@ -167,6 +172,7 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 			{
 				time = slider.getValue()*((maxTime-minTime)/sliderMax)+(minTime);
 				currentTime.setText("Current time = " + formatter.format(time));
+				histogram.repaint();
 				if (!valueIsAdjusting)
 				{
 					updateView();
@@ -211,7 +217,8 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 
 					if (file!=null)
 					{
-						transformator.addSink(new PNGWriterFactory<T>(file,appManager.getCurrentRenderingEngine()));
+						transformator.addSink(new PNGWriterFactory<T>(file,appManager.getCurrentRenderingEngine(),
+								((NameIDObj)compressionComboBox.getSelectedItem()).id));
 						updateView();
 
 					}
@@ -244,6 +251,8 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 				if (!valueIsAdjusting)
 					updateTransparency();
 			}
+			else if (source==timelineCheck)
+				updateTimeline();
 		}
 		else if (event.getSource() instanceof JComboBox)
 		{
@@ -428,6 +437,7 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 		slider.setPaintTicks(true);
 		slider.setPaintLabels(true);
 		slider.addChangeListener(this);
+		histogram = new DynActivityHistogram<T>(slider);
 		
 		buttonPanel = new JPanel();
 		buttonPanel.setLayout(new GridBagLayout());
@@ -448,8 +458,9 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 		recordPanel.add(recordButton);
 		
 		dynVizPanel = new JPanel();
-		dynVizPanel.setLayout(new GridLayout(4,1));
+		dynVizPanel.setLayout(new GridLayout(5,1));
 		dynVizPanel.add(currentTime);
+		dynVizPanel.add(histogram);
 		dynVizPanel.add(slider);
 		dynVizPanel.add(buttonPanel);
 		dynVizPanel.add(recordPanel);
@@ -482,14 +493,25 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 		smoothnessComboBox.addActionListener(this);
 		this.smoothness = ((NameIDObj)smoothnessComboBox.getSelectedItem()).id;
 
+		NameIDObj[] itemsCompression = { 
+				new NameIDObj(Deflater.NO_COMPRESSION,      "None    "), 
+				new NameIDObj(Deflater.BEST_SPEED,          "Fast    "),
+				new NameIDObj(Deflater.DEFAULT_COMPRESSION, "Default "),
+				new NameIDObj(Deflater.BEST_COMPRESSION,    "Best    ")};
+		compressionComboBox  = new JComboBox(itemsCompression);
+		compressionComboBox.setSelectedIndex(1);
+
 		vizmapButton = new JButton("Reset");
 		vizmapButton.addActionListener(this);
 		
 		seeAllCheck = new JCheckBox("Display all",false);
 		seeAllCheck.addActionListener(this);
 		
+		timelineCheck = new JCheckBox("Precompute",false);
+		timelineCheck.addActionListener(this);
+		
 		featurePanel = new JPanel();
-		featurePanel.setLayout(new GridLayout(4,2));
+		featurePanel.setLayout(new GridLayout(6,2));
 		featurePanel.add(new JLabel("Time resolution      "));
 		featurePanel.add(resolutionComboBox);
 		featurePanel.add(new JLabel("Time smoothness      "));
@@ -498,6 +520,10 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 		featurePanel.add(vizmapButton);
 		featurePanel.add(new JLabel("Node/edge visibility "));
 		featurePanel.add(seeAllCheck);
+		featurePanel.add(new JLabel("Playback frames      "));
+		featurePanel.add(timelineCheck);
+		featurePanel.add(new JLabel("PNG compression      "));
+		featurePanel.add(compressionComboBox);
 		
 		// TODO: remove this after fixing bugs in the visualization
 		seeAllCheck.setEnabled(false);
@@ -548,10 +574,10 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 				);
 				layout.setVerticalGroup(
 				   layout.createSequentialGroup()
-				      .addComponent(dynVizPanel, 190,
-				    		  GroupLayout.DEFAULT_SIZE, 270)
+				      .addComponent(dynVizPanel, 240,
+				    		  GroupLayout.DEFAULT_SIZE, 340)
 				      .addComponent(featurePanel,  GroupLayout.DEFAULT_SIZE,
-				    		  200 , Short.MAX_VALUE)
+				    		  240 , Short.MAX_VALUE)
 				      .addComponent(measurePanel, GroupLayout.DEFAULT_SIZE,
 				    		   500, Short.MAX_VALUE)
 				);
@@ -572,6 +598,25 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 		new Thread(new DynNetworkViewTransparencyTask<T,C>(this,view,queue)).start();
 	}
 	
+	private void updateTimeline()
+	{
+		if (view==null)
+			return;
+		
+		double[] times = null;
+		if (timelineCheck.isSelected())
+		{
+			times = new double[sliderMax+1];
+			for (int i=0;i<=sliderMax;i++)
+			{
+				// same time intervals as used by the slider and the playback tasks
+				double frameTime = i*((maxTime-minTime)/sliderMax)+(minTime);
+				times[i] = frameTime>=maxTime ? frameTime-0.0000001 : frameTime;
+			}
+		}
+		new Thread(new DynNetworkViewTimelineTask<T,C>(this,view,transformator,queue,times)).start();
+	}
+	
 	private void updateGui(double absoluteTime, int value)
 	{
 		if (value==1)
@@ -586,6 +631,7 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 		
 		time = slider.getValue()*((maxTime-minTime)/sliderMax)+(minTime);
 		currentTime.setText("Current time = " + formatter.format(time));
+		histogram.update(network, minTime, maxTime);
 		
 		SwingUtilities.invokeLater(new Runnable()
 		{
@@ -602,6 +648,9 @@ ChangeListener, ActionListener, SetCurrentNetworkViewListener
 				slider.setPaintLabels(true);
 			}
 		});
+		
+		if (timelineCheck.isSelected())
+			updateTimeline();
 	}
 	
 	private List<FileChooserFilter> getFilters()
@@ -79,6 +79,18 @@ public interface DynNetworkView<T>
 	 */
 	public List<DynInterval<T>> searchChangedEdgesAttr(DynInterval<T> interval);
 	
+	/**
+	 * Compile the node, edge and attribute intervals for the given frame times, so
+	 * that the changed intervals of these frames are replayed without tree search.
+	 * @param times
+	 */
+	public void compileTimeline(double[] times);
+	
+	/**
+	 * Release the compiled timeline and go back to tree search.
+	 */
+	public void releaseTimeline();
+	
 	/**
 	 * Get network view.
 	 * @return view
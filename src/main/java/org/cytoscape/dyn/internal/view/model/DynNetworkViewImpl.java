@@ -19,13 +19,13 @@
 
 package org.cytoscape.dyn.internal.view.model;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cytoscape.dyn.internal.model.DynNetwork;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalChangeDetector;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNode;
 import org.cytoscape.view.model.CyNetworkView;
@@ -54,13 +54,14 @@ public final class DynNetworkViewImpl<T> implements DynNetworkView<T>
 	private int visibleNodes;
 	private int visibleEdges;
 	
-	private List<DynInterval<T>> currentNodes;
-	private List<DynInterval<T>> currentEdges;
-	private List<DynInterval<T>> currentGraphsAttr;
-	private List<DynInterval<T>> currentNodesAttr;
-	private List<DynInterval<T>> currentEdgesAttr;
+	private final DynIntervalChangeDetector<T> currentNodes;
+	private final DynIntervalChangeDetector<T> currentEdges;
+	private final DynIntervalChangeDetector<T> currentGraphsAttr;
+	private final DynIntervalChangeDetector<T> currentNodesAttr;
+	private final DynIntervalChangeDetector<T> currentEdgesAttr;
 	
 	private double currentTime;
+	private int timelineCount;
 
 	public DynNetworkViewImpl(
 			DynNetwork<T> dynNetwork,
@@ -76,11 +77,11 @@ public final class DynNetworkViewImpl<T> implements DynNetworkView<T>
 		this.visibleNodes = 0;
 		this.visibleEdges = 0;
 		
-		this.currentNodes = new ArrayList<DynInterval<T>>();
-		this.currentEdges = new ArrayList<DynInterval<T>>();
-		this.currentGraphsAttr = new ArrayList<DynInterval<T>>();
-		this.currentNodesAttr = new ArrayList<DynInterval<T>>();
-		this.currentEdgesAttr = new ArrayList<DynInterval<T>>();
+		this.currentNodes = new DynIntervalChangeDetector<T>();
+		this.currentEdges = new DynIntervalChangeDetector<T>();
+		this.currentGraphsAttr = new DynIntervalChangeDetector<T>();
+		this.currentNodesAttr = new DynIntervalChangeDetector<T>();
+		this.currentEdgesAttr = new DynIntervalChangeDetector<T>();
 		
 		this.nodeDummyValue = new HashMap<CyNode,Integer>();
 		this.edgeDummyValue = new HashMap<CyEdge,Integer>();
@@ -101,48 +102,93 @@ public final class DynNetworkViewImpl<T> implements DynNetworkView<T>
 	@Override
 	public List<DynInterval<T>> searchChangedNodes(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = dynNetwork.searchNodes(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentNodes, tempList);
-		this.visibleNodes = tempList.size();
-		currentNodes = tempList;
+		List<DynInterval<T>> changedList;
+		if (hasTimeline(currentNodes))
+			changedList = currentNodes.replay(interval);
+		else
+		{
+			dynNetwork.searchNodes(interval, currentNodes.next());
+			changedList = currentNodes.update();
+		}
+		this.visibleNodes = currentNodes.size();
 		return changedList;
 	}
 
 	@Override
 	public List<DynInterval<T>> searchChangedEdges(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = dynNetwork.searchEdges(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentEdges, tempList);
-		this.visibleEdges = tempList.size();
-		currentEdges = tempList;
+		List<DynInterval<T>> changedList;
+		if (hasTimeline(currentEdges))
+			changedList = currentEdges.replay(interval);
+		else
+		{
+			dynNetwork.searchEdges(interval, currentEdges.next());
+			changedList = currentEdges.update();
+		}
+		this.visibleEdges = currentEdges.size();
 		return changedList;
 	}
 	
 	@Override
 	public List<DynInterval<T>> searchChangedGraphsAttr(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = dynNetwork.searchGraphsAttr(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentGraphsAttr, tempList);
-		currentGraphsAttr = tempList;
-		return changedList;
+		if (hasTimeline(currentGraphsAttr))
+			return currentGraphsAttr.replay(interval);
+		dynNetwork.searchGraphsAttr(interval, currentGraphsAttr.next());
+		return currentGraphsAttr.update();
 	}
 
 	@Override
 	public List<DynInterval<T>> searchChangedNodesAttr(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = dynNetwork.searchNodesAttr(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentNodesAttr, tempList);
-		currentNodesAttr = tempList;
-		return changedList;
+		if (hasTimeline(currentNodesAttr))
+			return currentNodesAttr.replay(interval);
+		dynNetwork.searchNodesAttr(interval, currentNodesAttr.next());
+		return currentNodesAttr.update();
 	}
 
 	@Override
 	public List<DynInterval<T>> searchChangedEdgesAttr(DynInterval<T> interval)
 	{
-		List<DynInterval<T>> tempList = dynNetwork.searchEdgesAttr(interval);
-		List<DynInterval<T>> changedList = nonOverlap(currentEdgesAttr, tempList);
-		currentEdgesAttr = tempList;
-		return changedList;
+		if (hasTimeline(currentEdgesAttr))
+			return currentEdgesAttr.replay(interval);
+		dynNetwork.searchEdgesAttr(interval, currentEdgesAttr.next());
+		return currentEdgesAttr.update();
+	}
+
+	@Override
+	public void compileTimeline(double[] times)
+	{
+		timelineCount = dynNetwork.getModificationCount();
+		currentNodes.setTimeline(dynNetwork.getNodeTimeline(times));
+		currentEdges.setTimeline(dynNetwork.getEdgeTimeline(times));
+		currentGraphsAttr.setTimeline(dynNetwork.getGraphAttrTimeline(times));
+		currentNodesAttr.setTimeline(dynNetwork.getNodeAttrTimeline(times));
+		currentEdgesAttr.setTimeline(dynNetwork.getEdgeAttrTimeline(times));
+	}
+
+	@Override
+	public void releaseTimeline()
+	{
+		currentNodes.setTimeline(null);
+		currentEdges.setTimeline(null);
+		currentGraphsAttr.setTimeline(null);
+		currentNodesAttr.setTimeline(null);
+		currentEdgesAttr.setTimeline(null);
+	}
+
+	// A timeline compiled before the network trees changed would replay stale
+	// frames, so it is dropped and the trees are searched again.
+	private boolean hasTimeline(DynIntervalChangeDetector<T> detector)
+	{
+		if (!detector.hasTimeline())
+			return false;
+		if (timelineCount!=dynNetwork.getModificationCount())
+		{
+			releaseTimeline();
+			return false;
+		}
+		return true;
 	}
 
 	@Override
@@ -216,23 +262,5 @@ public final class DynNetworkViewImpl<T> implements DynNetworkView<T>
 	{
 		return this.edgeDummyValue.get(edge);
 	}
-	
-	private List<DynInterval<T>> nonOverlap(List<DynInterval<T>> list1, List<DynInterval<T>> list2) 
-	{
-		List<DynInterval<T>> diff = new ArrayList<DynInterval<T>>();
-		for (DynInterval<T> i : list1)
-			if (!list2.contains(i))
-			{
-				diff.add(i);
-				i.setOn(false);
-			}
-		for (DynInterval<T> i : list2)
-			if (!list1.contains(i))
-			{
-				diff.add(i);
-				i.setOn(true);
-			}
-		return diff;
-	}
 
 }
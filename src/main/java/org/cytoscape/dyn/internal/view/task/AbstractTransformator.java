@@ -45,7 +45,7 @@ import org.cytoscape.view.presentation.property.BasicVisualLexicon;
 public abstract class AbstractTransformator<T> implements Source<T>, UpdateNetworkPresentationListener
 {
 
-	protected DynNetworkViewWriterFactory<T> writerFactory;
+	protected volatile DynNetworkViewWriterFactory<T> writerFactory;
 	
 	protected double alpha;
 	protected int iterations;
@@ -72,11 +72,11 @@ public abstract class AbstractTransformator<T> implements Source<T>, UpdateNetwo
 	@Override
 	public void removeSink(Sink<T> sink) 
 	{
-		if (writerFactory!=null)
-		{
-			this.writerFactory.dispose();
-			this.writerFactory = null;
-		}
+		// the animation thread may still read the field, clear it before disposing
+		DynNetworkViewWriterFactory<T> writer = writerFactory;
+		this.writerFactory = null;
+		if (writer!=null)
+			writer.dispose();
 	}
 
 	@Override
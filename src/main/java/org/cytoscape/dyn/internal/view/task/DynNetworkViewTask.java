@@ -82,8 +82,8 @@ public final class DynNetworkViewTask<T,C> extends AbstractDynNetworkViewTask<T,
 		// update node and edges visual properties
 		transformator.run(dynNetwork,view,timeInterval,visibility,smoothness,deltat);
 
-		panel.setNodes(view.getVisibleNodes());
-		panel.setEdges(view.getVisibleEdges());
+		panel.setNodes(dynNetwork.countNodes(timeInterval.getStart()));
+		panel.setEdges(dynNetwork.countEdges(timeInterval.getStart()));
 		
 		view.updateView();
 		
@@ -144,8 +144,8 @@ public final class DynNetworkViewTaskIterator<T,C> extends AbstractDynNetworkVie
 		// update node and edges visual properties
 		transformator.run(dynNetwork,view,timeInterval,visibility,smoothness,deltat);
 		
-		panel.setNodes(view.getVisibleNodes());
-		panel.setEdges(view.getVisibleEdges());
+		panel.setNodes(dynNetwork.countNodes(timeInterval.getStart()));
+		panel.setEdges(dynNetwork.countEdges(timeInterval.getStart()));
 	}
 	
 	public void updateTransparency(int visibility) 
@@ -0,0 +1,72 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.view.task;
+
+import org.cytoscape.dyn.internal.view.gui.DynCytoPanelImpl;
+import org.cytoscape.dyn.internal.view.model.DynNetworkView;
+
+/**
+ * <code> DynNetworkViewTimelineTask </code> compiles the timeline of the network view
+ * for the current positions of the time slider, so that playback replays precomputed
+ * changes instead of searching the interval trees, or releases the compiled timeline
+ * if no frame times are given.
+ * 
+ * @author Sabina Sara Pfister
+ *
+ * @param <T>
+ * @param <C>
+ */
+public final class DynNetworkViewTimelineTask<T,C> extends AbstractDynNetworkViewTask<T,C>  
+{
+	private final double[] times;
+
+	/**
+	 * <code> DynNetworkViewTimelineTask </code> constructor.
+	 * @param panel
+	 * @param view
+	 * @param transformator
+	 * @param queue
+	 * @param times
+	 */
+	public DynNetworkViewTimelineTask(
+			final DynCytoPanelImpl<T,C> panel,
+			final DynNetworkView<T> view,
+			final Transformator<T> transformator,
+			final BlockingQueue queue,
+			final double[] times) 
+	{
+		super(panel, view, transformator, queue);
+		this.times = times;
+	}
+
+	@Override
+	public void run() 
+	{
+		queue.lock(); 
+
+		if (times!=null)
+			transformator.compileTimeline(view, times);
+		else
+			transformator.releaseTimeline(view);
+		
+		queue.unlock();
+	}
+
+}
@@ -21,6 +21,7 @@ package org.cytoscape.dyn.internal.view.task;
 
 import java.util.List;
 
+import org.cytoscape.dyn.internal.io.write.DynNetworkViewWriterFactory;
 import org.cytoscape.dyn.internal.layout.model.DynLayout;
 import org.cytoscape.dyn.internal.layout.model.DynLayoutManager;
 import org.cytoscape.dyn.internal.model.DynNetwork;
@@ -193,8 +194,9 @@ public class Transformator<T> extends AbstractTransformator<T>
 				}
 			}
 			
-			if (writerFactory!=null)
-				writerFactory.updateView(dynNetwork,timeInterval.getStart(),i);
+			DynNetworkViewWriterFactory<T> writer = writerFactory;
+			if (writer!=null)
+				writer.updateView(dynNetwork,timeInterval.getStart(),i);
 			
 			
 		}
@@ -238,6 +240,32 @@ public class Transformator<T> extends AbstractTransformator<T>
 		view.getNetworkView().fitContent();
 	}
 
+	/**
+	 * Compile the timeline of the network, layout and vizmap of the given view
+	 * for the given frame times.
+	 * @param view
+	 * @param times
+	 */
+	public void compileTimeline(
+			final DynNetworkView<T> view,
+			final double[] times)
+	{
+		view.compileTimeline(times);
+		layoutManager.getDynLayout(view.getNetworkView()).compileTimeline(times);
+		vizMapManager.getDynVizMap(view.getNetworkView()).compileTimeline(times);
+	}
+
+	/**
+	 * Release the compiled timeline of the network, layout and vizmap of the given view.
+	 * @param view
+	 */
+	public void releaseTimeline(final DynNetworkView<T> view)
+	{
+		view.releaseTimeline();
+		layoutManager.getDynLayout(view.getNetworkView()).releaseTimeline();
+		vizMapManager.getDynVizMap(view.getNetworkView()).releaseTimeline();
+	}
+
 
 
 }
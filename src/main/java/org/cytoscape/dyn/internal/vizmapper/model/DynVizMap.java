@@ -102,6 +102,18 @@ public interface DynVizMap<T>
 	 */
 	public List<DynInterval<T>> searchChangedEdgeTransparencyGraphics(DynInterval<T> interval);
 	
+	/**
+	 * Compile the graphics intervals for the given frame times, so that the
+	 * changed intervals of these frames are replayed without tree search.
+	 * @param times
+	 */
+	public void compileTimeline(double[] times);
+	
+	/**
+	 * Release the compiled timeline and go back to tree search.
+	 */
+	public void releaseTimeline();
+	
 	/**
 	 * Finalize dynamic vizmap. We perform here all operations that require the network vizmap
 	 * to be finished.
@@ -29,6 +29,8 @@ import org.cytoscape.dyn.internal.model.DynNetwork;
 import org.cytoscape.dyn.internal.model.attribute.AbstractDynAttributeCheck;
 import org.cytoscape.dyn.internal.model.attribute.DynAttribute;
 import org.cytoscape.dyn.internal.model.tree.DynInterval;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalChangeDetector;
+import org.cytoscape.dyn.internal.model.tree.DynIntervalTimeline;
 import org.cytoscape.dyn.internal.model.tree.DynIntervalTree;
 import org.cytoscape.dyn.internal.model.tree.DynIntervalTreeImpl;
 import org.cytoscape.model.CyEdge;
@@ -53,11 +55,11 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 	private final CyNetworkView view;
 	private final DynNetwork<T> dynNetwork;
 	
-	private List<DynInterval<T>> currentGraphsAttr;
-	private List<DynInterval<T>> currentNodesAttr;
-	private List<DynInterval<T>> currentEdgesAttr;
-	private List<DynInterval<T>> currentTrasnparencyNodesAttr;
-	private List<DynInterval<T>> currentTrasnparencyEdgesAttr;
+	private final DynIntervalChangeDetector<T> currentGraphsAttr;
+	private final DynIntervalChangeDetector<T> currentNodesAttr;
+	private final DynIntervalChangeDetector<T> currentEdgesAttr;
+	private final DynIntervalChangeDetector<T> currentTrasnparencyNodesAttr;
+	private final DynIntervalChangeDetector<T> currentTrasnparencyEdgesAttr;
 	
 	private final Map<KeyPairs,DynAttribute<T>> graphTable;
 	private final Map<KeyPairs,DynAttribute<T>> nodeTable;
@@ -85,11 +87,11 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 		this.view = networkView;
 		this.dynNetwork = dynNetwork;
 		
-		this.currentGraphsAttr = new ArrayList<DynInterval<T>>();
-		this.currentNodesAttr = new ArrayList<DynInterval<T>>();
-		this.currentEdgesAttr = new ArrayList<DynInterval<T>>();
-		this.currentTrasnparencyNodesAttr = new ArrayList<DynInterval<T>>();
-		this.currentTrasnparencyEdgesAttr = new ArrayList<DynInterval<T>>();
+		this.currentGraphsAttr = new DynIntervalChangeDetector<T>();
+		this.currentNodesAttr = new DynIntervalChangeDetector<T>();
+		this.currentEdgesAttr = new DynIntervalChangeDetector<T>();
+		this.currentTrasnparencyNodesAttr = new DynIntervalChangeDetector<T>();
+		this.currentTrasnparencyEdgesAttr = new DynIntervalChangeDetector<T>();
 
 		this.graphTreeAttr = new DynIntervalTreeImpl<T>();
 		this.nodeTreeAttr = new DynIntervalTreeImpl<T>();
@@ -156,6 +158,8 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 				}
 				else
 					edgeTreeAttr.insert(interval, attr.getRow());
+		
+		releaseTimeline();
 	}
 
 	@Override
@@ -175,10 +179,10 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 	{
 		if (!graphTable.isEmpty())
 		{
-			List<DynInterval<T>> tempList = graphTreeAttr.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentGraphsAttr, tempList);
-			currentGraphsAttr = tempList;
-			return changedList;
+			if (currentGraphsAttr.hasTimeline())
+				return currentGraphsAttr.replay(interval);
+			graphTreeAttr.search(interval, currentGraphsAttr.next());
+			return currentGraphsAttr.update();
 		}
 		else
 			return this.emptyList;
@@ -189,10 +193,10 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 	{
 		if (!nodeTable.isEmpty())
 		{
-			List<DynInterval<T>> tempList = nodeTreeAttr.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentNodesAttr, tempList);
-			currentNodesAttr = tempList;
-			return changedList;
+			if (currentNodesAttr.hasTimeline())
+				return currentNodesAttr.replay(interval);
+			nodeTreeAttr.search(interval, currentNodesAttr.next());
+			return currentNodesAttr.update();
 		}
 		else
 			return this.emptyList;
@@ -203,10 +207,10 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 	{
 		if (!edgeTable.isEmpty())
 		{
-			List<DynInterval<T>> tempList = edgeTreeAttr.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentEdgesAttr, tempList);
-			currentEdgesAttr = tempList;
-			return changedList;
+			if (currentEdgesAttr.hasTimeline())
+				return currentEdgesAttr.replay(interval);
+			edgeTreeAttr.search(interval, currentEdgesAttr.next());
+			return currentEdgesAttr.update();
 		}
 		else
 			return this.emptyList;
@@ -217,10 +221,10 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 	{
 		if (!nodeTable.isEmpty())
 		{
-			List<DynInterval<T>> tempList = nodeTrasnparencyTreeAttr.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentTrasnparencyNodesAttr, tempList);
-			currentTrasnparencyNodesAttr = tempList;
-			return changedList;
+			if (currentTrasnparencyNodesAttr.hasTimeline())
+				return currentTrasnparencyNodesAttr.replay(interval);
+			nodeTrasnparencyTreeAttr.search(interval, currentTrasnparencyNodesAttr.next());
+			return currentTrasnparencyNodesAttr.update();
 		}
 		else
 			return this.emptyList;
@@ -231,31 +235,33 @@ public class DynVizMapImpl<T> extends AbstractDynAttributeCheck<T> implements Dy
 	{
 		if (!edgeTable.isEmpty())
 		{
-			List<DynInterval<T>> tempList = edgeTrasnparencyTreeAttr.search(interval);
-			List<DynInterval<T>> changedList = nonOverlap(currentTrasnparencyEdgesAttr, tempList);
-			currentTrasnparencyEdgesAttr = tempList;
-			return changedList;
+			if (currentTrasnparencyEdgesAttr.hasTimeline())
+				return currentTrasnparencyEdgesAttr.replay(interval);
+			edgeTrasnparencyTreeAttr.search(interval, currentTrasnparencyEdgesAttr.next());
+			return currentTrasnparencyEdgesAttr.update();
 		}
 		else
 			return this.emptyList;
 	}
-	
-	private List<DynInterval<T>> nonOverlap(List<DynInterval<T>> list1, List<DynInterval<T>> list2) 
+
+	@Override
+	public void compileTimeline(double[] times)
+	{
+		currentGraphsAttr.setTimeline(new DynIntervalTimeline<T>(graphTreeAttr.getIntervals(), times));
+		currentNodesAttr.setTimeline(new DynIntervalTimeline<T>(nodeTreeAttr.getIntervals(), times));
+		currentEdgesAttr.setTimeline(new DynIntervalTimeline<T>(edgeTreeAttr.getIntervals(), times));
+		currentTrasnparencyNodesAttr.setTimeline(new DynIntervalTimeline<T>(nodeTrasnparencyTreeAttr.getIntervals(), times));
+		currentTrasnparencyEdgesAttr.setTimeline(new DynIntervalTimeline<T>(edgeTrasnparencyTreeAttr.getIntervals(), times));
+	}
+
+	@Override
+	public void releaseTimeline()
 	{
-		List<DynInterval<T>> diff = new ArrayList<DynInterval<T>>();
-		for (DynInterval<T> i : list1)
-			if (!list2.contains(i))
-			{
-				diff.add(i);
-				i.setOn(false);
-			}
-		for (DynInterval<T> i : list2)
-			if (!list1.contains(i))
-			{
-				diff.add(i);
-				i.setOn(true);
-			}
-		return diff;
+		currentGraphsAttr.setTimeline(null);
+		currentNodesAttr.setTimeline(null);
+		currentEdgesAttr.setTimeline(null);
+		currentTrasnparencyNodesAttr.setTimeline(null);
+		currentTrasnparencyEdgesAttr.setTimeline(null);
 	}
 	
 	@Override
@@ -0,0 +1,284 @@
+/**
+ *
+ */
+package org.cytoscape.dyn.internal.graphMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.cytoscape.dyn.internal.model.snapshot.DynNetworkSnapshot;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNode;
+
+/**
+ * <code>DistanceMetricCheck</code> compares {@link DistanceMetric} on 1 to 7
+ * worker threads, with single and 64-source searches, against the sequential
+ * implementation it replaced, on random directed and undirected graphs. The
+ * node values and the diameter must match; sums of reciprocal distances may
+ * differ in the last bits, since they are added in a different order.
+ * <p>
+ * It is not run by the build. Run it after <code>mvn test-compile</code> with
+ * <code>java -cp target/classes:target/test-classes
+ * org.cytoscape.dyn.internal.graphMetrics.DistanceMetricCheck [seed] [graphs]</code>
+ *
+ * @author Jimmy
+ *
+ */
+public final class DistanceMetricCheck {
+
+	private static final int MAX_NODES = 40;
+	private static final int MAX_THREADS = 7;
+	private static final double TOLERANCE = 1e-9;
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+		int graphs = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+		Random random = new Random(seed);
+		for (int g = 0; g < graphs; g++) {
+			boolean directed = g % 2 == 1;
+			int n = 1 + random.nextInt(MAX_NODES);
+			double density = random.nextDouble() * 4.0 / n;
+			SnapshotGraph graph = new SnapshotGraph(createSnapshot(random, n,
+					density));
+
+			double[][] expected = new double[directed ? 3 : 4][n];
+			double expectedDiameter = compute(graph, directed, expected);
+
+			for (int threads = 1; threads <= MAX_THREADS; threads++)
+				for (boolean multiSource : new boolean[] { false, true }) {
+					DistanceMetric metric = new DistanceMetric(directed,
+							threads, multiSource);
+					double[][] actual = new double[expected.length][n];
+					metric.compute(graph, actual);
+					String name = "graph " + g + " (n=" + n + ", directed="
+							+ directed + ", threads=" + threads
+							+ ", multiSource=" + multiSource + ")";
+					for (int a = 0; a < expected.length; a++)
+						for (int i = 0; i < n; i++)
+							check(name + " "
+									+ metric.getAttributeNames()[a] + " of "
+									+ i, actual[a][i], expected[a][i]);
+					check(name + " diameter", metric.getGraphValues()[0],
+							expectedDiameter);
+				}
+		}
+		System.out.println(graphs + " graphs match for 1 to " + MAX_THREADS
+				+ " threads");
+	}
+
+	private static void check(String name, double actual, double expected) {
+		if (Double.compare(actual, expected) == 0)
+			return;
+		if (Math.abs(actual - expected) <= TOLERANCE
+				* Math.max(Math.abs(actual), Math.abs(expected)))
+			return;
+		throw new AssertionError(name + ": " + actual + " instead of "
+				+ expected);
+	}
+
+	// a snapshot with n nodes and random edges, of which the SnapshotGraph
+	// only reads the nodes and their incoming and outgoing edges
+	private static DynNetworkSnapshot<?> createSnapshot(Random random, int n,
+			double density) {
+		final List<CyNode> nodes = new ArrayList<CyNode>();
+		for (int i = 0; i < n; i++)
+			nodes.add(createNode(i));
+
+		final List<List<CyEdge>> inEdges = new ArrayList<List<CyEdge>>();
+		final List<List<CyEdge>> outEdges = new ArrayList<List<CyEdge>>();
+		for (int i = 0; i < n; i++) {
+			inEdges.add(new ArrayList<CyEdge>());
+			outEdges.add(new ArrayList<CyEdge>());
+		}
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				if (i != j && random.nextDouble() < density) {
+					CyEdge edge = createEdge(nodes.get(i), nodes.get(j));
+					outEdges.get(i).add(edge);
+					inEdges.get(j).add(edge);
+				}
+
+		return (DynNetworkSnapshot<?>) Proxy.newProxyInstance(
+				DynNetworkSnapshot.class.getClassLoader(),
+				new Class<?>[] { DynNetworkSnapshot.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						String name = method.getName();
+						if (name.equals("getNodes") && args == null)
+							return nodes;
+						int i = nodes.indexOf(args[0]);
+						if (name.equals("getInEdges"))
+							return inEdges.get(i);
+						if (name.equals("getOutEdges"))
+							return outEdges.get(i);
+						if (name.equals("inDegree"))
+							return inEdges.get(i).size();
+						if (name.equals("outDegree"))
+							return outEdges.get(i).size();
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	private static CyNode createNode(final long suid) {
+		return (CyNode) Proxy.newProxyInstance(CyNode.class.getClassLoader(),
+				new Class<?>[] { CyNode.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						String name = method.getName();
+						if (name.equals("getSUID"))
+							return suid;
+						if (name.equals("hashCode"))
+							return (int) suid;
+						if (name.equals("equals"))
+							return proxy == args[0];
+						if (name.equals("toString"))
+							return "node " + suid;
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	private static CyEdge createEdge(final CyNode source, final CyNode target) {
+		return (CyEdge) Proxy.newProxyInstance(CyEdge.class.getClassLoader(),
+				new Class<?>[] { CyEdge.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						String name = method.getName();
+						if (name.equals("getSource"))
+							return source;
+						if (name.equals("getTarget"))
+							return target;
+						if (name.equals("hashCode"))
+							return System.identityHashCode(proxy);
+						if (name.equals("equals"))
+							return proxy == args[0];
+						throw new UnsupportedOperationException(name);
+					}
+				});
+	}
+
+	/**
+	 * The sequential computation that {@link DistanceMetric} replaced, one
+	 * breadth first search per source and an n x n distance matrix for the
+	 * centroid.
+	 *
+	 * @return diameter, the largest distance between two connected nodes
+	 */
+	private static double compute(SnapshotGraph graph, boolean directed,
+			double[][] values) {
+		int n = graph.getNodeCount();
+		int[] offset = directed ? graph.getSuccessorOffsets() : graph
+				.getNeighborOffsets();
+		int[] adjacency = directed ? graph.getSuccessors() : graph
+				.getNeighbors();
+
+		double[] eccentricity = values[0];
+		double[] closeness = values[1];
+		double[] radiality = values[2];
+
+		int[][] distances = directed ? null : new int[n][];
+		int[] distance = new int[n];
+		int[] queue = new int[n];
+		double graphDistance = 0.0;
+		int diameter = 0;
+
+		for (int source = 0; source < n; source++) {
+			if (!directed)
+				distance = distances[source] = new int[n];
+			breadthFirstSearch(source, offset, adjacency, distance, queue);
+
+			double max = 0.0, sum = 0.0;
+			for (int i = 0; i < n; i++) {
+				if (distance[i] != UNREACHABLE && distance[i] > diameter)
+					diameter = distance[i];
+				double d = distance[i] == UNREACHABLE ? Double.POSITIVE_INFINITY
+						: distance[i];
+				if (directed) {
+					if (i != source)
+						sum += 1 / d;
+					if (d > max && d != Double.POSITIVE_INFINITY)
+						max = d;
+				} else {
+					sum += d;
+					if (d > max)
+						max = d;
+				}
+			}
+
+			if (directed) {
+				closeness[source] = sum;
+				eccentricity[source] = max != 0 ? 1 / max : max;
+			} else {
+				closeness[source] = 1 / sum;
+				eccentricity[source] = 1 / max;
+			}
+			if (max > graphDistance)
+				graphDistance = max;
+		}
+
+		for (int i = 0; i < n; i++)
+			if (directed)
+				radiality[i] = 1 / ((n - 1) * graphDistance - closeness[i]);
+			else
+				radiality[i] = ((n - 1) * (graphDistance + 1) - (1 / closeness[i]))
+						/ (n - 1);
+
+		if (!directed)
+			centroid(distances, values[3]);
+		return diameter;
+	}
+
+	private static void centroid(int[][] distances, double[] centroid) {
+		int n = distances.length;
+		for (int node1 = 0; node1 < n; node1++) {
+			int min = 0;
+			for (int node2 = 0; node2 < n; node2++) {
+				if (node1 == node2)
+					continue;
+				int countNode1 = 0, countNode2 = 0;
+				for (int node3 = 0; node3 < n; node3++) {
+					if (node3 == node1 || node3 == node2)
+						continue;
+					if (distances[node1][node3] < distances[node2][node3])
+						countNode1++;
+					else if (distances[node1][node3] > distances[node2][node3])
+						countNode2++;
+				}
+				if (countNode1 - countNode2 < min)
+					min = countNode1 - countNode2;
+			}
+			centroid[node1] = min;
+		}
+	}
+
+	private static void breadthFirstSearch(int source, int[] offset,
+			int[] adjacency, int[] distance, int[] queue) {
+		Arrays.fill(distance, UNREACHABLE);
+		int head = 0, tail = 0;
+		queue[tail++] = source;
+		distance[source] = 0;
+		while (head < tail) {
+			int v = queue[head++];
+			for (int k = offset[v]; k < offset[v + 1]; k++) {
+				int w = adjacency[k];
+				if (distance[w] == UNREACHABLE) {
+					distance[w] = distance[v] + 1;
+					queue[tail++] = w;
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.layout.standard.distance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <code> DistanceStatisticsCheck </code> compares the iFUB diameter of
+ * {@link DistanceStatistics#diameter(int[], int[], boolean)} with a breadth-first search
+ * from every node, on random directed and undirected graphs of varying size and density,
+ * connected or not.
+ * <br>
+ * It is not run by the build. Run it after <code> mvn test-compile </code> with
+ * <code> java -cp target/classes:target/test-classes
+ * org.cytoscape.dyn.internal.layout.standard.distance.DistanceStatisticsCheck [seed] [graphs] </code>
+ *
+ * @author Sabina Sara Pfister
+ */
+public final class DistanceStatisticsCheck
+{
+	private static final int MAX_NODES = 60;
+
+	public static void main(String[] args)
+	{
+		long seed = args.length>0 ? Long.parseLong(args[0]) : 1;
+		int graphs = args.length>1 ? Integer.parseInt(args[1]) : 4000;
+
+		Random random = new Random(seed);
+		for (int g=0; g<graphs; g++)
+		{
+			boolean directed = g%2==1;
+			int n = random.nextInt(MAX_NODES+1);
+			// from sparse forests to dense graphs
+			double density = random.nextDouble()*random.nextDouble()*4.0/Math.max(1, n);
+			int[][] graph = createGraph(random, n, density, directed);
+
+			int expected = bruteForce(graph[0], graph[1]);
+			int actual = DistanceStatistics.diameter(graph[0], graph[1], directed);
+			if (actual!=expected)
+				throw new AssertionError("graph " + g + " (n=" + n + ", directed=" + directed + 
+						"): diameter " + actual + " instead of " + expected);
+		}
+		System.out.println(graphs + " graphs match");
+	}
+
+	// an undirected edge is listed from both of its nodes
+	private static int[][] createGraph(Random random, int n, double density, boolean directed)
+	{
+		List<List<Integer>> neighbors = new ArrayList<List<Integer>>();
+		for (int i=0; i<n; i++)
+			neighbors.add(new ArrayList<Integer>());
+		for (int i=0; i<n; i++)
+			for (int j=directed ? 0 : i+1; j<n; j++)
+				if (i!=j && random.nextDouble()<density)
+				{
+					neighbors.get(i).add(j);
+					if (!directed)
+						neighbors.get(j).add(i);
+				}
+
+		int[] offset = new int[n+1];
+		for (int i=0; i<n; i++)
+			offset[i+1] = offset[i]+neighbors.get(i).size();
+		int[] adjacency = new int[offset[n]];
+		for (int i=0; i<n; i++)
+			for (int k=0; k<neighbors.get(i).size(); k++)
+				adjacency[offset[i]+k] = neighbors.get(i).get(k);
+		return new int[][] {offset, adjacency};
+	}
+
+	// the largest finite distance found by a breadth-first search from every node
+	private static int bruteForce(int[] offset, int[] adjacency)
+	{
+		int n = offset.length-1;
+		int[] distance = new int[n];
+		int[] queue = new int[n];
+		int diameter = 0;
+		for (int s=0; s<n; s++)
+		{
+			Arrays.fill(distance, -1);
+			distance[s] = 0;
+			queue[0] = s;
+			for (int head=0, tail=1; head<tail; head++)
+			{
+				int u = queue[head];
+				diameter = Math.max(diameter, distance[u]);
+				for (int k=offset[u]; k<offset[u+1]; k++)
+					if (distance[adjacency[k]]<0)
+					{
+						distance[adjacency[k]] = distance[u]+1;
+						queue[tail++] = adjacency[k];
+					}
+			}
+		}
+		return diameter;
+	}
+
+}
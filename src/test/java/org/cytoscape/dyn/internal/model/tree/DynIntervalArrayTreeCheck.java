@@ -0,0 +1,174 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * <code> DynIntervalArrayTreeCheck </code> runs random sequences of single inserts, batch
+ * inserts, removes and queries on a {@link DynIntervalArrayTree}, on-heap and off-heap, and
+ * compares every query with the red-black {@link DynIntervalTreeImpl}. Searches must return
+ * the same intervals in the same order; interval lists, row lookups, counts and event times
+ * must hold the same content.
+ * <br>
+ * It is not run by the build. Run it after <code> mvn test-compile </code> with
+ * <code> java -cp target/classes:target/test-classes
+ * org.cytoscape.dyn.internal.model.tree.DynIntervalArrayTreeCheck [seed] [steps] </code>
+ *
+ * @author Sabina Sara Pfister
+ */
+public final class DynIntervalArrayTreeCheck
+{
+	private static final int MAX_TIME = 50;
+	private static final int MAX_LENGTH = 5;
+	private static final int IDS = 20;
+
+	public static void main(String[] args)
+	{
+		long seed = args.length>0 ? Long.parseLong(args[0]) : 1;
+		int steps = args.length>1 ? Integer.parseInt(args[1]) : 5000;
+
+		for (boolean isOffHeap : new boolean[] {false, true})
+		{
+			int queries = check(new Random(seed), steps, isOffHeap);
+			System.out.println("offHeap=" + isOffHeap + ": " + queries + " queries match");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int check(Random random, int steps, boolean isOffHeap)
+	{
+		DynIntervalArrayTree<Double> tree = new DynIntervalArrayTree<Double>(isOffHeap);
+		DynIntervalTreeImpl<Double> reference = new DynIntervalTreeImpl<Double>();
+		List<DynInterval<Double>> live = new ArrayList<DynInterval<Double>>();
+		List<Long> liveIds = new ArrayList<Long>();
+
+		int queries = 0;
+		for (int step=0; step<steps; step++)
+		{
+			int op = random.nextInt(10);
+			if (op<4 || live.isEmpty())
+			{
+				DynInterval<Double> interval = createInterval(random);
+				long id = random.nextInt(IDS);
+				tree.insert(interval, id);
+				reference.insert(interval, id);
+				live.add(interval);
+				liveIds.add(id);
+			}
+			else if (op<5)
+			{
+				int size = 1+random.nextInt(8);
+				DynInterval<Double>[] intervals = new DynInterval[size];
+				long[] ids = new long[size];
+				for (int k=0; k<size; k++)
+				{
+					intervals[k] = createInterval(random);
+					ids[k] = random.nextInt(IDS);
+					reference.insert(intervals[k], ids[k]);
+					live.add(intervals[k]);
+					liveIds.add(ids[k]);
+				}
+				tree.insert(intervals, ids, size);
+			}
+			else if (op<8)
+			{
+				int k = random.nextInt(live.size());
+				tree.remove(live.get(k), liveIds.get(k));
+				reference.remove(live.get(k), liveIds.get(k));
+				live.remove(k);
+				liveIds.remove(k);
+			}
+			else
+			{
+				double time = random.nextInt(MAX_TIME+MAX_LENGTH);
+				DynInterval<Double> point = new DynIntervalDouble(1.0, time, time);
+				DynInterval<Double> range = new DynIntervalDouble(1.0, time, time+random.nextInt(4));
+				long id = random.nextInt(IDS);
+
+				checkOrder("point search", tree.search(point), reference.search(point));
+				checkOrder("time search", visit(tree, time), reference.search(point));
+				checkOrder("range search", tree.search(range), reference.search(range));
+				checkContent("search not", tree.searchNot(range), reference.searchNot(range));
+				checkContent("intervals", tree.getIntervals(), reference.getIntervals());
+				checkContent("intervals of id", tree.getIntervals(id), reference.getIntervals(id));
+				check("count", tree.getCounter().count(time), reference.getCounter().count(time));
+				check("event times", Arrays.toString(tree.getEventTimes()), Arrays.toString(reference.getEventTimes()));
+				queries++;
+			}
+		}
+		return queries;
+	}
+
+	private static DynInterval<Double> createInterval(Random random)
+	{
+		double start = random.nextInt(MAX_TIME);
+		return new DynIntervalDouble(1.0, start, start+random.nextInt(MAX_LENGTH));
+	}
+
+	private static List<DynInterval<Double>> visit(DynIntervalTree<Double> tree, double time)
+	{
+		final List<DynInterval<Double>> list = new ArrayList<DynInterval<Double>>();
+		tree.search(time, new DynIntervalVisitor<Double>()
+		{
+			@Override
+			public void visit(DynInterval<Double> interval)
+			{
+				list.add(interval);
+			}
+		});
+		return list;
+	}
+
+	private static void checkOrder(String query, List<DynInterval<Double>> actual, List<DynInterval<Double>> expected)
+	{
+		check(query + " size", actual.size(), expected.size());
+		for (int k=0; k<actual.size(); k++)
+			if (actual.get(k)!=expected.get(k))
+				throw new AssertionError(query + ": interval " + k + " differs");
+	}
+
+	private static void checkContent(String query, List<DynInterval<Double>> actual, List<DynInterval<Double>> expected)
+	{
+		check(query + " size", actual.size(), expected.size());
+		Map<DynInterval<Double>,Integer> count = new IdentityHashMap<DynInterval<Double>,Integer>();
+		for (DynInterval<Double> interval : expected)
+			count.put(interval, count.containsKey(interval) ? count.get(interval)+1 : 1);
+		for (DynInterval<Double> interval : actual)
+		{
+			Integer n = count.get(interval);
+			if (n==null || n==0)
+				throw new AssertionError(query + ": unexpected interval " + interval.getStart() + "-" + interval.getEnd());
+			count.put(interval, n-1);
+		}
+	}
+
+	private static void check(String query, Object actual, Object expected)
+	{
+		if (!actual.equals(expected))
+			throw new AssertionError(query + ": " + actual + " instead of " + expected);
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * DynNetwork plugin for Cytoscape 3.0 (http://www.cytoscape.org/).
+ * Copyright (C) 2012 Sabina Sara Pfister
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package org.cytoscape.dyn.internal.model.tree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <code> DynIntervalChangeDetectorBenchmark </code> measures the cost of one change
+ * detection step against the number of visible intervals. Each step moves a window of
+ * visible intervals by 1% of its size, as a slider step does, and the time per step of
+ * {@link DynIntervalChangeDetector} is printed next to the pairwise
+ * <code> List.contains </code> diff it replaced.
+ * <br>
+ * It is not a test and is not run by the build. Run it after <code> mvn test-compile </code> with
+ * <code> java -cp target/classes:target/test-classes
+ * org.cytoscape.dyn.internal.model.tree.DynIntervalChangeDetectorBenchmark [sizes...] </code>
+ *
+ * @author Sabina Sara Pfister
+ */
+public final class DynIntervalChangeDetectorBenchmark
+{
+	private static final int STEPS = 20;
+	private static final int WARMUP = 3;
+	private static final int RUNS = 5;
+
+	// the pairwise diff is quadratic, so it is only timed on a few steps for large sizes
+	private static final int PAIRWISE_LIMIT = 20000;
+
+	public static void main(String[] args)
+	{
+		int[] sizes = {1000, 5000, 20000, 50000};
+		if (args.length>0)
+		{
+			sizes = new int[args.length];
+			for (int k=0; k<args.length; k++)
+				sizes[k] = Integer.parseInt(args[k]);
+		}
+
+		System.out.println("visible\tdetector (ms/step)\tList.contains (ms/step)");
+		for (int n : sizes)
+		{
+			List<List<DynInterval<Double>>> steps = createSteps(n);
+			System.out.printf("%d\t%.3f\t%.3f%n", n, timeDetector(steps), timePairwise(steps, n));
+		}
+	}
+
+	private static List<List<DynInterval<Double>>> createSteps(int n)
+	{
+		int shift = Math.max(1, n/100);
+		List<DynInterval<Double>> pool = new ArrayList<DynInterval<Double>>();
+		for (int k=0; k<n+STEPS*shift; k++)
+			pool.add(new DynIntervalDouble(1.0, k, k+1));
+
+		List<List<DynInterval<Double>>> steps = new ArrayList<List<DynInterval<Double>>>();
+		for (int s=0; s<STEPS; s++)
+			steps.add(new ArrayList<DynInterval<Double>>(pool.subList(s*shift, s*shift+n)));
+		return steps;
+	}
+
+	private static double timeDetector(List<List<DynInterval<Double>>> steps)
+	{
+		DynIntervalChangeDetector<Double> detector = new DynIntervalChangeDetector<Double>();
+		for (int w=0; w<WARMUP; w++)
+			for (List<DynInterval<Double>> list : steps)
+				detector.update(list);
+
+		long start = System.nanoTime();
+		for (int r=0; r<RUNS; r++)
+			for (List<DynInterval<Double>> list : steps)
+				detector.update(list);
+		return (System.nanoTime()-start)/1e6/(RUNS*steps.size());
+	}
+
+	private static double timePairwise(List<List<DynInterval<Double>>> steps, int n)
+	{
+		// every timed step diffs a window against the previous one, starting at step 1
+		int count = n>PAIRWISE_LIMIT ? 3 : steps.size()-1;
+		List<DynInterval<Double>> current = steps.get(0);
+		nonOverlap(current, steps.get(1));
+
+		long start = System.nanoTime();
+		for (List<DynInterval<Double>> list : steps.subList(1, count+1))
+		{
+			nonOverlap(current, list);
+			current = list;
+		}
+		return (System.nanoTime()-start)/1e6/count;
+	}
+
+	// the diff used by the view, layout and vizmap before DynIntervalChangeDetector
+	private static <T> List<DynInterval<T>> nonOverlap(List<DynInterval<T>> list1, List<DynInterval<T>> list2)
+	{
+		List<DynInterval<T>> diff = new ArrayList<DynInterval<T>>();
+		for (DynInterval<T> i : list1)
+			if (!list2.contains(i))
+			{
+				diff.add(i);
+				i.setOn(false);
+			}
+		for (DynInterval<T> i : list2)
+			if (!list1.contains(i))
+			{
+				diff.add(i);
+				i.setOn(true);
+			}
+		return diff;
+	}
+
+}